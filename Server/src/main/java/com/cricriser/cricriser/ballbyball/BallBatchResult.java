@@ -0,0 +1,61 @@
+package com.cricriser.cricriser.ballbyball;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BallBatchResult {
+
+    private String matchId;
+    private boolean applied;   // false → nothing was persisted
+    private int recorded;      // excludes balls that were already stored
+    private List<BallReport> balls = new ArrayList<>();
+
+    // ================= PER-BALL OUTCOME =================
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BallReport {
+
+        private int index;          // position in the submitted list
+        private String status;      // RECORDED, DUPLICATE, REJECTED, SKIPPED
+        private Integer over;
+        private Integer ball;
+        private Long ballSequence;
+        private String error;
+
+        public static BallReport recorded(int index, BallByBall delivery) {
+            return new BallReport(
+                    index, "RECORDED",
+                    delivery.getOver(), delivery.getBall(), delivery.getBallSequence(),
+                    null
+            );
+        }
+
+        // Re-sent ball → what was stored the first time
+        public static BallReport duplicate(int index, BallByBall stored) {
+            return new BallReport(
+                    index, "DUPLICATE",
+                    stored.getOver(), stored.getBall(), stored.getBallSequence(),
+                    null
+            );
+        }
+
+        public static BallReport rejected(int index, String error) {
+            return new BallReport(index, "REJECTED", null, null, null, error);
+        }
+
+        public static BallReport skipped(int index) {
+            return new BallReport(
+                    index, "SKIPPED", null, null, null,
+                    "Not applied because an earlier ball was rejected"
+            );
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.cricriser.cricriser.ballbyball;
 
+import java.util.Date;
+
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,10 +17,40 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "ball_by_ball")
+@CompoundIndexes({
+    // Ball numbering, replay order, snapshots, recent balls
+    @CompoundIndex(name = "match_innings_sequence",
+            def = "{'matchId': 1, 'innings': 1, 'ballSequence': 1}"),
+    // Scorecard order and wicket-on-ball checks
+    @CompoundIndex(name = "match_innings_over_ball",
+            def = "{'matchId': 1, 'innings': 1, 'over': 1, 'ball': 1}"),
+    @CompoundIndex(name = "match_innings_bowler",
+            def = "{'matchId': 1, 'innings': 1, 'bowlerId': 1}"),
+    // Score after N overs: range on legal balls, last one first
+    @CompoundIndex(name = "match_innings_legal_balls",
+            def = "{'matchId': 1, 'innings': 1, 'legalBallsAtBall': 1, 'ballSequence': 1}"),
+    // Fall of wickets and worm: only the few balls they return are indexed
+    // (trailing field keeps the key pattern distinct from match_innings_sequence)
+    @CompoundIndex(name = "match_innings_wickets",
+            def = "{'matchId': 1, 'innings': 1, 'ballSequence': 1, 'outBatterId': 1}",
+            partialFilter = "{'outBatterId': {'$exists': true}}"),
+    @CompoundIndex(name = "match_innings_over_ends",
+            def = "{'matchId': 1, 'innings': 1, 'ballSequence': 1, 'overCompleted': 1}",
+            partialFilter = "{'overCompleted': true}"),
+    @CompoundIndex(name = "match_client_ball",
+            def = "{'matchId': 1, 'clientBallId': 1}",
+            unique = true,
+            partialFilter = "{'clientBallId': {'$exists': true}}")
+})
 public class BallByBall {
 
     @Id
-    private String id; // Match context
+    private String id;
+
+    // Client-generated delivery key (UUID) → retries are recorded once
+    private String clientBallId;
+
+    // Match context
     private String leagueId;
     private String matchId;
     private String battingTeamId;
@@ -53,16 +89,23 @@ public class BallByBall {
     private boolean bowlerInjured;
     private boolean highFullToss;
 
-    // Match snapshot
+    // Match snapshot (batting side totals after this ball)
     private int totalRunsAtBall;
     private int totalWicketsAtBall;
     private double oversAtBall;
+    private int legalBallsAtBall;
+    private int extrasAtBall;
+    private double runRateAtBall;
 
     // Meta
     private String phase; // POWERPLAY, MIDDLE, DEATH 
     private String commentary;
     private long timestamp;
 
+    // Same instant as a BSON date → time field of the time-series layout
+    @JsonIgnore
+    private Date recordedAt;
+
     // Validation
     private boolean validDelivery = true;
     private String invalidReason;
@@ -76,5 +119,12 @@ public class BallByBall {
 
     private int runningRuns; // runs completed by batters
 
+    // Undo / redo (server side only)
+    @JsonIgnore
+    private BallDelta delta;
 
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+        this.recordedAt = timestamp == 0 ? null : new Date(timestamp);
+    }
 }
@@ -1,7 +1,11 @@
 package com.cricriser.cricriser.ballbyball;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -9,10 +13,17 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.cricriser.cricriser.ballbyball.ballservice.BallByBallService;
+import com.cricriser.cricriser.ballbyball.ballservice.BallFeedService;
+import com.cricriser.cricriser.ballbyball.codec.BallCodec;
+import com.cricriser.cricriser.ballbyball.live.MatchVersions;
+import com.cricriser.cricriser.ballbyball.live.MatchVersions.Version;
 
 
 @RestController
@@ -20,9 +31,17 @@ import com.cricriser.cricriser.ballbyball.ballservice.BallByBallService;
 @CrossOrigin
 public class BallByBallController {
 
+    private static final MediaType BALLS_MEDIA_TYPE = MediaType.parseMediaType(BallCodec.MEDIA_TYPE);
+
     @Autowired
     private BallByBallService ballByBallService;
 
+    @Autowired
+    private BallFeedService ballFeedService;
+
+    @Autowired
+    private MatchVersions matchVersions;
+
 
     
     // ================== RECORD A BALL ==================
@@ -41,24 +60,187 @@ public class BallByBallController {
     }
 
 
+    // ================== RECORD A BATCH (OFFLINE SYNC) ==================
+    @PostMapping("/record-batch")
+    public ResponseEntity<?> recordBatch(@RequestBody List<BallByBall> balls) {
+
+        try {
+            BallBatchResult result = ballByBallService.recordBatch(balls);
+
+            if (!result.isApplied()) {
+                return ResponseEntity
+                        .status(HttpStatus.BAD_REQUEST)
+                        .body(result);
+            }
+            return ResponseEntity.ok(result);
+
+        } catch (RuntimeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ex.getMessage());
+        }
+    }
+
+
+    // ================== UNDO LAST BALL ==================
+    @PostMapping("/match/{matchId}/undo")
+    public ResponseEntity<?> undoLastBall(@PathVariable String matchId) {
+
+        try {
+            return ResponseEntity.ok(ballByBallService.undoLastBall(matchId));
+
+        } catch (RuntimeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ex.getMessage());
+        }
+    }
+
+    // ================== REDO LAST UNDONE BALL ==================
+    @PostMapping("/match/{matchId}/redo")
+    public ResponseEntity<?> redoLastBall(@PathVariable String matchId) {
+
+        try {
+            return ResponseEntity.ok(ballByBallService.redoLastBall(matchId));
+
+        } catch (RuntimeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ex.getMessage());
+        }
+    }
+
     
     // ================== GET ALL BALLS OF MATCH ==================
+    // With a cursor or limit → only the balls after (afterInnings, afterSequence)
     @GetMapping("/match/{matchId}")
-    public ResponseEntity<?> getMatchBalls(@PathVariable String matchId) {
+    public ResponseEntity<?> getMatchBalls(
+            @PathVariable String matchId,
+            @RequestParam(required = false) Integer afterInnings,
+            @RequestParam(required = false) Long afterSequence,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+            @RequestHeader(value = "Accept", required = false) String accept) {
 
-        return ResponseEntity.ok(
-                ballByBallService.getBallsByMatch(matchId)
-        );
+        boolean encoded = wantsEncoded(accept);
+
+        // Version first, then Mongo → the tag is never newer than the body
+        Version version = matchVersions.current(matchId);
+        String etag = matchVersions.etag(encoded ? "balls-bin" : "balls", version);
+        CacheControl cacheControl = matchVersions.cacheControl(version.completed());
+
+        if (matchVersions.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy("Accept")
+                    .build();
+        }
+
+        if (afterInnings == null && afterSequence == null && limit == null) {
+
+            List<BallByBall> balls = ballByBallService.getBallsByMatch(matchId);
+
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy("Accept")
+                    .contentType(encoded ? BALLS_MEDIA_TYPE : MediaType.APPLICATION_JSON)
+                    .body(encoded ? BallCodec.encode(balls) : balls);
+        }
+
+        try {
+            int innings = afterInnings != null ? afterInnings : 1;
+            long sequence = afterSequence != null ? afterSequence : 0;
+            int pageSize = ballFeedService.resolveLimit(limit);
+
+            if (encoded) {
+                // Next cursor = last ball of the page, as in the JSON body
+                List<BallByBall> balls = ballFeedService.ballsAfter(matchId, innings, sequence, pageSize);
+                BallByBall last = balls.isEmpty() ? null : balls.get(balls.size() - 1);
+
+                return ResponseEntity.ok()
+                        .eTag(etag)
+                        .cacheControl(cacheControl)
+                        .varyBy("Accept")
+                        .header("X-Next-After-Innings", String.valueOf(last != null ? last.getInnings() : innings))
+                        .header("X-Next-After-Sequence", String.valueOf(last != null ? last.getBallSequence() : sequence))
+                        .contentType(BALLS_MEDIA_TYPE)
+                        .body(BallCodec.encode(balls));
+            }
+
+            StreamingResponseBody body = out ->
+                    ballFeedService.writeBallsAfter(matchId, innings, sequence, pageSize, out);
+
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy("Accept")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
+
+        } catch (RuntimeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ex.getMessage());
+        }
     }
 
     // ================== GET BALLS BY INNINGS ==================
     @GetMapping("/match/{matchId}/innings/{innings}")
     public ResponseEntity<?> getInningsBalls(
+            @PathVariable String matchId,
+            @PathVariable int innings,
+            @RequestHeader(value = "Accept", required = false) String accept) {
+
+        List<BallByBall> balls = ballByBallService.getBallsByInnings(matchId, innings);
+
+        if (wantsEncoded(accept)) {
+            return ResponseEntity.ok()
+                    .varyBy("Accept")
+                    .contentType(BALLS_MEDIA_TYPE)
+                    .body(BallCodec.encode(balls));
+        }
+        return ResponseEntity.ok(balls);
+    }
+
+    // ================== SCORE AFTER N OVERS ==================
+    @GetMapping("/match/{matchId}/innings/{innings}/after-over/{overs}")
+    public ResponseEntity<?> getScoreAfterOvers(
+            @PathVariable String matchId,
+            @PathVariable int innings,
+            @PathVariable int overs) {
+
+        try {
+            return ResponseEntity.ok(
+                    ballByBallService.getScoreAfterOvers(matchId, innings, overs)
+            );
+        } catch (RuntimeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ex.getMessage());
+        }
+    }
+
+    // ================== FALL OF WICKETS ==================
+    @GetMapping("/match/{matchId}/innings/{innings}/fall-of-wickets")
+    public ResponseEntity<?> getFallOfWickets(
+            @PathVariable String matchId,
+            @PathVariable int innings) {
+
+        return ResponseEntity.ok(
+                ballByBallService.getFallOfWickets(matchId, innings)
+        );
+    }
+
+    // ================== WORM (TOTALS AT END OF EACH OVER) ==================
+    @GetMapping("/match/{matchId}/innings/{innings}/worm")
+    public ResponseEntity<?> getWorm(
             @PathVariable String matchId,
             @PathVariable int innings) {
 
         return ResponseEntity.ok(
-                ballByBallService.getBallsByInnings(matchId, innings)
+                ballByBallService.getWorm(matchId, innings)
         );
     }
 
@@ -69,4 +251,10 @@ public class BallByBallController {
         ballByBallService.deleteBallsByMatch(matchId);
         return ResponseEntity.ok("Ball-by-ball data cleared");
     }
+
+    // ---------- HELPERS ----------
+    // Binary only when asked for by name; */* keeps getting JSON
+    private boolean wantsEncoded(String accept) {
+        return accept != null && accept.contains(BallCodec.MEDIA_TYPE);
+    }
 }
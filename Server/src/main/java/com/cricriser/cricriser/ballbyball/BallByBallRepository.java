@@ -1,15 +1,48 @@
 package com.cricriser.cricriser.ballbyball;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 public interface BallByBallRepository extends MongoRepository<BallByBall, String> {
 
     List<BallByBall> findByMatchIdOrderByOverAscBallAsc(String matchId);
 
+    // Log order for replay
+    List<BallByBall> findByMatchIdOrderByInningsAscBallSequenceAsc(String matchId);
+
+    List<BallByBall> findByMatchIdAndInningsOrderByBallSequenceAsc(String matchId, int innings);
+
     void deleteByMatchId(String matchId);
 
+    // ================= SNAPSHOT LOOKUPS =================
+    // Score after N overs → last ball with at most N * 6 legal balls.
+    // Legal balls never go down along the sequence, so sorting on both
+    // walks match_innings_legal_balls backwards from N * 6 and stops at one
+    BallByBall findTopByMatchIdAndInningsAndLegalBallsAtBallLessThanEqualOrderByLegalBallsAtBallDescBallSequenceDesc(
+            String matchId, int innings, int legalBalls
+    );
+
+    // Filters spelled as the partial indexes' → the planner can pick them
+    @Query(value = "{ 'matchId': ?0, 'innings': ?1, 'outBatterId': { '$exists': true, '$ne': null } }",
+            sort = "{ 'ballSequence': 1 }")
+    List<BallByBall> findWicketBalls(String matchId, int innings);
+
+    @Query(value = "{ 'matchId': ?0, 'innings': ?1, 'overCompleted': true }",
+            sort = "{ 'ballSequence': 1 }")
+    List<BallByBall> findOverEndBalls(String matchId, int innings);
+
+    // Idempotent submission
+    BallByBall findByMatchIdAndClientBallId(String matchId, String clientBallId);
+
+    List<BallByBall> findByMatchIdAndClientBallIdIn(
+            String matchId, Collection<String> clientBallIds
+    );
+
+    List<BallByBall> findTop128ByMatchIdOrderByInningsDescBallSequenceDesc(String matchId);
+
     boolean existsByMatchIdAndInningsAndOverAndBallAndIsWicketTrue(
             String matchId, int innings, int over, int ball
     );
@@ -0,0 +1,30 @@
+package com.cricriser.cricriser.ballbyball;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What one delivery changed, stored with the ball so it can be undone and
+ * redone without recomputing the match: the MatchScore fields it touched
+ * (before and after values) and the counter increments it applied to match
+ * and career stats.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BallDelta {
+
+    private String previousBallId;   // null → first ball of the match
+
+    // MatchScore field → value (lists stored whole, they are at most 11 ids)
+    private Map<String, Object> scoreBefore = new LinkedHashMap<>();
+    private Map<String, Object> scoreAfter = new LinkedHashMap<>();
+
+    // playerId → counter increments
+    private Map<String, Map<String, Integer>> matchStats = new LinkedHashMap<>();
+    private Map<String, Map<String, Integer>> careerStats = new LinkedHashMap<>();
+}
@@ -0,0 +1,100 @@
+package com.cricriser.cricriser.ballbyball.archive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * One completed innings in a single document (id = "matchId:innings").
+ *
+ * The analytics columns hold one byte per delivery, in log order, so a
+ * query over many innings reads a few hundred bytes per innings instead of
+ * a few hundred documents. Every other field of every delivery travels in
+ * {@link #balls}: a deflated BallCodec block that turns back into the
+ * original BallByBall objects.
+ */
+@Data
+@Document(collection = "innings_archive")
+@CompoundIndex(name = "match_innings", def = "{'matchId': 1, 'innings': 1}", unique = true)
+public class InningsArchive {
+
+    // extraTypes column
+    public static final byte NO_EXTRA = 0;
+    public static final byte WIDE = 1;
+    public static final byte NO_BALL = 2;
+    public static final byte BYE = 3;
+    public static final byte LEG_BYE = 4;
+
+    // flags column
+    public static final int LEGAL_BALL = 1;
+    public static final int WICKET = 1 << 1;
+    public static final int VALID_DELIVERY = 1 << 2;
+    public static final int BOUNDARY = 1 << 3;
+
+    // batters / bowlers entry with no player
+    public static final int NO_PLAYER = 0xFF;
+
+    @Id
+    private String id;
+
+    private String matchId;
+
+    @Indexed
+    private String leagueId;
+
+    private int innings;
+    private String battingTeamId;
+    private String bowlingTeamId;
+
+    // Innings totals after the last ball
+    private int ballCount;
+    private long lastBallSequence;
+    private int totalRuns;
+    private int totalWickets;
+    private int legalBalls;
+
+    // ================= ANALYTICS COLUMNS =================
+    // batters / bowlers index into players (multikey → "innings of player X")
+    @Indexed
+    private List<String> players = new ArrayList<>();
+
+    private byte[] batters;
+    private byte[] bowlers;
+    private byte[] runs;          // off the bat
+    private byte[] extraRuns;
+    private byte[] extraTypes;
+    private byte[] flags;
+
+    // ================= FULL DELIVERIES =================
+    private byte[] balls;
+    private int encodedBytes;     // BallCodec size before deflate
+
+    private long archivedAt;
+
+    public static String idOf(String matchId, int innings) {
+        return matchId + ":" + innings;
+    }
+
+    public boolean hasFlag(int ball, int flag) {
+        return (flags[ball] & flag) != 0;
+    }
+
+    public String batterAt(int ball) {
+        return playerAt(batters[ball]);
+    }
+
+    public String bowlerAt(int ball) {
+        return playerAt(bowlers[ball]);
+    }
+
+    private String playerAt(byte index) {
+        int i = index & 0xFF;
+        return i == NO_PLAYER ? null : players.get(i);
+    }
+}
@@ -0,0 +1,44 @@
+package com.cricriser.cricriser.ballbyball.archive;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/ball-by-ball/archive")
+@CrossOrigin
+public class InningsArchiveController {
+
+    @Autowired
+    private InningsArchiveService archiveService;
+
+    // ================== ARCHIVE ONE COMPLETED MATCH NOW ==================
+    @PostMapping("/match/{matchId}")
+    public ResponseEntity<?> archiveMatch(@PathVariable String matchId) {
+
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "matchId", matchId,
+                    "inningsArchived", archiveService.archiveMatch(matchId)
+            ));
+
+        } catch (RuntimeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ex.getMessage());
+        }
+    }
+
+    // ================== ARCHIVE EVERY MATCH PAST THE GRACE PERIOD ==================
+    @PostMapping("/sweep")
+    public ResponseEntity<?> sweep() {
+        return ResponseEntity.ok(Map.of("inningsArchived", archiveService.sweep()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.cricriser.cricriser.ballbyball.archive;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface InningsArchiveRepository extends MongoRepository<InningsArchive, String> {
+
+    List<InningsArchive> findByMatchIdOrderByInningsAsc(String matchId);
+
+    List<InningsArchive> findByMatchIdAndInningsGreaterThanEqualOrderByInningsAsc(
+            String matchId, int innings
+    );
+
+    boolean existsByMatchId(String matchId);
+
+    void deleteByMatchId(String matchId);
+
+    void deleteByLeagueId(String leagueId);
+}
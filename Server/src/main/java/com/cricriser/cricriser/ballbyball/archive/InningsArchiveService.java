@@ -0,0 +1,420 @@
+package com.cricriser.cricriser.ballbyball.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.BallByBallRepository;
+import com.cricriser.cricriser.ballbyball.codec.BallCodec;
+import com.cricriser.cricriser.ballbyball.live.MatchSequencer;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.match.matchscoring.MatchScoreRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves the deliveries of completed matches out of ball_by_ball into one
+ * {@link InningsArchive} per innings, so ball_by_ball only holds matches
+ * that are live or finished less than the grace period ago (undo and redo
+ * still work there; archived deliveries are final and keep no undo delta).
+ *
+ * Archives are written before the hot copies are deleted, and readers query
+ * ball_by_ball first and the archive second, so a match archived between
+ * the two reads is still seen whole.
+ */
+@Service
+public class InningsArchiveService {
+
+    private static final Comparator<BallByBall> LOG_ORDER = Comparator
+            .comparingInt(BallByBall::getInnings)
+            .thenComparingLong(BallByBall::getBallSequence);
+
+    @Autowired
+    private InningsArchiveRepository archiveRepo;
+
+    @Autowired
+    private BallByBallRepository ballRepo;
+
+    @Autowired
+    private MatchScoreRepository matchScoreRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MatchSequencer matchSequencer;
+
+    private final long graceMs;
+    private final long sweepMinutes;
+    private ScheduledExecutorService sweeper;
+
+    public InningsArchiveService(
+            @Value("${app.archive.grace-minutes:60}") long graceMinutes,
+            @Value("${app.archive.sweep-minutes:10}") long sweepMinutes
+    ) {
+        this.graceMs = TimeUnit.MINUTES.toMillis(graceMinutes);
+        this.sweepMinutes = sweepMinutes;
+    }
+
+    @PostConstruct
+    public void start() {
+
+        // 0 → archive on demand only
+        if (sweepMinutes <= 0) {
+            return;
+        }
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "innings-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, sweepMinutes, sweepMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    // ================= SWEEP (EVERY COMPLETED MATCH PAST THE GRACE PERIOD) =================
+    public int sweep() {
+
+        // ball_by_ball is small by design → distinct over it is cheap
+        List<String> hot = mongoTemplate.findDistinct(new Query(), "matchId", BallByBall.class, String.class);
+        if (hot.isEmpty()) {
+            return 0;
+        }
+
+        Query completed = Query.query(Criteria.where("matchId").in(hot).and("secondInningsCompleted").is(true));
+        completed.fields().include("matchId");
+
+        long cutoff = System.currentTimeMillis() - graceMs;
+        int archived = 0;
+
+        for (MatchScore score : mongoTemplate.find(completed, MatchScore.class)) {
+            try {
+                if (lastBallAt(score.getMatchId()) <= cutoff) {
+                    archived += archiveMatch(score.getMatchId());
+                }
+            } catch (RuntimeException ex) {
+                System.out.println("[InningsArchiveService] Could not archive match "
+                        + score.getMatchId() + ": " + ex.getMessage());
+            }
+        }
+        return archived;
+    }
+
+    // ================= ARCHIVE ONE MATCH =================
+    public int archiveMatch(String matchId) {
+
+        return matchSequencer.execute(matchId, () -> {
+
+            MatchScore score = matchScoreRepository.findByMatchId(matchId);
+            if (score == null) {
+                throw new RuntimeException("Match score not found");
+            }
+            if (!score.isSecondInningsCompleted()) {
+                throw new RuntimeException("Only completed matches can be archived");
+            }
+
+            List<BallByBall> hot = ballRepo.findByMatchIdOrderByInningsAscBallSequenceAsc(matchId);
+            if (hot.isEmpty()) {
+                return 0;
+            }
+
+            Map<Integer, List<BallByBall>> byInnings = new LinkedHashMap<>();
+            hot.forEach(ball -> byInnings.computeIfAbsent(ball.getInnings(), i -> new ArrayList<>()).add(ball));
+
+            // 1️⃣ PACK EVERY INNINGS (merged with an earlier run that stopped mid-delete)
+            byInnings.forEach((innings, balls) -> {
+                List<BallByBall> merged = merge(archiveRepo.findById(InningsArchive.idOf(matchId, innings)).stream().toList(), balls);
+                archiveRepo.save(pack(score, innings, merged));
+            });
+
+            // 2️⃣ ONLY NOW THE HOT COPIES GO
+            ballRepo.deleteByMatchId(matchId);
+
+            System.out.println("[InningsArchiveService] Archived " + hot.size()
+                    + " balls of match " + matchId + " into " + byInnings.size() + " innings");
+            return byInnings.size();
+        });
+    }
+
+    // Replay repaired the running totals → archive them again (caller holds the match lock)
+    public void rewrite(MatchScore score, int innings, List<BallByBall> balls) {
+        archiveRepo.save(pack(score, innings, balls));
+    }
+
+    // ================= READ =================
+    // null → innings not archived. Hot rows of an archived innings (a ball
+    // entered after the sweep) are laid over the archived copy until the next one
+    public List<BallByBall> ballsOf(String matchId, int innings) {
+
+        return archiveRepo.findById(InningsArchive.idOf(matchId, innings))
+                .map(this::withHotRows)
+                .orElse(null);
+    }
+
+    // Decoded innings with any hot rows recorded into it since it was archived
+    public List<BallByBall> withHotRows(InningsArchive archive) {
+        return merge(List.of(archive), ballRepo.findByMatchIdAndInningsOrderByBallSequenceAsc(
+                archive.getMatchId(), archive.getInnings()));
+    }
+
+    // Whole innings, archived or hot, in ballSequence order
+    public List<BallByBall> inningsLog(String matchId, int innings) {
+
+        List<BallByBall> archived = ballsOf(matchId, innings);
+        return archived == null
+                ? ballRepo.findByMatchIdAndInningsOrderByBallSequenceAsc(matchId, innings)
+                : archived;
+    }
+
+    // Whole match, archived or hot, in (innings, ballSequence) order
+    public List<BallByBall> matchLog(String matchId) {
+
+        List<BallByBall> hot = ballRepo.findByMatchIdOrderByInningsAscBallSequenceAsc(matchId);
+        List<InningsArchive> archives = archiveRepo.findByMatchIdOrderByInningsAsc(matchId);
+        if (archives.isEmpty()) {
+            return hot;
+        }
+        return merge(archives, hot);
+    }
+
+    public boolean hasArchive(String matchId) {
+        return archiveRepo.existsByMatchId(matchId);
+    }
+
+    public boolean isArchived(String matchId, int innings) {
+        return archiveRepo.existsById(InningsArchive.idOf(matchId, innings));
+    }
+
+    public Set<Integer> archivedInnings(String matchId) {
+
+        Query query = Query.query(Criteria.where("matchId").is(matchId));
+        query.fields().include("innings");
+
+        Set<Integer> innings = new HashSet<>();
+        mongoTemplate.find(query, InningsArchive.class).forEach(a -> innings.add(a.getInnings()));
+        return innings;
+    }
+
+    public List<InningsArchive> archivesFrom(String matchId, int innings) {
+        return archiveRepo.findByMatchIdAndInningsGreaterThanEqualOrderByInningsAsc(matchId, innings);
+    }
+
+    public List<BallByBall> decode(InningsArchive archive) {
+        return BallCodec.decode(inflate(archive.getBalls()));
+    }
+
+    // ================= DELETE =================
+    public void deleteMatch(String matchId) {
+        archiveRepo.deleteByMatchId(matchId);
+    }
+
+    public void deleteLeague(String leagueId) {
+        archiveRepo.deleteByLeagueId(leagueId);
+    }
+
+    public void deleteAll() {
+        archiveRepo.deleteAll();
+    }
+
+    // ---------- HELPERS ----------
+    private void sweepQuietly() {
+        try {
+            int archived = sweep();
+            if (archived > 0) {
+                System.out.println("[InningsArchiveService] Sweep archived " + archived + " innings");
+            }
+        } catch (RuntimeException ex) {
+            System.out.println("[InningsArchiveService] Sweep failed: " + ex.getMessage());
+        }
+    }
+
+    private long lastBallAt(String matchId) {
+
+        Query query = Query.query(Criteria.where("matchId").is(matchId))
+                .with(Sort.by(Sort.Direction.DESC, "innings", "ballSequence"))
+                .limit(1);
+        query.fields().include("timestamp");
+
+        BallByBall last = mongoTemplate.findOne(query, BallByBall.class);
+        return last == null ? 0 : last.getTimestamp();
+    }
+
+    private List<BallByBall> merge(List<InningsArchive> archives, List<BallByBall> hot) {
+
+        if (archives.isEmpty()) {
+            return hot;
+        }
+
+        // Same ball in both → the hot copy is the newer one
+        Map<String, BallByBall> byId = new LinkedHashMap<>();
+        archives.forEach(archive -> decode(archive).forEach(ball -> byId.put(ball.getId(), ball)));
+        hot.forEach(ball -> byId.put(ball.getId(), ball));
+
+        List<BallByBall> merged = new ArrayList<>(byId.values());
+        merged.sort(LOG_ORDER);
+        return merged;
+    }
+
+    private InningsArchive pack(MatchScore score, int innings, List<BallByBall> balls) {
+
+        int n = balls.size();
+        BallByBall last = balls.get(n - 1);
+
+        InningsArchive archive = new InningsArchive();
+        archive.setId(InningsArchive.idOf(score.getMatchId(), innings));
+        archive.setMatchId(score.getMatchId());
+        archive.setLeagueId(score.getLeagueId());
+        archive.setInnings(innings);
+        archive.setBattingTeamId(last.getBattingTeamId());
+        archive.setBowlingTeamId(last.getBowlingTeamId());
+
+        archive.setBallCount(n);
+        archive.setLastBallSequence(last.getBallSequence());
+        archive.setTotalRuns(last.getTotalRunsAtBall());
+        archive.setTotalWickets(last.getTotalWicketsAtBall());
+        archive.setLegalBalls(last.getLegalBallsAtBall());
+
+        // 1️⃣ ANALYTICS COLUMNS
+        Map<String, Integer> index = new HashMap<>();
+        byte[] batters = new byte[n];
+        byte[] bowlers = new byte[n];
+        byte[] runs = new byte[n];
+        byte[] extraRuns = new byte[n];
+        byte[] extraTypes = new byte[n];
+        byte[] flags = new byte[n];
+
+        for (int i = 0; i < n; i++) {
+
+            BallByBall ball = balls.get(i);
+
+            batters[i] = (byte) playerIndex(archive.getPlayers(), index, ball.getBatterId());
+            bowlers[i] = (byte) playerIndex(archive.getPlayers(), index, ball.getBowlerId());
+            runs[i] = (byte) Math.min(ball.getRuns(), 0xFF);
+            extraRuns[i] = (byte) Math.min(ball.getExtraRuns(), 0xFF);
+            extraTypes[i] = extraCode(ball.getExtraType());
+            flags[i] = (byte) ((ball.isLegalBall() ? InningsArchive.LEGAL_BALL : 0)
+                    | (ball.isWicket() ? InningsArchive.WICKET : 0)
+                    | (ball.isValidDelivery() ? InningsArchive.VALID_DELIVERY : 0)
+                    | (ball.isBoundary() ? InningsArchive.BOUNDARY : 0));
+        }
+
+        archive.setBatters(batters);
+        archive.setBowlers(bowlers);
+        archive.setRuns(runs);
+        archive.setExtraRuns(extraRuns);
+        archive.setExtraTypes(extraTypes);
+        archive.setFlags(flags);
+
+        // 2️⃣ FULL DELIVERIES
+        byte[] encoded = BallCodec.encode(balls);
+        archive.setEncodedBytes(encoded.length);
+        archive.setBalls(deflate(encoded));
+
+        archive.setArchivedAt(System.currentTimeMillis());
+        return archive;
+    }
+
+    private int playerIndex(List<String> players, Map<String, Integer> index, String playerId) {
+
+        if (playerId == null) {
+            return InningsArchive.NO_PLAYER;
+        }
+
+        Integer i = index.get(playerId);
+        if (i == null) {
+            if (players.size() == InningsArchive.NO_PLAYER) {
+                throw new RuntimeException("Too many players in one innings to archive");
+            }
+            i = players.size();
+            players.add(playerId);
+            index.put(playerId, i);
+        }
+        return i;
+    }
+
+    private byte extraCode(String extraType) {
+
+        if (extraType == null) {
+            return InningsArchive.NO_EXTRA;
+        }
+
+        return switch (extraType) {
+            case "WIDE" -> InningsArchive.WIDE;
+            case "NO_BALL" -> InningsArchive.NO_BALL;
+            case "BYE" -> InningsArchive.BYE;
+            case "LEG_BYE" -> InningsArchive.LEG_BYE;
+            default -> InningsArchive.NO_EXTRA;
+        };
+    }
+
+    private byte[] deflate(byte[] data) {
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] data) {
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new RuntimeException("Innings archive is truncated");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+
+        } catch (DataFormatException ex) {
+            throw new RuntimeException("Innings archive is corrupt: " + ex.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,22 +1,41 @@
 package com.cricriser.cricriser.ballbyball.ballservice;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.cricriser.cricriser.ballbyball.BallBatchResult;
 import com.cricriser.cricriser.ballbyball.BallByBall;
 import com.cricriser.cricriser.ballbyball.BallByBallRepository;
+import com.cricriser.cricriser.ballbyball.archive.InningsArchiveService;
+import com.cricriser.cricriser.ballbyball.live.LiveEventHub;
+import com.cricriser.cricriser.ballbyball.live.LiveMatch;
+import com.cricriser.cricriser.ballbyball.live.LiveMatchService;
+import com.cricriser.cricriser.ballbyball.live.MatchSequencer;
+import com.cricriser.cricriser.ballbyball.wal.BallWal;
 import com.cricriser.cricriser.match.matchscoring.MatchScore;
-import com.cricriser.cricriser.match.matchscoring.MatchScoreRepository;
+import com.cricriser.cricriser.match.matchscoring.MatchScoreWriter;
 import com.cricriser.cricriser.match.matchscoring.MatchScoreUpdateService;
+import com.cricriser.cricriser.match.scorecard.ScorecardService;
 import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStatsService;
 import com.cricriser.cricriser.player.playerstats.PlayerStatsService;
+import com.cricriser.cricriser.points.PointsTableService;
 
 @Service
 public class BallByBallService {
 
+    private static final String JOURNAL_PENDING
+            = "Deliveries of this match are waiting in the local journal for the database, retry shortly";
+
     @Autowired
     private BallByBallRepository ballRepo;
 
@@ -42,7 +61,7 @@ public class BallByBallService {
     private StrikeRotationService strikeService;
 
     @Autowired
-    private MatchScoreRepository matchScoreRepository;
+    private MatchScoreWriter matchScoreWriter;
 
     @Autowired
     private MatchScoreUpdateService matchScoreUpdateService;
@@ -56,21 +75,141 @@ public class BallByBallService {
     @Autowired
     private BattingStateService battingStateService;
 
+    @Autowired
+    private LiveMatchService liveMatchService;
+
+    @Autowired
+    private MatchSequencer matchSequencer;
+
+    @Autowired
+    private UndoRedoService undoRedoService;
+
+    @Autowired
+    private PointsTableService pointsTableService;
+
+    @Autowired
+    private LiveEventHub liveEventHub;
+
+    @Autowired
+    private ScorecardService scorecardService;
+
+    @Autowired
+    private InningsArchiveService archiveService;
+
+    @Autowired
+    private BallWal ballWal;
+
     // ================= RECORD A BALL =================
-    @Transactional
     public BallByBall recordBall(BallByBall ball) {
 
-        // 1️⃣ FETCH MATCH STATE
-        MatchScore score = matchScoreRepository.findByMatchId(ball.getMatchId());
-        if (score == null) {
-            throw new RuntimeException("Match score not found");
+        if (ball == null || ball.getMatchId() == null || ball.getMatchId().isBlank()) {
+            throw new RuntimeException("MatchId is missing");
+        }
+
+        // One writer per match → ballSequence and score updates never interleave
+        return matchSequencer.execute(ball.getMatchId(), () -> record(ball));
+    }
+
+    private BallByBall record(BallByBall ball) {
+
+        // Journaled balls not in Mongo yet → only resident state is current
+        if (ballWal.isPending(ball.getMatchId()) && liveMatchService.get(ball.getMatchId()) == null) {
+            throw new RuntimeException(JOURNAL_PENDING);
+        }
+
+        // 1️⃣ FETCH MATCH STATE (IN MEMORY, MONGO ONLY ON FIRST USE)
+        LiveMatch live = liveMatchService.getOrLoad(ball.getMatchId());
+
+        // RETRIED SUBMISSION → RETURN WHAT WAS STORED, NO PIPELINE, NO DB READ
+        BallByBall seen = live.recentBall(ball.getClientBallId());
+        if (seen != null) {
+            return seen;
+        }
+
+        // Work on a copy → a rejected ball never leaks into live state
+        LiveMatch working = live.copy();
+
+        // 2️⃣ - 1️⃣5️⃣ VALIDATE + SCORE AGAINST LIVE STATE
+        try {
+            applyBall(ball, working);
+        } catch (RuntimeException ex) {
+            // A retry older than the cache no longer fits the current state
+            return storedOrThrow(ball, ex);
+        }
+
+        // Inverse delta travels with the ball → undo never recomputes
+        undoRedoService.captureDelta(ball, live, working);
+
+        // Database known down, or earlier balls of the match still journaled
+        if (ballWal.mustJournal(ball.getMatchId())) {
+            return journal(ball, live, working);
+        }
+
+        // 1️⃣6️⃣ PERSIST ONLY WHAT THIS BALL CHANGED
+        BallByBall savedBall;
+        try {
+            savedBall = ballRepo.insert(ball);
+            matchScoreWriter.write(live.getScore(), working.getScore());
+            matchPlayerStatsService.persistBalls(List.of(savedBall), working);
+            playerStatsService.updatePlayerStats(savedBall);
+
+        } catch (DuplicateKeyException ex) {
+            // Lost the race on (matchId, clientBallId) → nothing else was written
+            return storedOrThrow(ball, ex);
+
+        } catch (RuntimeException ex) {
+            if (ballWal.isEnabled() && BallWal.isUnavailable(ex)) {
+                // Mongo unreachable → the journal holds the ball until replay completes the write
+                ballWal.markDatabaseDown();
+                return journal(ball, live, working);
+            }
+
+            // Partial write → Mongo is the source of truth again
+            liveMatchService.evict(ball.getMatchId());
+            throw ex;
+        }
+
+        liveMatchService.commit(working);
+        working.remember(savedBall);
+        undoRedoService.clearRedo(ball.getMatchId());
+        liveEventHub.ballsRecorded(working, List.of(savedBall));
+        scorecardService.ballsRecorded(working.getScore(), List.of(savedBall));
+
+        // Last ball of the match → its result enters the standings
+        pointsTableService.applyMatchTransition(live.getScore(), working.getScore());
+
+        return savedBall;
+    }
+
+    // ================= DATABASE UNREACHABLE → LOCAL JOURNAL =================
+    // Acknowledged once fsync'd; scorecard and standings follow on replay
+    private BallByBall journal(BallByBall ball, LiveMatch live, LiveMatch working) {
+
+        if (ball.getId() == null) {
+            ball.setId(new ObjectId().toHexString());
         }
 
+        // Version MatchScoreWriter would have written → direct writes resume on the same count
+        working.getScore().setVersion(live.getScore().getVersion() + 1);
+
+        ballWal.append(ball, live.getScore(), working);
+
+        liveMatchService.commit(working);
+        working.remember(ball);
+        undoRedoService.clearRedo(ball.getMatchId());
+        liveEventHub.ballsRecorded(working, List.of(ball));
+
+        return ball;
+    }
+
+    // ================= APPLY A BALL (NO DB ACCESS) =================
+    public void applyBall(BallByBall ball, LiveMatch live) {
+
+        MatchScore score = live.getScore();
+        BallByBall lastBall = live.lastBallOf(ball.getInnings());
+
         // 2️⃣ PRE-BALL VALIDATION (match / innings level)
-        matchScoreUpdateService.validateBeforeBall(
-                ball.getMatchId(),
-                ball.getInnings()
-        );
+        matchScoreUpdateService.validateBeforeBall(score, ball.getInnings());
 
         // 3️⃣ HANDLE NEW OVER (SET NEW BOWLER IF REQUIRED)
         playerValidationService.validateAndSetNewBowler(ball, score);
@@ -86,10 +225,10 @@ public class BallByBallService {
         ballService.validate(ball);
 
         // 6️⃣ ASSIGN OVER / BALL NUMBER
-        ballService.assignBallNumber(ball);
+        ballService.assignBallNumber(ball, lastBall);
 
         // 7️⃣ PLAYER VALIDATIONS (CURRENT BATTERS + BOWLER)
-        playerValidationService.validateBowler(ball);
+        playerValidationService.validateBowler(ball, lastBall);
         playerValidationService.validateBatters(ball, score);
 
         // 8️⃣ APPLY EXTRAS (NO STATE CHANGE)
@@ -99,7 +238,7 @@ public class BallByBallService {
         playerValidationService.validateNewBatter(ball, score);
 
         // 🔟 HANDLE WICKET (SETS outBatterId, updates score position)
-        wicketService.handleWicket(ball, score, matchPlayerStatsService);
+        wicketService.handleWicket(ball, live, matchPlayerStatsService);
 
         // 1️⃣1️⃣ APPLY BATTING STATE (OUT / YET-TO-BAT / REPLACEMENT)
         battingStateService.applyWicketState(ball, score);
@@ -110,36 +249,266 @@ public class BallByBallService {
         // 1️⃣3️⃣ STRIKE ROTATION
         strikeService.rotateStrike(ball, score);
 
-        // 1️⃣4️⃣ SAVE BALL + MATCH SCORE
-        BallByBall savedBall = ballRepo.save(ball);
-        matchScoreRepository.save(score);
+        // 1️⃣4️⃣ UPDATE MATCH SCORE (RUNS / WICKETS / OVERS)
+        matchScoreUpdateService.updateMatchScore(ball, score);
+
+        // 1️⃣5️⃣ MATCH PLAYER STATS
+        matchPlayerStatsService.updateMatchPlayerStats(ball, live);
 
-        // 1️⃣5️⃣ UPDATE MATCH SCORE (RUNS / WICKETS / OVERS)
-        matchScoreUpdateService.updateMatchScore(savedBall, score);
+        // 1️⃣6️⃣ SNAPSHOT (RUNNING TOTALS, SAVED WITH THE BALL)
+        snapshotService.updateSnapshot(ball, score);
 
-        // 1️⃣6️⃣ PLAYER & MATCH STATS
-        playerStatsService.updatePlayerStats(savedBall);
-        matchPlayerStatsService.updateMatchPlayerStats(savedBall, score);
+        live.setLastBall(ball);
+    }
 
-        // 1️⃣7️⃣ SNAPSHOT (AUDIT)
-        snapshotService.updateSnapshot(savedBall);
+    // ================= RECORD A BATCH (OFFLINE SYNC) =================
+    public BallBatchResult recordBatch(List<BallByBall> balls) {
 
-        return savedBall;
+        if (balls == null || balls.isEmpty()) {
+            throw new RuntimeException("No balls to record");
+        }
+
+        String matchId = balls.get(0) == null ? null : balls.get(0).getMatchId();
+        if (matchId == null || matchId.isBlank()) {
+            throw new RuntimeException("MatchId is missing");
+        }
+
+        for (BallByBall ball : balls) {
+            if (ball == null || !matchId.equals(ball.getMatchId())) {
+                throw new RuntimeException("All balls in a batch must belong to the same match");
+            }
+        }
+
+        return matchSequencer.execute(matchId, () -> recordBatch(matchId, balls));
+    }
+
+    private BallBatchResult recordBatch(String matchId, List<BallByBall> balls) {
+
+        if (ballWal.isPending(matchId)) {
+            throw new RuntimeException(JOURNAL_PENDING);
+        }
+
+        BallBatchResult result = new BallBatchResult();
+        result.setMatchId(matchId);
+
+        LiveMatch live = liveMatchService.getOrLoad(matchId);
+
+        // 0️⃣ RE-SENT BATCH → BALLS ALREADY STORED ARE REPORTED, NOT RE-APPLIED
+        Map<String, BallByBall> stored = alreadyStored(live, matchId, balls);
+        Set<String> keys = new HashSet<>();
+        List<BallByBall> fresh = new ArrayList<>();
+
+        // 1️⃣ RUN EVERY BALL THROUGH THE PIPELINE ON ONE WORKING COPY
+        LiveMatch working = live.copy();
+        boolean rejected = false;
+
+        for (int i = 0; i < balls.size(); i++) {
+
+            // Later balls depend on the state the rejected one would have produced
+            if (rejected) {
+                result.getBalls().add(BallBatchResult.BallReport.skipped(i));
+                continue;
+            }
+
+            BallByBall ball = balls.get(i);
+            String key = ball.getClientBallId();
+
+            if (key != null && stored.containsKey(key)) {
+                result.getBalls().add(BallBatchResult.BallReport.duplicate(i, stored.get(key)));
+                continue;
+            }
+
+            if (key != null && !keys.add(key)) {
+                rejected = true;
+                result.getBalls().add(BallBatchResult.BallReport.rejected(
+                        i, "clientBallId appears more than once in the batch"
+                ));
+                continue;
+            }
+
+            try {
+                LiveMatch before = working.copy();
+                applyBall(ball, working);
+                undoRedoService.captureDelta(ball, before, working);
+                fresh.add(ball);
+                result.getBalls().add(BallBatchResult.BallReport.recorded(i, ball));
+
+            } catch (RuntimeException ex) {
+                rejected = true;
+                result.getBalls().add(BallBatchResult.BallReport.rejected(i, ex.getMessage()));
+            }
+        }
+
+        // 2️⃣ ALL OR NOTHING → live state and Mongo untouched
+        if (rejected) {
+            result.setApplied(false);
+            return result;
+        }
+
+        result.setApplied(true);
+
+        // Whole batch was a retry
+        if (fresh.isEmpty()) {
+            return result;
+        }
+
+        // 3️⃣ BULK PERSIST
+        try {
+            ballRepo.insert(fresh);
+            matchScoreWriter.write(live.getScore(), working.getScore());
+            matchPlayerStatsService.persistBalls(fresh, working);
+            playerStatsService.updatePlayerStats(fresh);
+
+        } catch (RuntimeException ex) {
+            liveMatchService.evict(matchId);
+            throw ex;
+        }
+
+        liveMatchService.commit(working);
+        fresh.forEach(working::remember);
+        undoRedoService.clearRedo(matchId);
+        liveEventHub.ballsRecorded(working, fresh);
+        scorecardService.ballsRecorded(working.getScore(), fresh);
+        pointsTableService.applyMatchTransition(live.getScore(), working.getScore());
+
+        result.setRecorded(fresh.size());
+        return result;
+    }
+
+    // ---------- IDEMPOTENCY HELPERS ----------
+    // Off the hot path: only reached when the pipeline or the insert refused the ball
+    private BallByBall storedOrThrow(BallByBall ball, RuntimeException ex) {
+
+        if (ball.getClientBallId() != null) {
+            BallByBall stored = ballRepo.findByMatchIdAndClientBallId(
+                    ball.getMatchId(), ball.getClientBallId()
+            );
+            if (stored != null) {
+                return stored;
+            }
+        }
+        throw ex;
+    }
+
+    // Cache first; one query for the keys it does not know
+    private Map<String, BallByBall> alreadyStored(
+            LiveMatch live,
+            String matchId,
+            List<BallByBall> balls
+    ) {
+        Map<String, BallByBall> stored = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+
+        for (BallByBall ball : balls) {
+            String key = ball.getClientBallId();
+            if (key == null) {
+                continue;
+            }
+
+            BallByBall seen = live.recentBall(key);
+            if (seen != null) {
+                stored.put(key, seen);
+            } else {
+                unknown.add(key);
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            ballRepo.findByMatchIdAndClientBallIdIn(matchId, unknown)
+                    .forEach(ball -> stored.put(ball.getClientBallId(), ball));
+        }
+
+        return stored;
+    }
+
+    // ================= UNDO / REDO LAST BALL =================
+    // Undo works on the stored log → not while part of it is only journaled
+    public BallByBall undoLastBall(String matchId) {
+        if (ballWal.isPending(matchId)) {
+            throw new RuntimeException(JOURNAL_PENDING);
+        }
+        return undoRedoService.undo(matchId);
+    }
+
+    public BallByBall redoLastBall(String matchId) {
+        if (ballWal.isPending(matchId)) {
+            throw new RuntimeException(JOURNAL_PENDING);
+        }
+        return undoRedoService.redo(matchId);
+    }
+
+    // ================= SNAPSHOT QUERIES (INDEX LOOKUPS) =================
+    // Archived innings → same answer from the unpacked innings
+    public BallByBall getScoreAfterOvers(String matchId, int innings, int overs) {
+
+        BallByBall ball = ballRepo
+                .findTopByMatchIdAndInningsAndLegalBallsAtBallLessThanEqualOrderByLegalBallsAtBallDescBallSequenceDesc(
+                        matchId, innings, overs * 6
+                );
+
+        if (ball == null) {
+            List<BallByBall> archived = archiveService.ballsOf(matchId, innings);
+            if (archived != null) {
+                ball = archived.stream()
+                        .filter(b -> b.getLegalBallsAtBall() <= overs * 6)
+                        .reduce((first, second) -> second)
+                        .orElse(null);
+            }
+        }
+
+        if (ball == null) {
+            throw new RuntimeException("No balls bowled in this innings yet");
+        }
+        return ball;
+    }
+
+    public List<BallByBall> getFallOfWickets(String matchId, int innings) {
+
+        List<BallByBall> balls = ballRepo.findWicketBalls(matchId, innings);
+        List<BallByBall> archived = archiveService.ballsOf(matchId, innings);
+
+        return archived == null
+                ? balls
+                : archived.stream().filter(b -> b.getOutBatterId() != null).toList();
+    }
+
+    // One point per completed over
+    public List<BallByBall> getWorm(String matchId, int innings) {
+
+        List<BallByBall> balls = ballRepo.findOverEndBalls(matchId, innings);
+        List<BallByBall> archived = archiveService.ballsOf(matchId, innings);
+
+        return archived == null
+                ? balls
+                : archived.stream().filter(BallByBall::isOverCompleted).toList();
     }
 
     // ================= GET BALLS =================
     public List<BallByBall> getBallsByMatch(String matchId) {
-        return ballRepo.findByMatchIdOrderByOverAscBallAsc(matchId);
+
+        List<BallByBall> balls = ballRepo.findByMatchIdOrderByOverAscBallAsc(matchId);
+        if (!archiveService.hasArchive(matchId)) {
+            return balls;
+        }
+
+        List<BallByBall> log = archiveService.matchLog(matchId);
+        log.sort(Comparator.comparingInt(BallByBall::getOver).thenComparingInt(BallByBall::getBall));
+        return log;
     }
 
+    // Hot for live matches, unpacked from innings_archive once completed
     public List<BallByBall> getBallsByInnings(String matchId, int innings) {
-        return ballRepo.findByMatchIdAndInningsOrderByOverAscBallAsc(
-                matchId, innings
-        );
+        return archiveService.inningsLog(matchId, innings);
     }
 
     // ================= DELETE =================
     public void deleteBallsByMatch(String matchId) {
-        ballRepo.deleteByMatchId(matchId);
+        matchSequencer.run(matchId, () -> {
+            ballRepo.deleteByMatchId(matchId);
+            archiveService.deleteMatch(matchId);
+            scorecardService.deleteMatch(matchId);
+            liveMatchService.evict(matchId);
+            undoRedoService.clearRedo(matchId);
+        });
     }
 }
@@ -0,0 +1,200 @@
+package com.cricriser.cricriser.ballbyball.ballservice;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.archive.InningsArchive;
+import com.cricriser.cricriser.ballbyball.archive.InningsArchiveService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Incremental ball feed: the deliveries after a cursor, in log order.
+ *
+ * ballSequence restarts every innings, so the cursor is the pair
+ * (innings, ballSequence) of the last ball the client holds. The query walks
+ * the match_innings_sequence index and each document is written to the
+ * response as it comes off the Mongo cursor, so heap per request depends on
+ * the page size only, never on how long the match has run.
+ *
+ * Response: { "matchId", "balls": [...], "count", "next": { "afterInnings",
+ * "afterSequence" } } where next is the cursor for the following page
+ * (unchanged when nothing new was found).
+ *
+ * Archived innings come first, unpacked from innings_archive; the hot query
+ * then skips them, so no ball is served twice while a match is archived.
+ */
+@Service
+public class BallFeedService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InningsArchiveService archiveService;
+
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public BallFeedService(
+            @Value("${app.ball-feed.default-limit:120}") int defaultLimit,
+            @Value("${app.ball-feed.max-limit:1000}") int maxLimit
+    ) {
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    // ================= VALIDATE (BEFORE THE RESPONSE IS COMMITTED) =================
+    public int resolveLimit(Integer limit) {
+
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit <= 0) {
+            throw new RuntimeException("limit must be positive");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    // ================= ONE PAGE AS A LIST (BINARY CODEC) =================
+    public List<BallByBall> ballsAfter(String matchId, int afterInnings, long afterSequence, int limit) {
+
+        List<InningsArchive> archives = archiveService.archivesFrom(matchId, afterInnings);
+        List<BallByBall> page = archivedAfter(archives, afterInnings, afterSequence, limit);
+
+        if (page.size() < limit) {
+            Query query = afterQuery(matchId, afterInnings, afterSequence, limit - page.size(), inningsOf(archives));
+            page.addAll(mongoTemplate.find(query, BallByBall.class));
+        }
+        return page;
+    }
+
+    // ================= STREAM ONE PAGE =================
+    public void writeBallsAfter(String matchId, int afterInnings, long afterSequence, int limit, OutputStream out)
+            throws IOException {
+
+        List<InningsArchive> archives = archiveService.archivesFrom(matchId, afterInnings);
+        List<BallByBall> archived = archivedAfter(archives, afterInnings, afterSequence, limit);
+
+        int lastInnings = afterInnings;
+        long lastSequence = afterSequence;
+        int count = 0;
+
+        // One serializer lookup per page, no flush per ball (the servlet buffer decides)
+        ObjectWriter writer = objectMapper.writerFor(BallByBall.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            json.writeStartObject();
+            json.writeStringField("matchId", matchId);
+            json.writeArrayFieldStart("balls");
+
+            for (BallByBall ball : archived) {
+                writer.writeValue(json, ball);
+                lastInnings = ball.getInnings();
+                lastSequence = ball.getBallSequence();
+                count++;
+            }
+
+            // Page still open → the rest comes straight off the Mongo cursor
+            if (count < limit) {
+                Query query = afterQuery(matchId, afterInnings, afterSequence, limit - count, inningsOf(archives));
+
+                try (Stream<BallByBall> balls = mongoTemplate.stream(query, BallByBall.class)) {
+                    for (BallByBall ball : (Iterable<BallByBall>) balls::iterator) {
+                        writer.writeValue(json, ball);
+                        lastInnings = ball.getInnings();
+                        lastSequence = ball.getBallSequence();
+                        count++;
+                    }
+                }
+            }
+
+            json.writeEndArray();
+            json.writeNumberField("count", count);
+
+            json.writeObjectFieldStart("next");
+            json.writeNumberField("afterInnings", lastInnings);
+            json.writeNumberField("afterSequence", lastSequence);
+            json.writeEndObject();
+
+            json.writeEndObject();
+        }
+    }
+
+    // ---------- HELPERS ----------
+    // (innings, seq) > (afterInnings, afterSequence), archived innings excluded
+    private Query afterQuery(String matchId, int afterInnings, long afterSequence, int limit, Set<Integer> archived) {
+
+        Criteria criteria = new Criteria().andOperator(
+                Criteria.where("matchId").is(matchId),
+                new Criteria().orOperator(
+                        Criteria.where("innings").gt(afterInnings),
+                        Criteria.where("innings").is(afterInnings).and("ballSequence").gt(afterSequence)
+                ),
+                archived.isEmpty() ? new Criteria() : Criteria.where("innings").nin(archived)
+        );
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "innings", "ballSequence"))
+                .limit(limit)
+                .cursorBatchSize(Math.min(limit, 256));
+
+        // Undo delta is server side only → never leaves Mongo
+        query.fields().exclude("delta");
+        return query;
+    }
+
+    private List<BallByBall> archivedAfter(
+            List<InningsArchive> archives,
+            int afterInnings,
+            long afterSequence,
+            int limit
+    ) {
+        List<BallByBall> page = new ArrayList<>();
+
+        for (InningsArchive archive : archives) {
+
+            // Hot rows of an archived innings (entered after the sweep) are part of it
+            for (BallByBall ball : archiveService.withHotRows(archive)) {
+                if (page.size() == limit) {
+                    return page;
+                }
+                if (ball.getInnings() > afterInnings || ball.getBallSequence() > afterSequence) {
+                    page.add(ball);
+                }
+            }
+        }
+        return page;
+    }
+
+    private Set<Integer> inningsOf(List<InningsArchive> archives) {
+
+        Set<Integer> innings = new HashSet<>();
+        archives.forEach(archive -> innings.add(archive.getInnings()));
+        return innings;
+    }
+}
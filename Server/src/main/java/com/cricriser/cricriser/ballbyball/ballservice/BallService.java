@@ -73,12 +73,7 @@ public class BallService {
         }
     }
 
-    public void assignBallNumber(BallByBall ball) {
-
-        BallByBall lastBall
-                = ballRepo.findTopByMatchIdAndInningsOrderByBallSequenceDesc(
-                        ball.getMatchId(), ball.getInnings()
-                );
+    public void assignBallNumber(BallByBall ball, BallByBall lastBall) {
 
         // FIRST BALL
         if (lastBall == null) {
@@ -2,28 +2,18 @@ package com.cricriser.cricriser.ballbyball.ballservice;
 
 import java.util.List;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.cricriser.cricriser.ballbyball.BallByBall;
-import com.cricriser.cricriser.ballbyball.BallByBallRepository;
 import com.cricriser.cricriser.match.matchscoring.MatchScore;
 
 @Service
 public class PlayerValidationService {
 
-    @Autowired
-    private BallByBallRepository ballRepo;
-
     // =====================================================
     // 1️⃣ BOWLER VALIDATION
     // =====================================================
-    public void validateBowler(BallByBall ball) {
-
-        BallByBall lastBall
-                = ballRepo.findTopByMatchIdAndInningsOrderByBallSequenceDesc(
-                        ball.getMatchId(), ball.getInnings()
-                );
+    public void validateBowler(BallByBall ball, BallByBall lastBall) {
 
         // First ball of innings
         if (lastBall == null) {
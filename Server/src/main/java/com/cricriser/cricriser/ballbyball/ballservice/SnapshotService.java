@@ -1,30 +1,56 @@
 package com.cricriser.cricriser.ballbyball.ballservice;
 
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
 
 @Service
 public class SnapshotService {
 
-    public void updateSnapshot(BallByBall ball) {
+    // Running totals of the batting side AFTER this ball, read from live state
+    public void updateSnapshot(BallByBall ball, MatchScore score) {
 
-        // ✔ Correct over calculation
-        double overs
-                = ball.getOver()
-                + ((ball.getBall() - 1) / 6.0);
+        boolean team1Batting
+                = score.getTeam1Id().equals(ball.getBattingTeamId());
 
-        ball.setOversAtBall(overs);
-
-        // ✔ Accumulative logic must be handled elsewhere
-        ball.setTotalRunsAtBall(
-                ball.getRuns() + ball.getExtraRuns()
-        );
+        int runs = team1Batting ? score.getTeam1Runs() : score.getTeam2Runs();
+        double overs = team1Batting ? score.getTeam1Overs() : score.getTeam2Overs();
+        int legalBalls = legalBalls(overs);
 
+        ball.setTotalRunsAtBall(runs);
         ball.setTotalWicketsAtBall(
-                ball.isWicket() ? 1 : 0
+                team1Batting ? score.getTeam1Wickets() : score.getTeam2Wickets()
+        );
+        ball.setOversAtBall(overs);
+        ball.setLegalBallsAtBall(legalBalls);
+        ball.setExtrasAtBall(
+                team1Batting ? score.getTeam1Extras() : score.getTeam2Extras()
         );
+        ball.setRunRateAtBall(legalBalls > 0 ? (runs * 6.0) / legalBalls : 0);
+
+        // Replayed balls keep the time they were bowled
+        if (ball.getTimestamp() == 0) {
+            ball.setTimestamp(System.currentTimeMillis());
+        }
+    }
+
+    // Snapshot fields only → used to backfill balls already stored
+    public Update snapshotUpdate(BallByBall ball) {
+
+        return new Update()
+                .set("totalRunsAtBall", ball.getTotalRunsAtBall())
+                .set("totalWicketsAtBall", ball.getTotalWicketsAtBall())
+                .set("oversAtBall", ball.getOversAtBall())
+                .set("legalBallsAtBall", ball.getLegalBallsAtBall())
+                .set("extrasAtBall", ball.getExtrasAtBall())
+                .set("runRateAtBall", ball.getRunRateAtBall());
+    }
 
-        ball.setTimestamp(System.currentTimeMillis());
+    // 12.4 → 76
+    private int legalBalls(double overs) {
+        int completed = (int) overs;
+        return completed * 6 + (int) Math.round((overs - completed) * 10);
     }
 }
@@ -0,0 +1,311 @@
+package com.cricriser.cricriser.ballbyball.ballservice;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.BallByBallRepository;
+import com.cricriser.cricriser.ballbyball.BallDelta;
+import com.cricriser.cricriser.ballbyball.archive.InningsArchiveService;
+import com.cricriser.cricriser.ballbyball.live.LiveEventHub;
+import com.cricriser.cricriser.ballbyball.live.LiveMatch;
+import com.cricriser.cricriser.ballbyball.live.LiveMatchService;
+import com.cricriser.cricriser.ballbyball.live.MatchSequencer;
+import com.cricriser.cricriser.ballbyball.live.MatchVersions;
+import com.cricriser.cricriser.ballbyball.replay.MatchReplayService;
+import com.cricriser.cricriser.match.matchscoring.MatchScoreWriter;
+import com.cricriser.cricriser.match.scorecard.ScorecardService;
+import com.cricriser.cricriser.player.StatDelta;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStatsService;
+import com.cricriser.cricriser.player.playerstats.PlayerStatsService;
+import com.cricriser.cricriser.points.PointsTableService;
+
+/**
+ * Undo / redo of the last delivery. Each ball carries a {@link BallDelta}
+ * captured when it was recorded, so reversing it is a fixed amount of work
+ * no matter how far into the match we are.
+ */
+@Service
+public class UndoRedoService {
+
+    @Autowired
+    private BallByBallRepository ballRepo;
+
+    @Autowired
+    private MatchScoreWriter matchScoreWriter;
+
+    @Autowired
+    private MatchPlayerStatsService matchPlayerStatsService;
+
+    @Autowired
+    private PlayerStatsService playerStatsService;
+
+    @Autowired
+    private LiveMatchService liveMatchService;
+
+    @Autowired
+    private MatchSequencer matchSequencer;
+
+    @Autowired
+    private PointsTableService pointsTableService;
+
+    @Autowired
+    private LiveEventHub liveEventHub;
+
+    @Autowired
+    private ScorecardService scorecardService;
+
+    @Autowired
+    private InningsArchiveService archiveService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MatchReplayService matchReplayService;
+
+    @Autowired
+    private MatchVersions matchVersions;
+
+    // Undone balls per match; only touched under the match's sequencer lock
+    private final Map<String, Deque<BallByBall>> redoStacks = new ConcurrentHashMap<>();
+
+    // Match version right after the last undo / redo → anything since clears the stack
+    private final Map<String, MatchVersions.Version> redoValidAt = new ConcurrentHashMap<>();
+
+    // ================= CAPTURE (AT RECORD TIME) =================
+    public void captureDelta(BallByBall ball, LiveMatch before, LiveMatch after) {
+
+        // Id up front → the next ball of a batch can point back to this one
+        if (ball.getId() == null) {
+            ball.setId(new ObjectId().toHexString());
+        }
+
+        BallDelta delta = new BallDelta();
+        delta.setPreviousBallId(before.getLastBall() == null ? null : before.getLastBall().getId());
+        delta.setScoreBefore(matchScoreWriter.changedFields(before.getScore(), after.getScore()));
+        delta.setScoreAfter(matchScoreWriter.changedFields(after.getScore(), before.getScore()));
+        delta.setMatchStats(increments(matchPlayerStatsService.deltas(List.of(ball))));
+        delta.setCareerStats(increments(playerStatsService.deltas(List.of(ball))));
+
+        ball.setDelta(delta);
+    }
+
+    // A new delivery invalidates whatever was undone before it
+    public void clearRedo(String matchId) {
+        redoStacks.remove(matchId);
+        redoValidAt.remove(matchId);
+    }
+
+    // ================= UNDO =================
+    public BallByBall undo(String matchId) {
+
+        return matchSequencer.execute(matchId, () -> {
+
+            LiveMatch live = liveMatchService.getOrLoad(matchId);
+            BallByBall last = live.lastBallOf(live.getScore().getInnings());
+
+            if (last == null && archiveService.isArchived(matchId, live.getScore().getInnings())) {
+                throw new RuntimeException("This innings is archived, its deliveries can no longer be undone");
+            }
+            if (last == null) {
+                throw new RuntimeException("No ball to undo in the current innings");
+            }
+            if (last.getDelta() == null) {
+                throw new RuntimeException("This ball was recorded without undo data and cannot be undone");
+            }
+
+            BallDelta delta = last.getDelta();
+            LiveMatch working = live.copy();
+
+            // 1️⃣ REVERSE IN MEMORY
+            matchScoreWriter.applyFields(working.getScore(), delta.getScoreBefore());
+
+            Map<String, StatDelta> matchStats = deltas(delta.getMatchStats(), true);
+            matchStats.forEach((playerId, d) -> d.applyTo(working.playerStats(playerId)));
+
+            Set<String> dismissed = dismissedBy(last);
+            dismissed.forEach(playerId
+                    -> matchPlayerStatsService.markBatterNotOut(working.playerStats(playerId)));
+
+            working.setLastBall(delta.getPreviousBallId() == null
+                    ? null
+                    : ballRepo.findById(delta.getPreviousBallId()).orElse(null));
+
+            // 2️⃣ DELETE FIRST: it guards the reversal. A retry after any later
+            // failure no longer finds this ball, so nothing is reversed twice
+            long deleted;
+            try {
+                deleted = mongoTemplate.remove(
+                        Query.query(Criteria.where("_id").is(last.getId())), BallByBall.class
+                ).getDeletedCount();
+
+            } catch (RuntimeException ex) {
+                liveMatchService.evict(matchId);
+                throw ex;
+            }
+
+            if (deleted == 0) {
+                // Undone elsewhere since this state was loaded
+                liveMatchService.evict(matchId);
+                throw new RuntimeException("This ball has already been undone, reload the match");
+            }
+
+            // 3️⃣ PERSIST THE SAME REVERSAL
+            try {
+                matchScoreWriter.write(live.getScore(), working.getScore());
+                matchPlayerStatsService.persistDeltas(matchStats, dismissed, working);
+                playerStatsService.applyDeltas(deltas(delta.getCareerStats(), true));
+
+            } catch (RuntimeException ex) {
+                // Ball gone, totals partly reversed → fold them again from the log
+                repairAfterFailedUndo(matchId, ex);
+                pushRedo(matchId, last);
+                liveEventHub.ballUndone(liveMatchService.getOrLoad(matchId), last);
+                return last;
+            }
+
+            liveMatchService.commit(working);
+            working.forget(last);
+            pointsTableService.applyMatchTransition(live.getScore(), working.getScore());
+            liveEventHub.ballUndone(working, last);
+            scorecardService.ballUndone(working.getScore(), last);
+            pushRedo(matchId, last);
+
+            return last;
+        });
+    }
+
+    // ================= REDO =================
+    public BallByBall redo(String matchId) {
+
+        return matchSequencer.execute(matchId, () -> {
+
+            Deque<BallByBall> stack = redoStacks.get(matchId);
+            if (stack == null || stack.isEmpty()) {
+                throw new RuntimeException("Nothing to redo");
+            }
+
+            BallByBall ball = stack.peek();
+            BallDelta delta = ball.getDelta();
+
+            LiveMatch live = liveMatchService.getOrLoad(matchId);
+            String lastId = live.getLastBall() == null ? null : live.getLastBall().getId();
+
+            // State moved on (a score edit, a reload, another node) → the delta no longer lines up
+            if (!Objects.equals(redoValidAt.get(matchId), matchVersions.current(matchId))
+                    || !Objects.equals(lastId, delta.getPreviousBallId())) {
+                clearRedo(matchId);
+                throw new RuntimeException("Redo is no longer possible, the match has changed");
+            }
+
+            LiveMatch working = live.copy();
+
+            // 1️⃣ RE-APPLY IN MEMORY
+            matchScoreWriter.applyFields(working.getScore(), delta.getScoreAfter());
+
+            Map<String, StatDelta> matchStats = deltas(delta.getMatchStats(), false);
+            matchStats.forEach((playerId, d) -> d.applyTo(working.playerStats(playerId)));
+
+            Set<String> dismissed = dismissedBy(ball);
+            dismissed.forEach(playerId -> matchPlayerStatsService.markBatterOut(
+                    working.playerStats(playerId),
+                    ball.getWicketType(),
+                    ball.getBowlerId(),
+                    ball.getFielderId()
+            ));
+
+            working.setLastBall(ball);
+
+            // 2️⃣ PERSIST
+            try {
+                ballRepo.insert(ball);
+                matchScoreWriter.write(live.getScore(), working.getScore());
+                matchPlayerStatsService.persistDeltas(matchStats, dismissed, working);
+                playerStatsService.applyDeltas(deltas(delta.getCareerStats(), false));
+
+            } catch (RuntimeException ex) {
+                liveMatchService.evict(matchId);
+                throw ex;
+            }
+
+            liveMatchService.commit(working);
+            working.remember(ball);
+            pointsTableService.applyMatchTransition(live.getScore(), working.getScore());
+            liveEventHub.ballsRecorded(working, List.of(ball));
+            scorecardService.ballsRecorded(working.getScore(), List.of(ball));
+            stack.pop();
+            redoValidAt.put(matchId, matchVersions.current(matchId));
+
+            return ball;
+        });
+    }
+
+    // ---------- HELPERS ----------
+    // Redo only applies to the exact state this undo published; any later
+    // commit or eviction (updateScore, delete, reload) moves the version on
+    private void pushRedo(String matchId, BallByBall ball) {
+        redoStacks.computeIfAbsent(matchId, id -> new ArrayDeque<>()).push(ball);
+        redoValidAt.put(matchId, matchVersions.current(matchId));
+    }
+
+    private void repairAfterFailedUndo(String matchId, RuntimeException cause) {
+
+        System.out.println("[UndoRedoService] Undo of match " + matchId
+                + " failed after the ball was removed, rebuilding from the log: " + cause.getMessage());
+        String reason;
+        try {
+            MatchReplayService.ReplayReport report = matchReplayService.rebuildMatch(matchId);
+            if (!report.getSkippedWithoutBalls().contains(matchId)) {
+                return;
+            }
+            reason = "no deliveries left to rebuild from";
+
+        } catch (RuntimeException ex) {
+            reason = ex.getMessage();
+        }
+
+        liveMatchService.evict(matchId);
+        throw new RuntimeException("The ball was removed but the match totals could not be updated ("
+                + reason + "), correct the score by hand or rebuild the match");
+    }
+
+    // outBatterId stays null for retired hurt
+    private Set<String> dismissedBy(BallByBall ball) {
+        return ball.getOutBatterId() == null ? Set.of() : Set.of(ball.getOutBatterId());
+    }
+
+    private Map<String, Map<String, Integer>> increments(Map<String, StatDelta> deltas) {
+
+        Map<String, Map<String, Integer>> increments = new LinkedHashMap<>();
+        deltas.forEach((playerId, delta) -> {
+            if (!delta.isEmpty()) {
+                increments.put(playerId, new LinkedHashMap<>(delta.getIncrements()));
+            }
+        });
+        return increments;
+    }
+
+    private Map<String, StatDelta> deltas(Map<String, Map<String, Integer>> increments, boolean negate) {
+
+        Map<String, StatDelta> deltas = new LinkedHashMap<>();
+        increments.forEach((playerId, fields) -> {
+            StatDelta delta = StatDelta.of(fields);
+            deltas.put(playerId, negate ? delta.negate() : delta);
+        });
+        return deltas;
+    }
+}
@@ -3,6 +3,7 @@ package com.cricriser.cricriser.ballbyball.ballservice;
 import org.springframework.stereotype.Service;
 
 import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.live.LiveMatch;
 import com.cricriser.cricriser.match.matchscoring.MatchScore;
 import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStatsService;
 
@@ -11,7 +12,7 @@ public class WicketHandlingService {
 
     public void handleWicket(
             BallByBall ball,
-            MatchScore score,
+            LiveMatch live,
             MatchPlayerStatsService matchStatsService
     ) {
 
@@ -19,6 +20,7 @@ public class WicketHandlingService {
             return;
         }
 
+        MatchScore score = live.getScore();
         String wicketType = ball.getWicketType();
 
         // RETIRED HURT → NOT OUT
@@ -48,8 +50,7 @@ public class WicketHandlingService {
             // 👉 DO NOT set striker here
             // 👉 BattingStateService will handle replacement
             matchStatsService.markBatterOut(
-                    ball.getMatchId(),
-                    outBatterId,
+                    live.playerStats(outBatterId),
                     wicketType,
                     ball.getBowlerId(),
                     ball.getFielderId()
@@ -63,8 +64,7 @@ public class WicketHandlingService {
         ball.setOutBatterId(outBatterId);
 
         matchStatsService.markBatterOut(
-                ball.getMatchId(),
-                outBatterId,
+                live.playerStats(outBatterId),
                 wicketType,
                 ball.getBowlerId(),
                 ball.getFielderId()
@@ -0,0 +1,617 @@
+package com.cricriser.cricriser.ballbyball.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+import org.bson.types.ObjectId;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+
+/**
+ * Compact binary form of a run of deliveries (normally one innings).
+ *
+ * Layout: magic "CRB", version, ball count, a dictionary of every repeated
+ * string (league / match / team / player ids, unknown enum values), then one
+ * column per field, all values of a column back to back:
+ *
+ *   ids            → dictionary index (varint, 0 = null)
+ *   known enums    → one byte code (extra / wicket type, phase, run-out end)
+ *   booleans       → one varint bit set per ball
+ *   counters       → varint; sequence, totals and timestamp as deltas
+ *   _id, clientBallId → 12 / 16 raw bytes when they are an ObjectId / UUID
+ *   oversAtBall, runRateAtBall → omitted when they equal the value derived
+ *                    from the running totals (always, for the live pipeline)
+ *
+ * Columns keep similar bytes together, which is also what makes the archive
+ * deflate well. Decoding gives back equal BallByBall objects; the undo delta
+ * is server-side only and is not encoded.
+ */
+public final class BallCodec {
+
+    public static final String MEDIA_TYPE = "application/x-cricriser-balls";
+
+    private static final byte[] MAGIC = { 'C', 'R', 'B' };
+    private static final int VERSION = 1;
+
+    // Byte codes (0 = null, ESCAPE = dictionary string follows)
+    private static final String[] EXTRA_TYPES = { null, "WIDE", "NO_BALL", "BYE", "LEG_BYE" };
+    private static final String[] WICKET_TYPES = {
+        null, "BOWLED", "CAUGHT", "LBW", "RUN_OUT", "STUMPED", "HIT_WICKET",
+        "HIT_THE_BALL_TWICE", "RETIRED_HURT", "RETIRED_OUT", "OBSTRUCTING_THE_FIELD",
+        "HANDLED_THE_BALL", "TIMED_OUT"
+    };
+    private static final String[] PHASES = { null, "POWERPLAY", "MIDDLE", "DEATH" };
+    private static final String[] RUN_OUT_ENDS = { null, "STRIKER", "NON_STRIKER" };
+    private static final int ESCAPE = 255;
+
+    // Flag bits
+    private static final int LEGAL_BALL = 1;
+    private static final int FREE_HIT = 1 << 1;
+    private static final int OVER_COMPLETED = 1 << 2;
+    private static final int WICKET = 1 << 3;
+    private static final int BOWLER_INJURED = 1 << 4;
+    private static final int HIGH_FULL_TOSS = 1 << 5;
+    private static final int VALID_DELIVERY = 1 << 6;
+    private static final int BOUNDARY = 1 << 7;
+    private static final int OVERTHROW_BOUNDARY = 1 << 8;
+    private static final int OVERS_STORED = 1 << 9;
+    private static final int RUN_RATE_STORED = 1 << 10;
+
+    // Identifier kinds
+    private static final int ID_NULL = 0;
+    private static final int ID_OBJECT_ID = 1;
+    private static final int ID_UUID = 2;
+    private static final int ID_STRING = 3;
+
+    private BallCodec() {
+    }
+
+    // ================= ENCODE =================
+    public static byte[] encode(List<BallByBall> balls) {
+
+        int n = balls.size();
+        Out out = new Out(64 + n * 24);
+        Dictionary dict = new Dictionary();
+
+        // 1️⃣ DICTIONARY FIRST (ids in a fixed field order, so indexes are small)
+        for (BallByBall b : balls) {
+            dict.add(b.getLeagueId());
+            dict.add(b.getMatchId());
+            dict.add(b.getBattingTeamId());
+            dict.add(b.getBowlingTeamId());
+            dict.add(b.getBatterId());
+            dict.add(b.getNonStrikerId());
+            dict.add(b.getBowlerId());
+            dict.add(b.getOutBatterId());
+            dict.add(b.getNewBatterId());
+            dict.add(b.getFielderId());
+            dict.add(b.getNewBowlerId());
+            dict.addUnknown(b.getExtraType(), EXTRA_TYPES);
+            dict.addUnknown(b.getWicketType(), WICKET_TYPES);
+            dict.addUnknown(b.getPhase(), PHASES);
+            dict.addUnknown(b.getRunOutEnd(), RUN_OUT_ENDS);
+        }
+
+        out.bytes(MAGIC);
+        out.u8(VERSION);
+        out.varint(n);
+
+        out.varint(dict.values.size());
+        for (String value : dict.values) {
+            out.string(value);
+        }
+
+        // 2️⃣ IDENTIFIERS
+        balls.forEach(b -> out.id(b.getId()));
+        balls.forEach(b -> out.id(b.getClientBallId()));
+
+        // 3️⃣ DICTIONARY COLUMNS
+        balls.forEach(b -> out.varint(dict.ref(b.getLeagueId())));
+        balls.forEach(b -> out.varint(dict.ref(b.getMatchId())));
+        balls.forEach(b -> out.varint(dict.ref(b.getBattingTeamId())));
+        balls.forEach(b -> out.varint(dict.ref(b.getBowlingTeamId())));
+        balls.forEach(b -> out.varint(dict.ref(b.getBatterId())));
+        balls.forEach(b -> out.varint(dict.ref(b.getNonStrikerId())));
+        balls.forEach(b -> out.varint(dict.ref(b.getBowlerId())));
+        balls.forEach(b -> out.varint(dict.ref(b.getOutBatterId())));
+        balls.forEach(b -> out.varint(dict.ref(b.getNewBatterId())));
+        balls.forEach(b -> out.varint(dict.ref(b.getFielderId())));
+        balls.forEach(b -> out.varint(dict.ref(b.getNewBowlerId())));
+
+        // 4️⃣ ENUM COLUMNS
+        balls.forEach(b -> out.code(b.getExtraType(), EXTRA_TYPES, dict));
+        balls.forEach(b -> out.code(b.getWicketType(), WICKET_TYPES, dict));
+        balls.forEach(b -> out.code(b.getPhase(), PHASES, dict));
+        balls.forEach(b -> out.code(b.getRunOutEnd(), RUN_OUT_ENDS, dict));
+
+        // 5️⃣ FLAGS
+        balls.forEach(b -> out.varint(flags(b)));
+
+        // 6️⃣ POSITION (sequence as delta: +1 almost always → one byte)
+        balls.forEach(b -> out.varint(b.getInnings()));
+        balls.forEach(b -> out.varint(b.getOver()));
+        balls.forEach(b -> out.varint(b.getBall()));
+        long prev = 0;
+        for (BallByBall b : balls) {
+            out.zigzag(b.getBallSequence() - prev);
+            prev = b.getBallSequence();
+        }
+
+        // 7️⃣ RUNS
+        balls.forEach(b -> out.zigzag(b.getRuns()));
+        balls.forEach(b -> out.zigzag(b.getExtraRuns()));
+        balls.forEach(b -> out.zigzag(b.getRunningRuns()));
+        balls.forEach(b -> out.zigzag(b.getBoundaryRuns()));
+
+        // 8️⃣ RUNNING TOTALS (deltas, restart is just a negative delta)
+        deltas(out, balls, BallByBall::getTotalRunsAtBall);
+        deltas(out, balls, BallByBall::getTotalWicketsAtBall);
+        deltas(out, balls, BallByBall::getLegalBallsAtBall);
+        deltas(out, balls, BallByBall::getExtrasAtBall);
+        for (BallByBall b : balls) {
+            if (Double.compare(b.getOversAtBall(), overs(b.getLegalBallsAtBall())) != 0) {
+                out.f64(b.getOversAtBall());
+            }
+        }
+        for (BallByBall b : balls) {
+            if (Double.compare(b.getRunRateAtBall(), runRate(b)) != 0) {
+                out.f64(b.getRunRateAtBall());
+            }
+        }
+
+        // 9️⃣ TIME + TEXT
+        prev = 0;
+        for (BallByBall b : balls) {
+            out.zigzag(b.getTimestamp() - prev);
+            prev = b.getTimestamp();
+        }
+        balls.forEach(b -> out.string(b.getCommentary()));
+        balls.forEach(b -> out.string(b.getInvalidReason()));
+
+        return out.toByteArray();
+    }
+
+    // ================= DECODE =================
+    public static List<BallByBall> decode(byte[] data) {
+
+        In in = new In(data);
+
+        if (!Arrays.equals(in.bytes(MAGIC.length), MAGIC)) {
+            throw new RuntimeException("Not an encoded ball block");
+        }
+        int version = in.u8();
+        if (version != VERSION) {
+            throw new RuntimeException("Unsupported ball block version " + version);
+        }
+
+        int n = in.count();
+        BallByBall[] balls = new BallByBall[n];
+        for (int i = 0; i < n; i++) {
+            balls[i] = new BallByBall();
+        }
+
+        String[] dict = new String[in.count() + 1];
+        for (int i = 1; i < dict.length; i++) {
+            dict[i] = in.string();
+        }
+
+        each(balls, b -> b.setId(in.id()));
+        each(balls, b -> b.setClientBallId(in.id()));
+
+        each(balls, b -> b.setLeagueId(in.ref(dict)));
+        each(balls, b -> b.setMatchId(in.ref(dict)));
+        each(balls, b -> b.setBattingTeamId(in.ref(dict)));
+        each(balls, b -> b.setBowlingTeamId(in.ref(dict)));
+        each(balls, b -> b.setBatterId(in.ref(dict)));
+        each(balls, b -> b.setNonStrikerId(in.ref(dict)));
+        each(balls, b -> b.setBowlerId(in.ref(dict)));
+        each(balls, b -> b.setOutBatterId(in.ref(dict)));
+        each(balls, b -> b.setNewBatterId(in.ref(dict)));
+        each(balls, b -> b.setFielderId(in.ref(dict)));
+        each(balls, b -> b.setNewBowlerId(in.ref(dict)));
+
+        each(balls, b -> b.setExtraType(in.code(EXTRA_TYPES, dict)));
+        each(balls, b -> b.setWicketType(in.code(WICKET_TYPES, dict)));
+        each(balls, b -> b.setPhase(in.code(PHASES, dict)));
+        each(balls, b -> b.setRunOutEnd(in.code(RUN_OUT_ENDS, dict)));
+
+        int[] flags = new int[n];
+        for (int i = 0; i < n; i++) {
+            int f = in.varint();
+            flags[i] = f;
+            BallByBall b = balls[i];
+            b.setLegalBall((f & LEGAL_BALL) != 0);
+            b.setFreeHit((f & FREE_HIT) != 0);
+            b.setOverCompleted((f & OVER_COMPLETED) != 0);
+            b.setWicket((f & WICKET) != 0);
+            b.setBowlerInjured((f & BOWLER_INJURED) != 0);
+            b.setHighFullToss((f & HIGH_FULL_TOSS) != 0);
+            b.setValidDelivery((f & VALID_DELIVERY) != 0);
+            b.setBoundary((f & BOUNDARY) != 0);
+            b.setOverthrowBoundary((f & OVERTHROW_BOUNDARY) != 0);
+        }
+
+        each(balls, b -> b.setInnings(in.varint()));
+        each(balls, b -> b.setOver(in.varint()));
+        each(balls, b -> b.setBall(in.varint()));
+        long prev = 0;
+        for (BallByBall b : balls) {
+            prev += in.zigzag();
+            b.setBallSequence(prev);
+        }
+
+        each(balls, b -> b.setRuns((int) in.zigzag()));
+        each(balls, b -> b.setExtraRuns((int) in.zigzag()));
+        each(balls, b -> b.setRunningRuns((int) in.zigzag()));
+        each(balls, b -> b.setBoundaryRuns((int) in.zigzag()));
+
+        int[] totals = new int[n];
+        readDeltas(in, totals);
+        each(balls, totals, BallByBall::setTotalRunsAtBall);
+        readDeltas(in, totals);
+        each(balls, totals, BallByBall::setTotalWicketsAtBall);
+        readDeltas(in, totals);
+        each(balls, totals, BallByBall::setLegalBallsAtBall);
+        readDeltas(in, totals);
+        each(balls, totals, BallByBall::setExtrasAtBall);
+
+        for (int i = 0; i < n; i++) {
+            BallByBall b = balls[i];
+            b.setOversAtBall((flags[i] & OVERS_STORED) != 0 ? in.f64() : overs(b.getLegalBallsAtBall()));
+        }
+        for (int i = 0; i < n; i++) {
+            BallByBall b = balls[i];
+            b.setRunRateAtBall((flags[i] & RUN_RATE_STORED) != 0 ? in.f64() : runRate(b));
+        }
+
+        prev = 0;
+        for (BallByBall b : balls) {
+            prev += in.zigzag();
+            b.setTimestamp(prev);
+        }
+        each(balls, b -> b.setCommentary(in.string()));
+        each(balls, b -> b.setInvalidReason(in.string()));
+
+        if (in.pos != data.length) {
+            throw new RuntimeException("Corrupt ball block (trailing bytes)");
+        }
+        return new ArrayList<>(Arrays.asList(balls));
+    }
+
+    // ---------- HELPERS ----------
+    private static int flags(BallByBall b) {
+
+        return (b.isLegalBall() ? LEGAL_BALL : 0)
+                | (b.isFreeHit() ? FREE_HIT : 0)
+                | (b.isOverCompleted() ? OVER_COMPLETED : 0)
+                | (b.isWicket() ? WICKET : 0)
+                | (b.isBowlerInjured() ? BOWLER_INJURED : 0)
+                | (b.isHighFullToss() ? HIGH_FULL_TOSS : 0)
+                | (b.isValidDelivery() ? VALID_DELIVERY : 0)
+                | (b.isBoundary() ? BOUNDARY : 0)
+                | (b.isOverthrowBoundary() ? OVERTHROW_BOUNDARY : 0)
+                | (Double.compare(b.getOversAtBall(), overs(b.getLegalBallsAtBall())) != 0 ? OVERS_STORED : 0)
+                | (Double.compare(b.getRunRateAtBall(), runRate(b)) != 0 ? RUN_RATE_STORED : 0);
+    }
+
+    private static void deltas(Out out, List<BallByBall> balls, ToIntFunction<BallByBall> field) {
+        int prev = 0;
+        for (BallByBall b : balls) {
+            int v = field.applyAsInt(b);
+            out.zigzag(v - prev);
+            prev = v;
+        }
+    }
+
+    private static void readDeltas(In in, int[] values) {
+        int acc = 0;
+        for (int i = 0; i < values.length; i++) {
+            acc += (int) in.zigzag();
+            values[i] = acc;
+        }
+    }
+
+    // Columns are read in order → strictly sequential
+    private static void each(BallByBall[] balls, Consumer<BallByBall> action) {
+        for (BallByBall b : balls) {
+            action.accept(b);
+        }
+    }
+
+    private static void each(BallByBall[] balls, int[] values, ObjIntConsumer<BallByBall> setter) {
+        for (int i = 0; i < balls.length; i++) {
+            setter.accept(balls[i], values[i]);
+        }
+    }
+
+    // Same formulas as SnapshotService
+    private static double overs(int legalBalls) {
+        return legalBalls / 6 + (legalBalls % 6) / 10.0;
+    }
+
+    private static double runRate(BallByBall b) {
+        return b.getLegalBallsAtBall() > 0 ? (b.getTotalRunsAtBall() * 6.0) / b.getLegalBallsAtBall() : 0;
+    }
+
+    // ================= STRING DICTIONARY =================
+    private static final class Dictionary {
+
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> index = new HashMap<>();
+
+        void add(String value) {
+            if (value != null && !index.containsKey(value)) {
+                values.add(value);
+                index.put(value, values.size());   // 0 stays null
+            }
+        }
+
+        void addUnknown(String value, String[] codes) {
+            if (value != null && codeOf(value, codes) < 0) {
+                add(value);
+            }
+        }
+
+        int ref(String value) {
+            return value == null ? 0 : index.get(value);
+        }
+    }
+
+    private static int codeOf(String value, String[] codes) {
+        for (int i = 1; i < codes.length; i++) {
+            if (codes[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ================= WRITER =================
+    private static final class Out {
+
+        private byte[] buf;
+        private int pos;
+
+        Out(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void u8(int v) {
+            ensure(1);
+            buf[pos++] = (byte) v;
+        }
+
+        void bytes(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, buf, pos, b.length);
+            pos += b.length;
+        }
+
+        void varint(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void zigzag(long v) {
+            varint((v << 1) ^ (v >> 63));
+        }
+
+        void f64(double v) {
+            long bits = Double.doubleToRawLongBits(v);
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buf[pos++] = (byte) (bits >>> (8 * i));
+            }
+        }
+
+        // varint(length + 1), 0 = null
+        void string(String s) {
+            if (s == null) {
+                varint(0);
+                return;
+            }
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 1L);
+            bytes(utf8);
+        }
+
+        void code(String value, String[] codes, Dictionary dict) {
+            if (value == null) {
+                u8(0);
+                return;
+            }
+            int code = codeOf(value, codes);
+            if (code > 0) {
+                u8(code);
+            } else {
+                u8(ESCAPE);
+                varint(dict.ref(value));
+            }
+        }
+
+        void id(String id) {
+            if (id == null) {
+                u8(ID_NULL);
+            } else if (ObjectId.isValid(id) && id.equals(id.toLowerCase())) {
+                u8(ID_OBJECT_ID);
+                bytes(new ObjectId(id).toByteArray());
+            } else if (isCanonicalUuid(id)) {
+                UUID uuid = UUID.fromString(id);
+                u8(ID_UUID);
+                long hi = uuid.getMostSignificantBits();
+                long lo = uuid.getLeastSignificantBits();
+                ensure(16);
+                for (int i = 7; i >= 0; i--) {
+                    buf[pos++] = (byte) (hi >>> (8 * i));
+                }
+                for (int i = 7; i >= 0; i--) {
+                    buf[pos++] = (byte) (lo >>> (8 * i));
+                }
+            } else {
+                u8(ID_STRING);
+                string(id);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+    }
+
+    // Only ids that print back identically are stored as raw bytes
+    private static boolean isCanonicalUuid(String s) {
+        if (s.length() != 36) {
+            return false;
+        }
+        try {
+            return UUID.fromString(s).toString().equals(s);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    // ================= READER =================
+    private static final class In {
+
+        private final byte[] buf;
+        private int pos;
+
+        In(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int u8() {
+            check(1);
+            return buf[pos++] & 0xFF;
+        }
+
+        byte[] bytes(int n) {
+            check(n);
+            byte[] b = Arrays.copyOfRange(buf, pos, pos + n);
+            pos += n;
+            return b;
+        }
+
+        int varint() {
+            return (int) varlong();
+        }
+
+        // Element count: every element takes at least one byte
+        int count() {
+            long n = varlong();
+            if (n < 0 || n > buf.length - pos) {
+                throw new RuntimeException("Corrupt ball block (count " + n + ")");
+            }
+            return (int) n;
+        }
+
+        String ref(String[] dict) {
+            long i = varlong();
+            if (i < 0 || i >= dict.length) {
+                throw new RuntimeException("Corrupt ball block (dictionary index " + i + ")");
+            }
+            return dict[(int) i];
+        }
+
+        long varlong() {
+            long v = 0;
+            int shift = 0;
+            while (true) {
+                int b = u8();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return v;
+                }
+                shift += 7;
+                if (shift > 63) {
+                    throw new RuntimeException("Corrupt ball block (varint)");
+                }
+            }
+        }
+
+        long zigzag() {
+            long v = varlong();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        double f64() {
+            check(8);
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits |= (long) (buf[pos++] & 0xFF) << (8 * i);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String string() {
+            long len = varlong();
+            if (len == 0) {
+                return null;
+            }
+            if (len > buf.length) {
+                throw new RuntimeException("Corrupt ball block (truncated)");
+            }
+            int size = (int) len - 1;
+            check(size);
+            String s = new String(buf, pos, size, StandardCharsets.UTF_8);
+            pos += size;
+            return s;
+        }
+
+        String code(String[] codes, String[] dict) {
+            int code = u8();
+            if (code == ESCAPE) {
+                return ref(dict);
+            }
+            if (code >= codes.length) {
+                throw new RuntimeException("Corrupt ball block (code " + code + ")");
+            }
+            return codes[code];
+        }
+
+        String id() {
+            int kind = u8();
+            return switch (kind) {
+                case ID_NULL -> null;
+                case ID_OBJECT_ID -> new ObjectId(bytes(12)).toHexString();
+                case ID_UUID -> {
+                    long hi = 0;
+                    long lo = 0;
+                    for (int i = 0; i < 8; i++) {
+                        hi = (hi << 8) | u8();
+                    }
+                    for (int i = 0; i < 8; i++) {
+                        lo = (lo << 8) | u8();
+                    }
+                    yield new UUID(hi, lo).toString();
+                }
+                case ID_STRING -> string();
+                default -> throw new RuntimeException("Corrupt ball block (id kind " + kind + ")");
+            };
+        }
+
+        private void check(int n) {
+            if (n < 0 || pos + n > buf.length) {
+                throw new RuntimeException("Corrupt ball block (truncated)");
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+/**
+ * One server-sent event of a match stream, serialized once at publish time
+ * and shared by every subscriber.
+ *
+ * id is "innings-ballSequence" of the ball the viewer is at after applying
+ * the event; type is "ball", "undo" or "snapshot".
+ */
+public record LiveEvent(String id, String type, String json) {
+
+    public static String id(int innings, long ballSequence) {
+        return innings + "-" + ballSequence;
+    }
+}
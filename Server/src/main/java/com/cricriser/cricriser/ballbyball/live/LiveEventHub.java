@@ -0,0 +1,361 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.match.matchscoring.MatchScoreRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Fan-out of committed deliveries to SSE viewers.
+ *
+ * Per match: a ring buffer of recent events (resume via Last-Event-ID) and
+ * the current subscribers. Per subscriber: a bounded queue drained by its
+ * own virtual thread, so a slow connection only ever blocks itself. When a
+ * queue overflows it is emptied and replaced by one snapshot of the current
+ * score; the viewer skips ahead instead of holding memory on the server.
+ *
+ * A channel exists only while someone watches: publishing to a match with
+ * no viewers costs a map lookup, and the last viewer to leave drops it.
+ */
+@Component
+public class LiveEventHub {
+
+    @Autowired
+    private MatchScoreRepository matchScoreRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final int replayBuffer;
+    private final int subscriberBuffer;
+    private final long timeoutMs;
+    private final long heartbeatMs;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    // Queued in place of the events a slow subscriber lost
+    private static final LiveEvent SNAPSHOT_MARKER = new LiveEvent(null, "snapshot", null);
+
+    public LiveEventHub(
+            @Value("${app.live.replay-buffer:256}") int replayBuffer,
+            @Value("${app.live.subscriber-buffer:64}") int subscriberBuffer,
+            @Value("${app.live.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.live.heartbeat-ms:15000}") long heartbeatMs
+    ) {
+        this.replayBuffer = replayBuffer;
+        this.subscriberBuffer = subscriberBuffer;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    // ================= PUBLISH (AFTER COMMIT, UNDER THE MATCH LOCK) =================
+    // Nobody watching → nothing serialized, nothing kept
+    public void ballsRecorded(LiveMatch after, List<BallByBall> balls) {
+
+        Channel channel = channels.get(after.getMatchId());
+        if (channel == null) {
+            return;
+        }
+
+        Map<String, Object> score = score(after.getScore());
+
+        for (BallByBall ball : balls) {
+
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("ball", ball(ball));
+            data.put("score", score);
+
+            channel.publish(new LiveEvent(
+                    LiveEvent.id(ball.getInnings(), ball.getBallSequence()), "ball", json(data)
+            ), after.getScore());
+        }
+    }
+
+    public void ballUndone(LiveMatch after, BallByBall undone) {
+
+        Channel channel = channels.get(after.getMatchId());
+        if (channel == null) {
+            return;
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("undone", LiveEvent.id(undone.getInnings(), undone.getBallSequence()));
+        data.put("score", score(after.getScore()));
+
+        channel.publish(new LiveEvent(
+                LiveEvent.id(undone.getInnings(), undone.getBallSequence() - 1), "undo", json(data)
+        ), after.getScore());
+    }
+
+    // ================= SUBSCRIBE =================
+    public SseEmitter subscribe(String matchId, String lastEventId) {
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        Subscriber subscriber = join(matchId, emitter, lastEventId);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+
+        Thread.ofVirtual().name("live-" + matchId).start(subscriber::drain);
+        return emitter;
+    }
+
+    public int subscribers(String matchId) {
+        Channel channel = channels.get(matchId);
+        return channel == null ? 0 : channel.subscribers.size();
+    }
+
+    // ---------- HELPERS ----------
+    // The last viewer may drop the channel between lookup and join → take a fresh one
+    private Subscriber join(String matchId, SseEmitter emitter, String lastEventId) {
+
+        while (true) {
+            Channel channel = channels.computeIfAbsent(matchId, Channel::new);
+            Subscriber subscriber = new Subscriber(channel, emitter);
+            if (channel.join(subscriber, lastEventId)) {
+                return subscriber;
+            }
+        }
+    }
+
+    static Map<String, Object> ball(BallByBall ball) {
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("innings", ball.getInnings());
+        data.put("seq", ball.getBallSequence());
+        data.put("over", ball.getOver());
+        data.put("ball", ball.getBall());
+        data.put("batterId", ball.getBatterId());
+        data.put("bowlerId", ball.getBowlerId());
+        data.put("runs", ball.getRuns());
+        data.put("extraType", ball.getExtraType());
+        data.put("extraRuns", ball.getExtraRuns());
+        data.put("wicket", ball.isWicket());
+        data.put("wicketType", ball.getWicketType());
+        data.put("outBatterId", ball.getOutBatterId());
+        data.put("boundary", ball.isBoundary());
+        data.put("commentary", ball.getCommentary());
+        return data;
+    }
+
+    static Map<String, Object> score(MatchScore s) {
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("matchId", s.getMatchId());
+        data.put("innings", s.getInnings());
+        data.put("battingTeamId", s.getBattingTeamId());
+        data.put("team1Id", s.getTeam1Id());
+        data.put("team1", s.getTeam1Runs() + "/" + s.getTeam1Wickets() + " (" + s.getTeam1Overs() + ")");
+        data.put("team2Id", s.getTeam2Id());
+        data.put("team2", s.getTeam2Runs() + "/" + s.getTeam2Wickets() + " (" + s.getTeam2Overs() + ")");
+        data.put("strikerId", s.getStrikerId());
+        data.put("nonStrikerId", s.getNonStrikerId());
+        data.put("bowlerId", s.getCurrentBowlerId());
+        data.put("freeHit", s.isFreeHit());
+        data.put("status", s.getMatchStatus());
+        data.put("result", s.getResult());
+        return data;
+    }
+
+    private String json(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException("Could not serialize live event: " + ex.getMessage());
+        }
+    }
+
+    // ================= ONE MATCH =================
+    private final class Channel {
+
+        private final String matchId;
+
+        // Ring buffer, oldest at `start`
+        private final LiveEvent[] events = new LiveEvent[replayBuffer];
+        private int start;
+        private int size;
+
+        private MatchScore latest;          // score after the newest event
+        private String latestId;
+
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private boolean dropped;            // removed from `channels`, no longer published to
+
+        Channel(String matchId) {
+            this.matchId = matchId;
+        }
+
+        synchronized void publish(LiveEvent event, MatchScore score) {
+
+            if (size == events.length) {
+                start = (start + 1) % events.length;
+                size--;
+            }
+            events[(start + size) % events.length] = event;
+            size++;
+
+            latest = score;
+            latestId = event.id();
+
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+
+        // Replay after the first occurrence of lastEventId: after an undo the
+        // same id can appear twice, and replaying from the first one always
+        // converges (the undo event rolls the viewer back before the new ball)
+        synchronized boolean join(Subscriber subscriber, String lastEventId) {
+
+            if (dropped) {
+                return false;
+            }
+
+            List<LiveEvent> replay = null;
+
+            if (lastEventId != null) {
+                for (int i = 0; i < size; i++) {
+                    if (lastEventId.equals(events[(start + i) % events.length].id())) {
+                        replay = new ArrayList<>();
+                        for (int j = i + 1; j < size; j++) {
+                            replay.add(events[(start + j) % events.length]);
+                        }
+                        break;
+                    }
+                }
+            }
+
+            // New viewer, unknown id, or too far behind → start from a snapshot
+            if (replay == null || replay.size() > subscriberBuffer) {
+                subscriber.offer(SNAPSHOT_MARKER);
+            } else {
+                replay.forEach(subscriber::offer);
+            }
+
+            subscribers.add(subscriber);
+            return true;
+        }
+
+        // Runs on the viewer's thread; the Mongo read stays outside the
+        // monitor so a joining viewer never holds up publish()
+        LiveEvent snapshot() {
+
+            MatchScore score;
+            String id;
+            synchronized (this) {
+                score = latest;
+                id = latestId;
+            }
+
+            if (score == null) {
+                score = matchScoreRepository.findByMatchId(matchId);
+            }
+            if (score == null) {
+                throw new RuntimeException("Match score not found");
+            }
+
+            return new LiveEvent(id != null ? id : "0-0", "snapshot", json(score(score)));
+        }
+
+        synchronized void leave(Subscriber subscriber) {
+
+            subscribers.remove(subscriber);
+
+            // Nobody watching → free the buffer; a returning viewer starts from a snapshot
+            if (subscribers.isEmpty() && !dropped) {
+                dropped = true;
+                channels.remove(matchId, this);
+            }
+        }
+    }
+
+    // ================= ONE VIEWER =================
+    private final class Subscriber {
+
+        private final Channel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<LiveEvent> queue = new ArrayBlockingQueue<>(subscriberBuffer + 1);
+        private volatile boolean closed;
+
+        Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        // Publisher side: never blocks
+        void offer(LiveEvent event) {
+
+            if (closed) {
+                return;
+            }
+            if (queue.size() >= subscriberBuffer || !queue.offer(event)) {
+                // Too slow → drop what is queued, catch up from the current score
+                queue.clear();
+                queue.offer(SNAPSHOT_MARKER);
+            }
+        }
+
+        // Writer side: one virtual thread per viewer, blocking sends are fine here
+        void drain() {
+            try {
+                while (!closed) {
+
+                    LiveEvent event = queue.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+
+                    if (closed) {
+                        break;
+                    }
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                        continue;
+                    }
+                    if (event == SNAPSHOT_MARKER) {
+                        event = channel.snapshot();
+                    }
+
+                    emitter.send(SseEmitter.event()
+                            .id(event.id())
+                            .name(event.type())
+                            .data(event.json(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Viewer went away
+                emitter.completeWithError(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                emitter.completeWithError(ex);
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            closed = true;
+            channel.leave(this);
+            queue.clear();
+            // Wake the writer so it notices
+            queue.offer(SNAPSHOT_MARKER);
+        }
+    }
+}
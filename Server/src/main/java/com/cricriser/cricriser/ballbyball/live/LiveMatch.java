@@ -0,0 +1,141 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanUtils;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStats;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Resident state of one in-progress match: the score, the last delivery of
+ * the current innings and the match stats of every player who has taken part.
+ *
+ * A published LiveMatch is never mutated. The ball pipeline works on a
+ * {@link #copy()} and swaps it in once the delivery has been persisted, so
+ * readers always see a consistent state.
+ */
+@Getter
+public class LiveMatch {
+
+    public static final int RECENT_BALLS = 128;
+
+    private final MatchScore score;
+
+    @Setter
+    private BallByBall lastBall;
+
+    private final Map<String, MatchPlayerStats> playerStats;
+
+    // clientBallId → stored ball, for retried submissions. Shared by every
+    // copy: it is only written after a ball is persisted, under the match lock
+    private final Map<String, BallByBall> recentBalls;
+
+    public LiveMatch(
+            MatchScore score,
+            BallByBall lastBall,
+            Map<String, MatchPlayerStats> playerStats
+    ) {
+        this(score, lastBall, playerStats, newRecentBalls());
+    }
+
+    private LiveMatch(
+            MatchScore score,
+            BallByBall lastBall,
+            Map<String, MatchPlayerStats> playerStats,
+            Map<String, BallByBall> recentBalls
+    ) {
+        this.score = score;
+        this.lastBall = lastBall;
+        this.playerStats = playerStats;
+        this.recentBalls = recentBalls;
+    }
+
+    public String getMatchId() {
+        return score.getMatchId();
+    }
+
+    // Last delivery only counts within the same innings
+    public BallByBall lastBallOf(int innings) {
+        if (lastBall == null || lastBall.getInnings() != innings) {
+            return null;
+        }
+        return lastBall;
+    }
+
+    // ================= MATCH PLAYER STATS =================
+    public MatchPlayerStats playerStats(String playerId) {
+
+        return playerStats.computeIfAbsent(playerId, id -> {
+            MatchPlayerStats stats = new MatchPlayerStats();
+            // Id up front → every later write is a plain upsert by _id
+            stats.setId(new ObjectId().toHexString());
+            stats.setMatchId(score.getMatchId());
+            stats.setPlayerId(id);
+            return stats;
+        });
+    }
+
+    // ================= RECENT CLIENT BALL IDS =================
+    public BallByBall recentBall(String clientBallId) {
+        return clientBallId == null ? null : recentBalls.get(clientBallId);
+    }
+
+    public void remember(BallByBall ball) {
+        if (ball.getClientBallId() != null) {
+            recentBalls.put(ball.getClientBallId(), ball);
+        }
+    }
+
+    public void forget(BallByBall ball) {
+        if (ball.getClientBallId() != null) {
+            recentBalls.remove(ball.getClientBallId());
+        }
+    }
+
+    // ================= WORKING COPY =================
+    public LiveMatch copy() {
+
+        MatchScore scoreCopy = new MatchScore();
+        BeanUtils.copyProperties(score, scoreCopy);
+
+        scoreCopy.setTeam1YetToBat(copyList(score.getTeam1YetToBat()));
+        scoreCopy.setTeam2YetToBat(copyList(score.getTeam2YetToBat()));
+        scoreCopy.setTeam1OutBatters(copyList(score.getTeam1OutBatters()));
+        scoreCopy.setTeam2OutBatters(copyList(score.getTeam2OutBatters()));
+        scoreCopy.setTeam1PlayingXI(copyList(score.getTeam1PlayingXI()));
+        scoreCopy.setTeam2PlayingXI(copyList(score.getTeam2PlayingXI()));
+
+        Map<String, MatchPlayerStats> statsCopy = new HashMap<>();
+        playerStats.forEach((playerId, stats) -> {
+            MatchPlayerStats copy = new MatchPlayerStats();
+            BeanUtils.copyProperties(stats, copy);
+            statsCopy.put(playerId, copy);
+        });
+
+        return new LiveMatch(scoreCopy, lastBall, statsCopy, recentBalls);
+    }
+
+    // Retries arrive within seconds → the last few overs are plenty
+    private static Map<String, BallByBall> newRecentBalls() {
+        return new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BallByBall> eldest) {
+                return size() > RECENT_BALLS;
+            }
+        };
+    }
+
+    private static <T> ArrayList<T> copyList(List<T> list) {
+        return list == null ? null : new ArrayList<>(list);
+    }
+}
@@ -0,0 +1,126 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.BallByBallRepository;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.match.matchscoring.MatchScoreRepository;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStats;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStatsRepository;
+
+@Service
+public class LiveMatchService {
+
+    @Autowired
+    private MatchScoreRepository matchScoreRepository;
+
+    @Autowired
+    private BallByBallRepository ballRepo;
+
+    @Autowired
+    private MatchPlayerStatsRepository matchPlayerStatsRepository;
+
+    @Autowired
+    private MatchVersions matchVersions;
+
+    private final Map<String, LiveMatch> liveMatches = new ConcurrentHashMap<>();
+
+    // ================= START (FROM startInnings) =================
+    public LiveMatch start(MatchScore score) {
+
+        LiveMatch live = load(score);
+        liveMatches.put(score.getMatchId(), live);
+        matchVersions.bump(score.getMatchId(), false);
+        return live;
+    }
+
+    // ================= GET (LOAD ON MISS) =================
+    public LiveMatch getOrLoad(String matchId) {
+
+        LiveMatch live = liveMatches.get(matchId);
+        if (live != null) {
+            return live;
+        }
+
+        // Server restarted mid-match → rebuild once from Mongo
+        MatchScore score = matchScoreRepository.findByMatchId(matchId);
+        if (score == null) {
+            throw new RuntimeException("Match score not found");
+        }
+
+        live = load(score);
+        liveMatches.put(matchId, live);
+        return live;
+    }
+
+    public LiveMatch get(String matchId) {
+        return liveMatches.get(matchId);
+    }
+
+    // ================= PUBLISH NEW STATE =================
+    public void commit(LiveMatch live) {
+
+        boolean completed = live.getScore().isSecondInningsCompleted();
+        matchVersions.bump(live.getMatchId(), completed);
+
+        // Completed matches no longer need to stay resident
+        if (completed) {
+            liveMatches.remove(live.getMatchId());
+            return;
+        }
+
+        liveMatches.put(live.getMatchId(), live);
+    }
+
+    // ================= DROP (STATE CHANGED OUTSIDE PIPELINE) =================
+    public void evict(String matchId) {
+        liveMatches.remove(matchId);
+        matchVersions.bump(matchId, false);
+    }
+
+    public void evictLeague(String leagueId) {
+        liveMatches.values()
+                .removeIf(live -> leagueId.equals(live.getScore().getLeagueId()));
+        // Non-resident matches of the league changed too
+        matchVersions.resetAll();
+    }
+
+    public void evictAll() {
+        liveMatches.clear();
+        matchVersions.resetAll();
+    }
+
+    // ---------- HELPERS ----------
+    private LiveMatch load(MatchScore score) {
+
+        BallByBall lastBall
+                = ballRepo.findTopByMatchIdAndInningsOrderByBallSequenceDesc(
+                        score.getMatchId(), score.getInnings()
+                );
+
+        Map<String, MatchPlayerStats> stats = new HashMap<>();
+        for (MatchPlayerStats s
+                : matchPlayerStatsRepository.findByMatchId(score.getMatchId())) {
+            stats.put(s.getPlayerId(), s);
+        }
+
+        LiveMatch live = new LiveMatch(score, lastBall, stats);
+
+        // Seed retry detection so a restart does not open a duplicate window
+        List<BallByBall> recent = ballRepo.findTop128ByMatchIdOrderByInningsDescBallSequenceDesc(
+                score.getMatchId()
+        );
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            live.remember(recent.get(i));
+        }
+
+        return live;
+    }
+}
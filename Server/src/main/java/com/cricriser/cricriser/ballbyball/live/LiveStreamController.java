@@ -0,0 +1,29 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/match")
+@CrossOrigin(origins = "*")
+public class LiveStreamController {
+
+    @Autowired
+    private LiveEventHub liveEventHub;
+
+    // Live score as server-sent events (replaces polling score + ball list)
+    @GetMapping(path = "/{matchId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter live(
+            @PathVariable String matchId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return liveEventHub.subscribe(matchId, lastEventId);
+    }
+}
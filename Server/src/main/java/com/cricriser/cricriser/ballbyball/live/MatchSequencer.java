@@ -0,0 +1,75 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes every mutation of one match (ball entry, innings start, state
+ * resets) while different matches run in parallel.
+ *
+ * Locks are striped by matchId hash, so memory stays bounded however many
+ * matches a node hosts. With the default of 64 stripes per core two live
+ * matches share a stripe only rarely, and then simply take turns.
+ */
+@Component
+public class MatchSequencer {
+
+    private static final int STRIPES_PER_CORE = 64;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public MatchSequencer() {
+        this(Runtime.getRuntime().availableProcessors() * STRIPES_PER_CORE);
+    }
+
+    public MatchSequencer(int minStripes) {
+
+        // Power of two → stripe lookup is a mask, not a modulo
+        int size = Integer.highestOneBit(Math.max(1, minStripes - 1)) << 1;
+
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    // ================= RUN ONE MUTATION FOR A MATCH =================
+    public <T> T execute(String matchId, Supplier<T> action) {
+
+        if (matchId == null) {
+            throw new RuntimeException("MatchId is missing");
+        }
+
+        ReentrantLock lock = lockFor(matchId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void run(String matchId, Runnable action) {
+        execute(matchId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    // ---------- HELPERS ----------
+    private ReentrantLock lockFor(String matchId) {
+
+        // Spread high bits so similar ObjectIds land on different stripes
+        int h = matchId.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & mask];
+    }
+}
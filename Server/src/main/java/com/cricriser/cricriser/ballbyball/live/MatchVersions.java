@@ -0,0 +1,114 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory version of every match, for conditional GETs.
+ *
+ * Bumped by LiveMatchService after each change to a match has been written,
+ * so a reader that takes the version BEFORE querying Mongo can at worst
+ * label newer data with an older tag (one extra fetch later), never the
+ * other way round. The epoch changes on restart and on bulk deletes, so a
+ * tag handed out earlier can never match a version counted again from 0.
+ *
+ * Completed matches are additionally served as immutable for a long max-age.
+ */
+@Component
+public class MatchVersions {
+
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+
+    private volatile String epoch = newEpoch();
+
+    private final long completedMaxAgeSeconds;
+
+    public MatchVersions(
+            @Value("${app.http-cache.completed-max-age-seconds:86400}") long completedMaxAgeSeconds
+    ) {
+        this.completedMaxAgeSeconds = completedMaxAgeSeconds;
+    }
+
+    // ================= READ =================
+    public Version current(String matchId) {
+
+        Version v = versions.computeIfAbsent(matchId, id -> new Version(epoch, 0, false));
+        if (v.epoch().equals(epoch)) {
+            return v;
+        }
+
+        // Created while resetAll ran → restart its count under the new epoch
+        String now = epoch;
+        return versions.compute(matchId, (id, old) ->
+                old != null && old.epoch().equals(now) ? old : new Version(now, 0, false)
+        );
+    }
+
+    // Strong ETag; variant separates representations of the same match
+    public String etag(String variant, Version version) {
+        return "\"" + variant + "-" + version.epoch() + "-" + version.version() + "\"";
+    }
+
+    // If-None-Match: comma separated tags or *
+    public boolean matches(String ifNoneMatch, String etag) {
+
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.equals("*") || t.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Live → revalidate every time (cheap with the tag); completed → keep it
+    public CacheControl cacheControl(boolean completed) {
+
+        if (completed) {
+            return CacheControl.maxAge(completedMaxAgeSeconds, TimeUnit.SECONDS)
+                    .cachePublic()
+                    .immutable();
+        }
+        return CacheControl.noCache();
+    }
+
+    // ================= WRITE (AFTER THE CHANGE IS PERSISTED) =================
+    public void bump(String matchId, boolean completed) {
+        versions.compute(matchId, (id, v) -> new Version(
+                epoch, v == null || !v.epoch().equals(epoch) ? 1 : v.version() + 1, completed
+        ));
+    }
+
+    // Learned from a full read (after restart the flag starts false); ignored
+    // if the match changed since that read started
+    public void observeCompleted(String matchId, Version seen, boolean completed) {
+        versions.computeIfPresent(matchId, (id, v) ->
+                v.equals(seen) && v.completed() != completed
+                        ? new Version(v.epoch(), v.version(), completed)
+                        : v
+        );
+    }
+
+    // Unknown set of matches changed → every outstanding tag is stale
+    public void resetAll() {
+        epoch = newEpoch();
+        versions.clear();
+    }
+
+    // ---------- HELPERS ----------
+    private static String newEpoch() {
+        return Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    }
+
+    public record Version(String epoch, long version, boolean completed) {}
+}
@@ -0,0 +1,12 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+
+/**
+ * One message from a scorer over the WebSocket channel.
+ *
+ * id is chosen by the client and echoed in the ack, so commands can be
+ * pipelined without waiting. type is BALL (ball required), UNDO or REDO
+ * (matchId required).
+ */
+public record ScorerCommand(String id, String type, String matchId, BallByBall ball) {}
@@ -0,0 +1,137 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.ballservice.BallByBallService;
+import com.cricriser.cricriser.security.JwtBlacklistService;
+import com.cricriser.cricriser.security.JwtHandshakeInterceptor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Ball entry over one persistent connection (/ws/scorer).
+ *
+ * The container delivers a session's messages one at a time, and each is
+ * handled to completion before the next, so commands reach the per-match
+ * pipeline in the order the scorer sent them. Every command is answered
+ * with an ack carrying its id, the stored ball and the updated score
+ * (striker, non-striker, bowler), the same state the REST calls return.
+ */
+@Component
+public class ScorerSocketHandler extends TextWebSocketHandler {
+
+    @Autowired
+    private BallByBallService ballByBallService;
+
+    @Autowired
+    private LiveMatchService liveMatchService;
+
+    @Autowired
+    private MatchSequencer matchSequencer;
+
+    @Autowired
+    private JwtBlacklistService jwtBlacklistService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+
+        // Logged out since the handshake → drop the channel
+        String token = (String) session.getAttributes().get(JwtHandshakeInterceptor.TOKEN);
+        if (token == null || jwtBlacklistService.isBlacklisted(token)) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("You are logged out. Please login again."));
+            return;
+        }
+
+        // Token expired since the handshake → same answer the REST filter gives
+        Long expiresAt = (Long) session.getAttributes().get(JwtHandshakeInterceptor.EXPIRES_AT);
+        if (expiresAt == null || System.currentTimeMillis() >= expiresAt) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Session expired. Please login again."));
+            return;
+        }
+
+        String commandId = null;
+        Map<String, Object> ack;
+
+        try {
+            ScorerCommand command = objectMapper.readValue(message.getPayload(), ScorerCommand.class);
+            commandId = command.id();
+            ack = handle(command);
+
+        } catch (JsonProcessingException ex) {
+            ack = error("Malformed command: " + ex.getOriginalMessage());
+
+        } catch (RuntimeException ex) {
+            ack = error(ex.getMessage());
+        }
+
+        Map<String, Object> reply = new LinkedHashMap<>();
+        reply.put("id", commandId);
+        reply.putAll(ack);
+
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(reply)));
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        System.out.println("[ScorerSocketHandler] " + session.getId() + " transport error: " + exception.getMessage());
+    }
+
+    // ================= ONE COMMAND =================
+    private Map<String, Object> handle(ScorerCommand command) {
+
+        if (command.type() == null) {
+            throw new RuntimeException("Command type is missing");
+        }
+
+        String matchId = command.ball() != null ? command.ball().getMatchId() : command.matchId();
+        if (matchId == null || matchId.isBlank()) {
+            throw new RuntimeException("MatchId is missing");
+        }
+
+        // Same match lock as the pipeline (reentrant) → the ack shows exactly
+        // the state this command produced
+        return matchSequencer.execute(matchId, () -> {
+
+            BallByBall ball = switch (command.type().toUpperCase()) {
+                case "BALL" -> {
+                    if (command.ball() == null) {
+                        throw new RuntimeException("Ball is missing");
+                    }
+                    yield ballByBallService.recordBall(command.ball());
+                }
+                case "UNDO" -> ballByBallService.undoLastBall(matchId);
+                case "REDO" -> ballByBallService.redoLastBall(matchId);
+                default -> throw new RuntimeException("Unknown command type: " + command.type());
+            };
+
+            Map<String, Object> ack = new LinkedHashMap<>();
+            ack.put("ok", true);
+            ack.put("type", command.type().toUpperCase());
+            ack.put("ball", LiveEventHub.ball(ball));
+            ack.put("score", LiveEventHub.score(liveMatchService.getOrLoad(matchId).getScore()));
+            return ack;
+        });
+    }
+
+    // ---------- HELPERS ----------
+    private Map<String, Object> error(String message) {
+
+        Map<String, Object> ack = new LinkedHashMap<>();
+        ack.put("ok", false);
+        ack.put("error", message);
+        return ack;
+    }
+}
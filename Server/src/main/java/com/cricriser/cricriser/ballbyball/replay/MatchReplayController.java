@@ -0,0 +1,47 @@
+package com.cricriser.cricriser.ballbyball.replay;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/ball-by-ball/rebuild")
+@CrossOrigin
+public class MatchReplayController {
+
+    @Autowired
+    private MatchReplayService matchReplayService;
+
+    // ================== REBUILD ONE MATCH FROM ITS BALLS ==================
+    @PostMapping("/match/{matchId}")
+    public ResponseEntity<?> rebuildMatch(@PathVariable String matchId) {
+
+        try {
+            return ResponseEntity.ok(matchReplayService.rebuildMatch(matchId));
+
+        } catch (RuntimeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ex.getMessage());
+        }
+    }
+
+    // ================== REBUILD EVERY MATCH OF A LEAGUE ==================
+    @PostMapping("/league/{leagueId}")
+    public ResponseEntity<?> rebuildLeague(@PathVariable String leagueId) {
+
+        try {
+            return ResponseEntity.ok(matchReplayService.rebuildLeague(leagueId));
+
+        } catch (RuntimeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ex.getMessage());
+        }
+    }
+}
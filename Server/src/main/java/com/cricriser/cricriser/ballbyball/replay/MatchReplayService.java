@@ -0,0 +1,429 @@
+package com.cricriser.cricriser.ballbyball.replay;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.archive.InningsArchiveService;
+import com.cricriser.cricriser.ballbyball.ballservice.BattingStateService;
+import com.cricriser.cricriser.ballbyball.ballservice.ExtraService;
+import com.cricriser.cricriser.ballbyball.ballservice.OverService;
+import com.cricriser.cricriser.ballbyball.ballservice.SnapshotService;
+import com.cricriser.cricriser.ballbyball.ballservice.StrikeRotationService;
+import com.cricriser.cricriser.ballbyball.ballservice.WicketHandlingService;
+import com.cricriser.cricriser.ballbyball.live.LiveMatch;
+import com.cricriser.cricriser.ballbyball.live.LiveMatchService;
+import com.cricriser.cricriser.ballbyball.live.MatchSequencer;
+import com.cricriser.cricriser.ballbyball.storage.BallStorage;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.match.matchscoring.MatchScoreRepository;
+import com.cricriser.cricriser.match.matchscoring.MatchScoreUpdateService;
+import com.cricriser.cricriser.match.scorecard.ScorecardService;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStats;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStatsRepository;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStatsService;
+import com.cricriser.cricriser.player.playerstats.PlayerStatsService;
+import com.cricriser.cricriser.points.PointsTableService;
+
+/**
+ * Rebuilds MatchScore, MatchPlayerStats and career PlayerStats from the
+ * ball log (ball_by_ball, plus innings_archive for completed matches).
+ * Deliveries are folded in ballSequence order through the same rule
+ * services the live pipeline uses, entirely in memory, and the
+ * projections are written back in bulk.
+ */
+@Service
+public class MatchReplayService {
+
+    private static final int PARALLELISM
+            = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final Comparator<BallByBall> LOG_ORDER = Comparator
+            .comparingInt(BallByBall::getInnings)
+            .thenComparingLong(BallByBall::getBallSequence);
+
+    @Autowired
+    private InningsArchiveService archiveService;
+
+    @Autowired
+    private MatchScoreRepository matchScoreRepository;
+
+    @Autowired
+    private MatchPlayerStatsRepository matchPlayerStatsRepository;
+
+    @Autowired
+    private ExtraService extraService;
+
+    @Autowired
+    private WicketHandlingService wicketService;
+
+    @Autowired
+    private BattingStateService battingStateService;
+
+    @Autowired
+    private OverService overService;
+
+    @Autowired
+    private StrikeRotationService strikeService;
+
+    @Autowired
+    private MatchScoreUpdateService matchScoreUpdateService;
+
+    @Autowired
+    private MatchPlayerStatsService matchPlayerStatsService;
+
+    @Autowired
+    private PlayerStatsService playerStatsService;
+
+    @Autowired
+    private PointsTableService pointsTableService;
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private LiveMatchService liveMatchService;
+
+    @Autowired
+    private MatchSequencer matchSequencer;
+
+    @Autowired
+    private ScorecardService scorecardService;
+
+    @Autowired
+    private BallStorage ballStorage;
+
+    // ================= REBUILD ONE MATCH =================
+    public ReplayReport rebuildMatch(String matchId) {
+
+        long started = System.currentTimeMillis();
+        ReplayReport report = new ReplayReport();
+
+        Set<String> players = rebuildMatchProjections(matchId, report, true);
+        playerStatsService.rebuildCareerStats(players);
+
+        report.setPlayersRebuilt(players.size());
+        report.setMillis(System.currentTimeMillis() - started);
+        return report;
+    }
+
+    // ================= REBUILD A LEAGUE (PARALLEL ACROSS MATCHES) =================
+    public ReplayReport rebuildLeague(String leagueId) {
+
+        long started = System.currentTimeMillis();
+        ReplayReport report = new ReplayReport();
+
+        List<MatchScore> matches = matchScoreRepository.findByLeagueId(leagueId);
+        Set<String> players = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.min(PARALLELISM, Math.max(1, matches.size()))
+        );
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+
+            for (MatchScore match : matches) {
+                tasks.add(pool.submit(() -> {
+                    try {
+                        // Standings are rebuilt once for the whole league below
+                        players.addAll(rebuildMatchProjections(match.getMatchId(), report, false));
+                    } catch (RuntimeException ex) {
+                        report.fail(match.getMatchId(), ex.getMessage());
+                    }
+                }));
+            }
+
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+
+        } catch (Exception ex) {
+            throw new RuntimeException("League rebuild interrupted: " + ex.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+
+        // Career totals span leagues → fold every match of the affected players
+        playerStatsService.rebuildCareerStats(players);
+        pointsTableService.recalculatePointsTable(leagueId);
+
+        report.setPlayersRebuilt(players.size());
+        report.setMillis(System.currentTimeMillis() - started);
+        return report;
+    }
+
+    // ================= PURE REDUCER (NO DB ACCESS) =================
+    public LiveMatch replay(MatchScore stored, List<BallByBall> balls) {
+        return replay(stored, balls, new ArrayList<>());
+    }
+
+    // `replayed` receives each re-derived ball, snapshot included
+    private LiveMatch replay(MatchScore stored, List<BallByBall> balls, List<BallByBall> replayed) {
+
+        LiveMatch live = new LiveMatch(initialState(stored), null, new HashMap<>());
+        MatchScore score = live.getScore();
+        int innings = 0;
+
+        List<BallByBall> ordered = new ArrayList<>(balls);
+        ordered.sort(LOG_ORDER);
+
+        for (BallByBall logged : ordered) {
+
+            BallByBall ball = rawInput(logged);
+
+            if (ball.getInnings() != innings) {
+                openInnings(score, ball);
+                innings = ball.getInnings();
+            }
+
+            // Positions come from the log, so drift in earlier state self-heals
+            score.setStrikerId(ball.getBatterId());
+            score.setNonStrikerId(ball.getNonStrikerId());
+            score.setCurrentBowlerId(ball.getBowlerId());
+
+            extraService.applyExtras(ball);
+            wicketService.handleWicket(ball, live, matchPlayerStatsService);
+            battingStateService.applyWicketState(ball, score);
+            overService.checkOverCompletion(ball, score);
+            strikeService.rotateStrike(ball, score);
+            matchScoreUpdateService.updateMatchScore(ball, score);
+            matchPlayerStatsService.updateMatchPlayerStats(ball, live);
+            snapshotService.updateSnapshot(ball, score);
+
+            live.setLastBall(ball);
+            replayed.add(ball);
+        }
+
+        return live;
+    }
+
+    // ---------- HELPERS ----------
+    private Set<String> rebuildMatchProjections(
+            String matchId,
+            ReplayReport report,
+            boolean adjustStandings
+    ) {
+
+        return matchSequencer.execute(matchId, () -> {
+
+            MatchScore stored = matchScoreRepository.findByMatchId(matchId);
+            if (stored == null) {
+                throw new RuntimeException("Match score not found");
+            }
+
+            List<BallByBall> balls = archiveService.matchLog(matchId);
+
+            // Scores entered by hand (no deliveries) have nothing to rebuild from
+            if (balls.isEmpty()) {
+                report.skip(matchId);
+                return Set.<String>of();
+            }
+
+            List<BallByBall> replayed = new ArrayList<>(balls.size());
+            LiveMatch rebuilt = replay(stored, balls, replayed);
+
+            MatchScore score = rebuilt.getScore();
+            score.setVersion(stored.getVersion() + 1);
+            matchScoreRepository.save(score);
+
+            matchPlayerStatsRepository.deleteByMatchId(matchId);
+            List<MatchPlayerStats> stats = new ArrayList<>(rebuilt.getPlayerStats().values());
+            matchPlayerStatsRepository.insert(stats);
+
+            // Backfill running totals on the log itself (archived innings are re-packed)
+            Set<Integer> archived = archiveService.archivedInnings(matchId);
+            Map<Integer, List<BallByBall>> repacked = new LinkedHashMap<>();
+            List<BallByBall> hot = new ArrayList<>();
+
+            for (BallByBall ball : replayed) {
+                if (archived.contains(ball.getInnings())) {
+                    repacked.computeIfAbsent(ball.getInnings(), i -> new ArrayList<>()).add(ball);
+                } else {
+                    hot.add(ball);
+                }
+            }
+
+            if (!hot.isEmpty() && ballStorage.isTimeSeries()) {
+                // Measurements are not updated in place → the match's deliveries are rewritten
+                mongoTemplate.remove(Query.query(Criteria.where("matchId").is(matchId)), BallByBall.class);
+                try {
+                    mongoTemplate.insert(hot, BallByBall.class);
+                } catch (RuntimeException ex) {
+                    // Put the log back as it was read (no unique _id here → clear first)
+                    mongoTemplate.remove(Query.query(Criteria.where("matchId").is(matchId)), BallByBall.class);
+                    mongoTemplate.insert(balls.stream()
+                            .filter(ball -> !archived.contains(ball.getInnings()))
+                            .toList(), BallByBall.class);
+                    throw ex;
+                }
+
+            } else if (!hot.isEmpty()) {
+                BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, BallByBall.class);
+                for (BallByBall ball : hot) {
+                    ops.updateOne(
+                            Query.query(Criteria.where("_id").is(ball.getId())),
+                            snapshotService.snapshotUpdate(ball)
+                    );
+                }
+                ops.execute();
+            }
+            repacked.forEach((innings, inningsBalls) -> archiveService.rewrite(score, innings, inningsBalls));
+
+            // Next ball entry reloads the repaired state
+            liveMatchService.evict(matchId);
+            scorecardService.rebuild(matchId);
+
+            // Single-match repair → move the standings by the corrected result
+            if (adjustStandings) {
+                pointsTableService.applyMatchTransition(stored, score);
+            }
+
+            report.rebuilt(matchId, balls.size());
+
+            Set<String> players = new LinkedHashSet<>();
+            stats.forEach(s -> players.add(s.getPlayerId()));
+            return players;
+        });
+    }
+
+    // Identity and line-ups from the stored score, every derived field reset
+    private MatchScore initialState(MatchScore stored) {
+
+        MatchScore score = new MatchScore();
+
+        score.setId(stored.getId());
+        score.setMatchId(stored.getMatchId());
+        score.setLeagueId(stored.getLeagueId());
+        score.setTeam1Id(stored.getTeam1Id());
+        score.setTeam2Id(stored.getTeam2Id());
+        score.setTossWinner(stored.getTossWinner());
+        score.setTossDecision(stored.getTossDecision());
+        score.setPlayerOfTheMatch(stored.getPlayerOfTheMatch());
+        score.setTotalOvers(stored.getTotalOvers());
+        score.setTeam1PlayingXI(new ArrayList<>(stored.getTeam1PlayingXI()));
+        score.setTeam2PlayingXI(new ArrayList<>(stored.getTeam2PlayingXI()));
+
+        score.setTeam1YetToBat(new ArrayList<>(stored.getTeam1PlayingXI()));
+        score.setTeam2YetToBat(new ArrayList<>(stored.getTeam2PlayingXI()));
+        score.setTeam1OutBatters(new ArrayList<>());
+        score.setTeam2OutBatters(new ArrayList<>());
+
+        score.setMatchStatus("Match In Progress");
+        return score;
+    }
+
+    // Same effect as startInnings, driven by the first logged ball
+    private void openInnings(MatchScore score, BallByBall first) {
+
+        if (first.getInnings() == 2) {
+            score.setFirstInningsCompleted(true);
+        }
+
+        String battingTeamId = first.getBattingTeamId();
+        boolean team1Batting = score.getTeam1Id().equals(battingTeamId);
+
+        score.setInnings(first.getInnings());
+        score.setBattingTeamId(battingTeamId);
+        score.setBowlingTeamId(team1Batting ? score.getTeam2Id() : score.getTeam1Id());
+        score.setLastOverBowlerId(null);
+
+        List<String> yetToBat = team1Batting
+                ? score.getTeam1YetToBat()
+                : score.getTeam2YetToBat();
+
+        yetToBat.remove(first.getBatterId());
+        yetToBat.remove(first.getNonStrikerId());
+    }
+
+    // Undo what the pipeline derived, so the rule services can derive it again
+    private BallByBall rawInput(BallByBall logged) {
+
+        BallByBall ball = new BallByBall();
+        BeanUtils.copyProperties(logged, ball);
+
+        if ("WIDE".equals(ball.getExtraType()) || "NO_BALL".equals(ball.getExtraType())) {
+            ball.setExtraRuns(ball.getExtraRuns() - 1);
+        }
+
+        ball.setLegalBall(false);
+        ball.setFreeHit(false);
+        ball.setOverCompleted(false);
+        return ball;
+    }
+
+    // ================= REPORT =================
+    public static class ReplayReport {
+
+        private final Map<String, Integer> ballsPerMatch = new ConcurrentHashMap<>();
+        private final Map<String, String> failures = new ConcurrentHashMap<>();
+        private final Set<String> skipped = ConcurrentHashMap.newKeySet();
+        private int playersRebuilt;
+        private long millis;
+
+        void rebuilt(String matchId, int balls) {
+            ballsPerMatch.put(matchId, balls);
+        }
+
+        void fail(String matchId, String error) {
+            failures.put(matchId, error == null ? "Unknown error" : error);
+        }
+
+        void skip(String matchId) {
+            skipped.add(matchId);
+        }
+
+        public int getMatchesRebuilt() {
+            return ballsPerMatch.size();
+        }
+
+        public int getBallsReplayed() {
+            return ballsPerMatch.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        public Set<String> getSkippedWithoutBalls() {
+            return skipped;
+        }
+
+        public Map<String, String> getFailures() {
+            return failures;
+        }
+
+        public int getPlayersRebuilt() {
+            return playersRebuilt;
+        }
+
+        void setPlayersRebuilt(int playersRebuilt) {
+            this.playersRebuilt = playersRebuilt;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        void setMillis(long millis) {
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.cricriser.cricriser.ballbyball.storage;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.stereotype.Component;
+
+import com.cricriser.cricriser.config.MongoIndexConfig;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.RenameCollectionOptions;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Layout of the ball_by_ball collection.
+ *
+ *   standard   → one document per delivery (the original layout)
+ *   timeseries → Mongo time-series collection, time field recordedAt, meta
+ *                field matchId: Mongo packs each match's deliveries into
+ *                compressed column buckets. Needs MongoDB 7.0+ (undo deletes
+ *                one ball by _id) and has no unique indexes, so retried
+ *                submissions are caught by the resident recent-ball cache and
+ *                the clientBallId lookup only.
+ *
+ * app.ball-storage.mode picks the layout of a new database. An existing
+ * collection keeps its layout until the migration converts it:
+ *
+ *   java -jar cricriser.jar --app.ball-storage.mode=timeseries --migrate-ball-storage
+ *
+ * Run it while no match is being scored.
+ */
+@Component
+public class BallStorage {
+
+    public static final String COLLECTION = "ball_by_ball";
+    public static final String TIME_FIELD = "recordedAt";
+    public static final String META_FIELD = "matchId";
+
+    // Standard collection while it is being built or emptied
+    private static final String STAGING = "ball_by_ball_standard";
+    private static final int BATCH = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final boolean wantsTimeSeries;
+
+    // null → not detected yet (Mongo was unreachable at startup)
+    private volatile Boolean timeSeries;
+
+    public BallStorage(@Value("${app.ball-storage.mode:standard}") String mode) {
+
+        if (!"standard".equals(mode) && !"timeseries".equals(mode)) {
+            throw new RuntimeException("app.ball-storage.mode must be standard or timeseries, not " + mode);
+        }
+        this.wantsTimeSeries = "timeseries".equals(mode);
+    }
+
+    // Before MongoIndexConfig → an index never creates the collection in the wrong layout
+    @PostConstruct
+    public void prepare() {
+
+        try {
+            if (wantsTimeSeries && !mongoTemplate.collectionExists(COLLECTION)) {
+                mongoTemplate.createCollection(COLLECTION, timeSeriesOptions());
+            }
+
+            timeSeries = isTimeSeries(mongoTemplate, COLLECTION);
+
+            if (timeSeries != wantsTimeSeries) {
+                System.out.println("[BallStorage] " + COLLECTION + " is " + layout(timeSeries)
+                        + " but app.ball-storage.mode is " + layout(wantsTimeSeries)
+                        + "; start once with --migrate-ball-storage to convert it");
+            }
+        } catch (RuntimeException ex) {
+            System.out.println("[BallStorage] Could not inspect " + COLLECTION + ": " + ex.getMessage());
+        }
+    }
+
+    public boolean isTimeSeries() {
+
+        Boolean detected = timeSeries;
+        if (detected == null) {
+            detected = isTimeSeries(mongoTemplate, COLLECTION);
+            timeSeries = detected;
+        }
+        return detected;
+    }
+
+    // ================= MIGRATION =================
+    public long migrate() {
+
+        long started = System.currentTimeMillis();
+        boolean current = mongoTemplate.collectionExists(COLLECTION) && isTimeSeries(mongoTemplate, COLLECTION);
+
+        if (current == wantsTimeSeries && !mongoTemplate.collectionExists(STAGING)) {
+            System.out.println("[BallStorage] " + COLLECTION + " is already " + layout(current));
+            return 0;
+        }
+
+        long copied = wantsTimeSeries ? toTimeSeries() : toStandard();
+
+        // Indexes of the new layout (unique ones are skipped on time-series)
+        MongoIndexConfig.ensureIndexes(mongoTemplate);
+        timeSeries = wantsTimeSeries;
+
+        System.out.println("[BallStorage] Migrated " + copied + " balls to the " + layout(wantsTimeSeries)
+                + " layout in " + (System.currentTimeMillis() - started) + " ms");
+        return copied;
+    }
+
+    // 1️⃣ standard collection steps aside  2️⃣ time-series one takes the name  3️⃣ copy
+    // A rerun after a crash resumes at whichever step did not finish
+    private long toTimeSeries() {
+
+        if (mongoTemplate.collectionExists(COLLECTION) && !isTimeSeries(mongoTemplate, COLLECTION)) {
+            rename(COLLECTION, STAGING, false);
+        }
+        if (!mongoTemplate.collectionExists(COLLECTION)) {
+            mongoTemplate.createCollection(COLLECTION, timeSeriesOptions());
+        }
+
+        long copied = copyMissing(STAGING, COLLECTION);
+
+        // Kept as a backup; under another name so a rerun does not copy it again
+        String backup = COLLECTION + "_backup_" + System.currentTimeMillis();
+        rename(STAGING, backup, false);
+        System.out.println("[BallStorage] Standard collection kept as " + backup + ", drop it once verified");
+        return copied;
+    }
+
+    // Time-series collections cannot be renamed → build the standard one beside
+    // it, then move it over the time-series one in a single rename
+    private long toStandard() {
+
+        if (!mongoTemplate.collectionExists(STAGING)) {
+            mongoTemplate.createCollection(STAGING);
+        }
+
+        long copied = copyMissing(COLLECTION, STAGING);
+        rename(STAGING, COLLECTION, true);
+        return copied;
+    }
+
+    // Match by match, only the _ids the target lacks → safe to repeat
+    private long copyMissing(String from, String to) {
+
+        MongoCollection<Document> source = mongoTemplate.getCollection(from);
+        MongoCollection<Document> target = mongoTemplate.getCollection(to);
+        boolean toTimeSeries = isTimeSeries(mongoTemplate, to);
+        long copied = 0;
+
+        for (String matchId : source.distinct(META_FIELD, String.class)) {
+
+            Set<Object> present = new HashSet<>();
+            target.find(Filters.eq(META_FIELD, matchId))
+                    .projection(Projections.include("_id"))
+                    .forEach(doc -> present.add(doc.get("_id")));
+
+            List<Document> batch = new ArrayList<>(BATCH);
+            for (Document ball : source.find(Filters.eq(META_FIELD, matchId))) {
+
+                if (present.contains(ball.get("_id"))) {
+                    continue;
+                }
+                if (toTimeSeries && ball.get(TIME_FIELD) == null) {
+                    ball.put(TIME_FIELD, recordedAt(ball));
+                }
+
+                batch.add(ball);
+                if (batch.size() == BATCH) {
+                    target.insertMany(batch);
+                    copied += batch.size();
+                    batch.clear();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                target.insertMany(batch);
+                copied += batch.size();
+            }
+        }
+
+        long expected = source.countDocuments();
+        long actual = target.countDocuments();
+        if (actual < expected) {
+            throw new RuntimeException("Migration copied " + actual + " of " + expected
+                    + " balls; " + from + " is left in place");
+        }
+        return copied;
+    }
+
+    // ---------- HELPERS ----------
+    public static CollectionOptions timeSeriesOptions() {
+
+        // A match bowls a ball every ~30 s → hour-long buckets per match
+        return CollectionOptions.timeSeries(TIME_FIELD,
+                options -> options.metaField(META_FIELD).granularity(Granularity.SECONDS));
+    }
+
+    public static boolean isTimeSeries(MongoTemplate template, String collection) {
+
+        Document info = template.getDb()
+                .listCollections()
+                .filter(new Document("name", collection))
+                .first();
+        return info != null && "timeseries".equals(info.getString("type"));
+    }
+
+    // Balls stored before recordedAt existed: timestamp, else the ObjectId's creation time
+    private Date recordedAt(Document ball) {
+
+        Object timestamp = ball.get("timestamp");
+        if (timestamp instanceof Number number && number.longValue() > 0) {
+            return new Date(number.longValue());
+        }
+
+        Object id = ball.get("_id");
+        if (id instanceof ObjectId objectId) {
+            return objectId.getDate();
+        }
+        if (id instanceof String hex && ObjectId.isValid(hex)) {
+            return new ObjectId(hex).getDate();
+        }
+        return new Date(0);
+    }
+
+    private void rename(String from, String to, boolean dropTarget) {
+        mongoTemplate.getCollection(from).renameCollection(
+                new MongoNamespace(mongoTemplate.getDb().getName(), to),
+                new RenameCollectionOptions().dropTarget(dropTarget)
+        );
+    }
+
+    private String layout(boolean timeSeries) {
+        return timeSeries ? "timeseries" : "standard";
+    }
+}
@@ -0,0 +1,24 @@
+package com.cricriser.cricriser.ballbyball.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * --migrate-ball-storage on the command line converts ball_by_ball to the
+ * layout named by app.ball-storage.mode before the application settles.
+ */
+@Component
+public class BallStorageMigration implements ApplicationRunner {
+
+    @Autowired
+    private BallStorage ballStorage;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("migrate-ball-storage")) {
+            ballStorage.migrate();
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package com.cricriser.cricriser.ballbyball.wal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Component;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.live.LiveMatch;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStats;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local write-ahead journal for deliveries Mongo could not take.
+ *
+ * When a ball's write fails because the database is unreachable, the ball
+ * and the state it produced are appended here and fsync'd, and the ball is
+ * acknowledged against the in-memory live state. Until the database is back
+ * every later ball of that match is journaled too, so the match reaches
+ * Mongo in the order it was scored. BallWalReplayService drains the journal
+ * in order; only once an entry's replay has been checkpointed do later
+ * balls of its match go to Mongo directly again.
+ *
+ * Files in app.ball-wal.dir (one directory per node):
+ *
+ *   ball-wal.log          framed entries: length, CRC32, BSON (the mapped BallWalEntry)
+ *   ball-wal.checkpoint   sequence of the last replayed entry
+ *   ball-wal-rejected.log entries the database refused for good, kept for inspection
+ *
+ * The log is truncated whenever it has been replayed to the end.
+ */
+@Component
+public class BallWal {
+
+    private static final String LOG = "ball-wal.log";
+    private static final String CHECKPOINT = "ball-wal.checkpoint";
+    private static final String REJECTED = "ball-wal-rejected.log";
+    private static final int HEADER = 8;
+
+    private static final DocumentCodec CODEC = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final boolean enabled;
+    private final Path dir;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<BallWalEntry> pending = new ArrayDeque<>();
+    private final Map<String, Integer> pendingByMatch = new LinkedHashMap<>();
+
+    private FileChannel log;
+    private long lastSequence;
+    private long checkpoint;
+
+    // Set by the first write that finds Mongo unreachable → later balls skip the attempt
+    private volatile boolean databaseDown;
+
+    // Metrics
+    private long journaled;
+    private long replayed;
+    private long rejected;
+    private long lastReplayLagMs;
+    private long maxReplayLagMs;
+
+    public BallWal(
+            @Value("${app.ball-wal.enabled:true}") boolean enabled,
+            @Value("${app.ball-wal.dir:./ball-wal}") String dir
+    ) {
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+    }
+
+    // ================= STARTUP: PICK UP WHAT WAS NOT REPLAYED =================
+    @PostConstruct
+    public void open() {
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(dir);
+            checkpoint = readCheckpoint();
+            lastSequence = checkpoint;
+
+            Path path = dir.resolve(LOG);
+            long validBytes = 0;
+            if (Files.exists(path)) {
+                LogContents contents = readLog(path);
+                for (BallWalEntry entry : contents.entries()) {
+                    lastSequence = Math.max(lastSequence, entry.getSequence());
+                    if (entry.getSequence() > checkpoint) {
+                        enqueue(entry);
+                    }
+                }
+                validBytes = contents.validBytes();
+            }
+
+            // Cut a torn tail off before appending, or new entries land behind it unreadable
+            log = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            long keep = pending.isEmpty() ? 0 : validBytes;
+            if (log.size() > keep) {
+                log.truncate(keep);
+                log.force(true);
+            }
+
+            if (!pending.isEmpty()) {
+                System.out.println("[BallWal] " + pending.size() + " journaled balls of "
+                        + pendingByMatch.size() + " matches wait for replay");
+            }
+
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not open the ball journal in " + dir.toAbsolutePath() + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+
+        lock.lock();
+        try {
+            if (log != null) {
+                log.close();
+            }
+        } catch (IOException ex) {
+            System.out.println("[BallWal] Could not close the journal: " + ex.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ================= STATE =================
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isPending(String matchId) {
+
+        lock.lock();
+        try {
+            return pendingByMatch.containsKey(matchId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Database known down, or earlier balls of the match not replayed yet
+    public boolean mustJournal(String matchId) {
+        return enabled && (databaseDown || isPending(matchId));
+    }
+
+    public void markDatabaseDown() {
+        if (!databaseDown) {
+            databaseDown = true;
+            System.out.println("[BallWal] Database unreachable, journaling balls locally");
+        }
+    }
+
+    public void markDatabaseUp() {
+        if (databaseDown) {
+            databaseDown = false;
+            System.out.println("[BallWal] Database reachable again");
+        }
+    }
+
+    // ================= APPEND (FSYNC BEFORE THE ACK) =================
+    public BallWalEntry append(BallByBall ball, MatchScore before, LiveMatch after) {
+
+        BallWalEntry entry = new BallWalEntry();
+        entry.setMatchId(ball.getMatchId());
+        entry.setBall(ball);
+        entry.setScore(after.getScore());
+        entry.setMatchStatusBefore(before.getMatchStatus());
+
+        Set<String> players = new LinkedHashSet<>();
+        players.add(ball.getBatterId());
+        players.add(ball.getBowlerId());
+        players.add(ball.getOutBatterId());
+        for (String playerId : players) {
+            MatchPlayerStats stats = playerId == null ? null : after.getPlayerStats().get(playerId);
+            if (stats != null) {
+                entry.getPlayerStats().add(stats);
+            }
+        }
+
+        lock.lock();
+        try {
+            entry.setSequence(lastSequence + 1);
+            entry.setJournaledAt(System.currentTimeMillis());
+
+            ByteBuffer frame = ByteBuffer.wrap(frame(entry));
+            long end = log.size();
+            try {
+                while (frame.hasRemaining()) {
+                    log.write(frame);
+                }
+                log.force(false);
+            } catch (IOException ex) {
+                // Drop the partial frame so the next append starts on a record boundary
+                log.truncate(end);
+                throw ex;
+            }
+
+            lastSequence = entry.getSequence();
+            enqueue(entry);
+            journaled++;
+            return entry;
+
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not journal the ball: " + ex.getMessage(), ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ================= REPLAY SIDE =================
+    public BallWalEntry head() {
+
+        lock.lock();
+        try {
+            return pending.peekFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called under the match lock once the entry is in Mongo
+    public void replayed(BallWalEntry entry) {
+
+        lock.lock();
+        try {
+            // Durable first → a restart never replays it over newer direct writes
+            writeCheckpoint(entry.getSequence());
+            dequeue(entry);
+
+            replayed++;
+            lastReplayLagMs = System.currentTimeMillis() - entry.getJournaledAt();
+            maxReplayLagMs = Math.max(maxReplayLagMs, lastReplayLagMs);
+
+            if (pending.isEmpty()) {
+                log.truncate(0);
+                log.force(true);
+            }
+
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not checkpoint the ball journal: " + ex.getMessage(), ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Refused by the database for a reason a retry will not fix
+    public void reject(BallWalEntry entry, String reason) {
+
+        lock.lock();
+        try {
+            Document record = toDocument(entry);
+            record.put("rejectedReason", reason);
+            Files.write(dir.resolve(REJECTED), frame(record),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+
+            writeCheckpoint(entry.getSequence());
+            dequeue(entry);
+            rejected++;
+
+            if (pending.isEmpty()) {
+                log.truncate(0);
+                log.force(true);
+            }
+
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not set aside journaled ball: " + ex.getMessage(), ex);
+        } finally {
+            lock.unlock();
+        }
+
+        System.out.println("[BallWal] Ball " + entry.getBall().getId() + " of match " + entry.getMatchId()
+                + " rejected on replay, kept in " + REJECTED + ": " + reason);
+    }
+
+    // ================= METRICS =================
+    public WalStats stats() {
+
+        lock.lock();
+        try {
+            BallWalEntry oldest = pending.peekFirst();
+            long bytes = 0;
+            if (log != null) {
+                bytes = log.size();
+            }
+
+            return new WalStats(
+                    enabled,
+                    databaseDown,
+                    pending.size(),
+                    bytes,
+                    oldest == null ? 0 : System.currentTimeMillis() - oldest.getJournaledAt(),
+                    lastReplayLagMs,
+                    maxReplayLagMs,
+                    journaled,
+                    replayed,
+                    rejected,
+                    new TreeMap<>(pendingByMatch)
+            );
+
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read the ball journal size: " + ex.getMessage(), ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Connection refused, timed out, no server selectable
+    public static boolean isUnavailable(Throwable ex) {
+
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof DataAccessResourceFailureException
+                    || t instanceof MongoSocketException
+                    || t instanceof MongoTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---------- HELPERS ----------
+    private void enqueue(BallWalEntry entry) {
+        pending.addLast(entry);
+        pendingByMatch.merge(entry.getMatchId(), 1, Integer::sum);
+    }
+
+    private void dequeue(BallWalEntry entry) {
+
+        if (pending.peekFirst() != entry) {
+            throw new RuntimeException("Journal entries must be replayed in order");
+        }
+        pending.pollFirst();
+        pendingByMatch.computeIfPresent(entry.getMatchId(), (id, n) -> n == 1 ? null : n - 1);
+    }
+
+    private byte[] frame(BallWalEntry entry) {
+        return frame(toDocument(entry));
+    }
+
+    private Document toDocument(BallWalEntry entry) {
+        Document doc = new Document();
+        converter().write(entry, doc);
+        return doc;
+    }
+
+    private static byte[] frame(Document doc) {
+
+        RawBsonDocument raw = new RawBsonDocument(doc, CODEC);
+        ByteBuffer bson = raw.getByteBuffer().asNIO();
+        byte[] bytes = new byte[bson.remaining()];
+        bson.get(bytes);
+
+        ByteBuffer frame = ByteBuffer.allocate(HEADER + bytes.length);
+        frame.putInt(bytes.length);
+        frame.putInt(crc(bytes));
+        frame.put(bytes);
+        return frame.array();
+    }
+
+    // Stops at a record a crash cut short: it was never acknowledged.
+    // validBytes is where the last good record ends.
+    private LogContents readLog(Path path) throws IOException {
+
+        List<BallWalEntry> entries = new ArrayList<>();
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        long validBytes = 0;
+
+        while (data.remaining() >= HEADER) {
+
+            int length = data.getInt();
+            int crc = data.getInt();
+            if (length <= 0 || length > data.remaining()) {
+                break;
+            }
+
+            byte[] bytes = new byte[length];
+            data.get(bytes);
+            if (crc(bytes) != crc) {
+                break;
+            }
+
+            Document doc = CODEC.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+            entries.add(converter().read(BallWalEntry.class, doc));
+            validBytes = data.position();
+        }
+
+        if (validBytes < data.limit()) {
+            System.out.println("[BallWal] Dropping " + (data.limit() - validBytes)
+                    + " bytes of torn tail from " + LOG);
+        }
+        return new LogContents(entries, validBytes);
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = dir.resolve(CHECKPOINT);
+        return Files.exists(path) ? Long.parseLong(Files.readString(path).trim()) : 0;
+    }
+
+    // tmp + fsync + atomic rename → the checkpoint is either old or new, never torn
+    private void writeCheckpoint(long sequence) throws IOException {
+
+        Path tmp = dir.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel file = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            file.write(ByteBuffer.wrap(Long.toString(sequence).getBytes()));
+            file.force(true);
+        }
+        Files.move(tmp, dir.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        checkpoint = sequence;
+    }
+
+    private MongoConverter converter() {
+        return mongoTemplate.getConverter();
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    // ================= TYPES =================
+    private record LogContents(List<BallWalEntry> entries, long validBytes) {}
+
+    public record WalStats(
+            boolean enabled,
+            boolean databaseDown,
+            int depth,                  // journaled balls not in Mongo yet
+            long bytes,
+            long oldestPendingAgeMs,    // current replay lag
+            long lastReplayLagMs,       // journal → Mongo, last replayed ball
+            long maxReplayLagMs,
+            long journaled,
+            long replayed,
+            long rejected,
+            Map<String, Integer> pendingByMatch
+    ) {}
+}
@@ -0,0 +1,40 @@
+package com.cricriser.cricriser.ballbyball.wal;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/ball-by-ball/wal")
+@CrossOrigin
+public class BallWalController {
+
+    @Autowired
+    private BallWal ballWal;
+
+    @Autowired
+    private BallWalReplayService replayService;
+
+    // Journal depth, replay lag, counters
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats() {
+        return ResponseEntity.ok(ballWal.stats());
+    }
+
+    // ================== REPLAY NOW (INSTEAD OF WAITING FOR THE NEXT RETRY) ==================
+    @PostMapping("/replay")
+    public ResponseEntity<?> replay() {
+
+        int replayed = replayService.drain();
+        return ResponseEntity.ok(Map.of(
+                "replayed", replayed,
+                "depth", ballWal.stats().depth()
+        ));
+    }
+}
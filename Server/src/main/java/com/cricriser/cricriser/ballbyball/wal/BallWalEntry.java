@@ -0,0 +1,31 @@
+package com.cricriser.cricriser.ballbyball.wal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStats;
+
+import lombok.Data;
+
+/**
+ * One acknowledged delivery the database has not taken yet. Everything is a
+ * post-image (state after the ball), so replaying an entry twice writes the
+ * same documents twice.
+ */
+@Data
+public class BallWalEntry {
+
+    private long sequence;
+    private long journaledAt;
+
+    private String matchId;
+    private BallByBall ball;             // _id assigned before journaling
+
+    private MatchScore score;            // after this ball, version included
+    private String matchStatusBefore;    // a change → standings are rebuilt on replay
+
+    // Batter, bowler and dismissed batter after this ball
+    private List<MatchPlayerStats> playerStats = new ArrayList<>();
+}
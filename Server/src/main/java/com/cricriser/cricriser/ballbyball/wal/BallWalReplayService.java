@@ -0,0 +1,161 @@
+package com.cricriser.cricriser.ballbyball.wal;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.BallByBallRepository;
+import com.cricriser.cricriser.ballbyball.live.MatchSequencer;
+import com.cricriser.cricriser.match.scorecard.ScorecardService;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStats;
+import com.cricriser.cricriser.player.playerstats.PlayerStatsService;
+import com.cricriser.cricriser.points.PointsTableService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Drains the ball journal into Mongo, oldest entry first, each under its
+ * match's lock so no new ball of that match interleaves.
+ *
+ * Replaying an entry is idempotent: the ball is inserted only if absent,
+ * score and match player stats are written as the post-images the entry
+ * carries, career stats get the same $inc as the direct path, guarded by
+ * the ball's id, and standings are rebuilt. A crash between the writes and
+ * the checkpoint replays the entry again with the same result.
+ */
+@Service
+public class BallWalReplayService {
+
+    @Autowired
+    private BallWal ballWal;
+
+    @Autowired
+    private MatchSequencer matchSequencer;
+
+    @Autowired
+    private BallByBallRepository ballRepo;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PlayerStatsService playerStatsService;
+
+    @Autowired
+    private PointsTableService pointsTableService;
+
+    @Autowired
+    private ScorecardService scorecardService;
+
+    private final long retryMs;
+    private ScheduledExecutorService worker;
+
+    public BallWalReplayService(@Value("${app.ball-wal.retry-ms:2000}") long retryMs) {
+        this.retryMs = retryMs;
+    }
+
+    @PostConstruct
+    public void start() {
+
+        if (!ballWal.isEnabled() || retryMs <= 0) {
+            return;
+        }
+
+        worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ball-wal-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleWithFixedDelay(this::drainQuietly, retryMs, retryMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+    }
+
+    // ================= DRAIN =================
+    // One caller at a time (scheduler or POST /replay)
+    public synchronized int drain() {
+
+        int replayed = 0;
+        BallWalEntry entry;
+
+        while ((entry = ballWal.head()) != null) {
+
+            BallWalEntry next = entry;
+            try {
+                matchSequencer.run(next.getMatchId(), () -> replay(next));
+                ballWal.markDatabaseUp();
+                replayed++;
+
+            } catch (RuntimeException ex) {
+                if (BallWal.isUnavailable(ex)) {
+                    // Still down → keep the entry, try again next round
+                    ballWal.markDatabaseDown();
+                    break;
+                }
+                ballWal.reject(next, ex.getMessage());
+            }
+        }
+
+        if (replayed > 0) {
+            System.out.println("[BallWalReplayService] Replayed " + replayed + " journaled balls");
+        }
+        return replayed;
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException ex) {
+            System.out.println("[BallWalReplayService] Replay failed: " + ex.getMessage());
+        }
+    }
+
+    // ================= ONE ENTRY =================
+    private void replay(BallWalEntry entry) {
+
+        BallByBall ball = entry.getBall();
+
+        // 1️⃣ BALL (absent → insert; a partial write before the outage may have stored it)
+        if (!ballRepo.existsById(ball.getId())) {
+            try {
+                ballRepo.insert(ball);
+            } catch (DuplicateKeyException ex) {
+                // Same (matchId, clientBallId) already stored
+            }
+        }
+
+        // 2️⃣ POST-IMAGES: SCORE + MATCH PLAYER STATS
+        mongoTemplate.save(entry.getScore());
+
+        for (MatchPlayerStats stats : entry.getPlayerStats()) {
+            mongoTemplate.save(stats);
+        }
+
+        // 3️⃣ CAREER: same increments as a direct write, once per ball → safe to repeat
+        playerStatsService.applyDeltasOnce(playerStatsService.deltas(List.of(ball)), ball.getId());
+
+        if (!Objects.equals(entry.getMatchStatusBefore(), entry.getScore().getMatchStatus())) {
+            pointsTableService.recalculatePointsTable(entry.getScore().getLeagueId());
+        }
+
+        scorecardService.ballsRecorded(entry.getScore(), List.of(ball));
+
+        // 4️⃣ CHECKPOINT → later balls of the match go to Mongo directly again
+        ballWal.replayed(entry);
+    }
+}
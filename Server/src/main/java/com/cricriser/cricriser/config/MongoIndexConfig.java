@@ -0,0 +1,90 @@
+package com.cricriser.cricriser.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.archive.InningsArchive;
+import com.cricriser.cricriser.ballbyball.storage.BallStorage;
+import com.cricriser.cricriser.league.League;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.match.scorecard.MatchScorecard;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStats;
+import com.cricriser.cricriser.points.PointsTable;
+import com.cricriser.cricriser.team.Team;
+
+/**
+ * Creates the indexes declared on documents at startup (auto index creation
+ * is off by default in Spring Boot). Every derived query in the matching
+ * repositories is backed by one of them.
+ */
+@Configuration
+public class MongoIndexConfig {
+
+    public static final List<Class<?>> INDEXED = List.of(
+            BallByBall.class,
+            MatchPlayerStats.class,
+            MatchScore.class,
+            Team.class,
+            League.class,
+            PointsTable.class,
+            MatchScorecard.class,
+            InningsArchive.class
+    );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        ensureIndexes(mongoTemplate);
+    }
+
+    public static void ensureIndexes(MongoTemplate template) {
+
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(
+                template.getConverter().getMappingContext()
+        );
+
+        for (Class<?> type : INDEXED) {
+
+            IndexOperations ops = template.indexOps(type);
+            boolean timeSeries = isTimeSeries(template, type);
+
+            for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+
+                // Time-series collections reject unique indexes
+                if (timeSeries && index.getIndexOptions().getBoolean("unique", false)) {
+                    continue;
+                }
+
+                try {
+                    ops.createIndex(index);
+                } catch (RuntimeException ex) {
+                    // e.g. existing duplicates block a unique index → keep serving
+                    System.out.println("[MongoIndexConfig] Could not create index "
+                            + index.getIndexKeys() + " on " + type.getSimpleName()
+                            + ": " + ex.getMessage());
+                }
+            }
+        }
+    }
+
+    // Unreachable server → the createIndex calls fail and log anyway
+    private static boolean isTimeSeries(MongoTemplate template, Class<?> type) {
+        try {
+            return BallStorage.isTimeSeries(template, template.getCollectionName(type));
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 import com.cricriser.cricriser.security.JwtAuthFilter;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 public class SecurityConfig {
 
@@ -51,9 +53,15 @@ public class SecurityConfig {
                     "/api/player/login",
                     "/api/player/verify-otp",
                     "/api/player/forgot-password",
-                    "/api/player/verify-forgot-otp"
+                    "/api/player/verify-forgot-otp",
+
+                    // JWT checked by JwtHandshakeInterceptor
+                    "/ws/scorer"
                 ).permitAll()
 
+                // SSE completion / timeout dispatch (request was authenticated on connect)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // EVERYTHING ELSE NEEDS LOGIN
                 .anyRequest().authenticated()
             )
@@ -0,0 +1,31 @@
+package com.cricriser.cricriser.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import com.cricriser.cricriser.ballbyball.live.ScorerSocketHandler;
+import com.cricriser.cricriser.security.JwtHandshakeInterceptor;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final ScorerSocketHandler scorerSocketHandler;
+    private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+
+    public WebSocketConfig(ScorerSocketHandler scorerSocketHandler, JwtHandshakeInterceptor jwtHandshakeInterceptor) {
+        this.scorerSocketHandler = scorerSocketHandler;
+        this.jwtHandshakeInterceptor = jwtHandshakeInterceptor;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+
+        // ✅ SCORER CHANNEL (JWT ONCE AT HANDSHAKE)
+        registry.addHandler(scorerSocketHandler, "/ws/scorer")
+                .addInterceptors(jwtHandshakeInterceptor)
+                .setAllowedOrigins("*");
+    }
+}
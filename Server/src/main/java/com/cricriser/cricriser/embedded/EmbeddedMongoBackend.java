@@ -0,0 +1,585 @@
+package com.cricriser.cricriser.embedded;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import de.bwaldvogel.mongo.MongoCollection;
+import de.bwaldvogel.mongo.MongoDatabase;
+import de.bwaldvogel.mongo.ServerVersion;
+import de.bwaldvogel.mongo.backend.Cursor;
+import de.bwaldvogel.mongo.backend.aggregation.Aggregation;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import de.bwaldvogel.mongo.bson.Document;
+import de.bwaldvogel.mongo.exception.MongoServerException;
+import de.bwaldvogel.mongo.oplog.NoopOplog;
+import de.bwaldvogel.mongo.oplog.Oplog;
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * In-memory Mongo backend made durable by a journal and periodic snapshots.
+ *
+ * Every write command runs under one lock and, before it is acknowledged,
+ * appends what it changed to the journal: the post-image of each inserted or
+ * updated document (read back by _id), the _ids it deleted, or the schema
+ * command itself. Post-images make replay idempotent, so a record applied
+ * twice leaves the same state.
+ *
+ * A snapshot dumps every collection with its indexes and starts the next
+ * journal segment under the same lock, so snapshot N plus journal N is the
+ * whole state. Files in the data directory:
+ *
+ *   snapshot-N.bson   state when journal N was opened (written to .tmp, then renamed)
+ *   journal-N.log     writes since snapshot N
+ *
+ * Startup loads the newest complete snapshot, replays every journal from its
+ * generation on, then snapshots again and drops the older files.
+ */
+public class EmbeddedMongoBackend extends MemoryBackend implements Oplog {
+
+    private static final Pattern FILE = Pattern.compile("(snapshot|journal)-(\\d+)\\.(bson|log)");
+
+    // Commands whose effect reaches the journal through the oplog callbacks
+    private static final Set<String> WRITES = Set.of("insert", "update", "delete", "findandmodify");
+
+    // Commands journaled as they were sent, replayed by running them again
+    private static final Set<String> SCHEMA = Set.of(
+            "create", "createindexes", "dropindexes", "drop", "dropdatabase", "renamecollection", "collmod"
+    );
+
+    private static final Set<String> SYSTEM_DATABASES = Set.of("admin", "local", "config");
+    private static final int SNAPSHOT_BATCH = 1000;
+
+    private final Path dataDir;
+    private final int windowBytes;
+    private final long fsyncMs;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Channel internal = new EmbeddedChannel();
+    private final ScheduledExecutorService maintenance;
+
+    private Journal journal;
+    private long generation;
+    private boolean closed;
+
+    public EmbeddedMongoBackend(Path dataDir, int windowBytes, long fsyncMs, long snapshotMinutes) {
+
+        this.dataDir = dataDir;
+        this.windowBytes = windowBytes;
+        this.fsyncMs = fsyncMs;
+
+        // Wire version of 5.0 → accepted by the 5.x driver
+        version(ServerVersion.MONGO_5_0);
+        enableOplog();
+
+        recover();
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "embedded-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (fsyncMs > 0) {
+            maintenance.scheduleWithFixedDelay(this::force, fsyncMs, fsyncMs, TimeUnit.MILLISECONDS);
+        }
+        if (snapshotMinutes > 0) {
+            maintenance.scheduleWithFixedDelay(this::snapshotIfChanged,
+                    snapshotMinutes, snapshotMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    // The backend is its own oplog: callbacks arrive inside handleCommand, under the write lock
+    @Override
+    protected Oplog createOplog() {
+        return this;
+    }
+
+    // ================= WRITE PATH =================
+    @Override
+    public Document handleCommand(Channel channel, String database, String command, Document query) {
+
+        String name = command.toLowerCase(Locale.ROOT);
+        boolean schema = SCHEMA.contains(name);
+
+        if ("createindexes".equals(name)) {
+            query = withoutPartialUnique(query);
+        }
+
+        if (!schema && !WRITES.contains(name)) {
+            return super.handleCommand(channel, database, command, query);
+        }
+
+        writeLock.lock();
+        try {
+            Document response = super.handleCommand(channel, database, command, query);
+
+            if (schema) {
+                append(new Document("op", "cmd")
+                        .append("db", database)
+                        .append("name", command)
+                        .append("body", commandBody(query)));
+            } else if ("findandmodify".equals(name)) {
+                // Not reported to the oplog → journal the document as it is now
+                journalFindAndModify(database, query, response);
+            }
+
+            if (fsyncMs == 0) {
+                journal.force();
+            }
+            return response;
+
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void handleInsert(String namespace, List<Document> documents) {
+        if (journaled(namespace)) {
+            append(put(namespace, documents));
+        }
+    }
+
+    @Override
+    public void handleUpdate(String namespace, Document selector, Document query, List<Object> modifiedIds) {
+        if (journaled(namespace) && !modifiedIds.isEmpty()) {
+            append(put(namespace, find(namespace, new Document("_id", new Document("$in", modifiedIds)))));
+        }
+    }
+
+    @Override
+    public void handleDelete(String namespace, Document query, List<Object> deletedIds) {
+        if (journaled(namespace) && !deletedIds.isEmpty()) {
+            append(new Document("op", "del").append("ns", namespace).append("ids", deletedIds));
+        }
+    }
+
+    // Journaled as the drop command itself
+    @Override
+    public void handleDropCollection(String namespace) {
+    }
+
+    @Override
+    public Cursor createCursor(Document changeStreamDocument, String namespace, Aggregation aggregation) {
+        throw new MongoServerException("Change streams are not supported by the embedded store");
+    }
+
+    private void journalFindAndModify(String database, Document query, Document response) {
+
+        String namespace = database + "." + query.get(query.keySet().iterator().next());
+        if (!journaled(namespace)) {
+            return;
+        }
+
+        Object id = null;
+        if (response.get("value") instanceof Document value) {
+            id = value.get("_id");
+        } else if (response.get("lastErrorObject") instanceof Document lastError) {
+            id = lastError.get("upserted");
+        }
+        if (id == null) {
+            return;
+        }
+
+        List<Document> current = find(namespace, new Document("_id", id));
+        if (current.isEmpty()) {
+            append(new Document("op", "del").append("ns", namespace).append("ids", List.of(id)));
+        } else {
+            append(put(namespace, current));
+        }
+    }
+
+    private void append(Document record) {
+        journal.append(record);
+    }
+
+    private void force() {
+        writeLock.lock();
+        try {
+            if (!closed) {
+                journal.force();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ================= SNAPSHOT =================
+    private void snapshotIfChanged() {
+        try {
+            if (journal.records() > 0) {
+                snapshot();
+            }
+        } catch (RuntimeException ex) {
+            System.out.println("[EmbeddedMongoBackend] Snapshot failed: " + ex.getMessage());
+        }
+    }
+
+    public void snapshot() {
+
+        long started = System.currentTimeMillis();
+        long next;
+        long documents;
+        Path tmp;
+
+        // 1️⃣ dump the state and switch journals while no write can run
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            next = generation + 1;
+            tmp = dataDir.resolve("snapshot-" + next + ".tmp");
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                documents = writeSnapshot(out);
+            }
+
+            Journal previous = journal;
+            journal = new Journal(journalPath(next), windowBytes);
+            generation = next;
+            if (previous != null) {
+                previous.close();
+            }
+
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not write snapshot: " + ex.getMessage(), ex);
+        } finally {
+            writeLock.unlock();
+        }
+
+        // 2️⃣ make it durable and visible, then drop what it replaces
+        try {
+            try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                file.force(true);
+            }
+            Files.move(tmp, snapshotPath(next), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not write snapshot: " + ex.getMessage(), ex);
+        }
+        deleteBefore(next);
+
+        System.out.println("[EmbeddedMongoBackend] Snapshot " + next + ": " + documents
+                + " documents in " + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    // collection header (options + indexes), its documents in batches, ..., end marker
+    private long writeSnapshot(OutputStream out) throws IOException {
+
+        long documents = 0;
+
+        for (String database : listDatabaseNames()) {
+
+            if (SYSTEM_DATABASES.contains(database)) {
+                continue;
+            }
+
+            for (Document info : firstBatch(super.handleCommand(internal, database, "listCollections",
+                    new Document("listCollections", 1)))) {
+
+                String name = (String) info.get("name");
+                if (name.startsWith("system.")) {
+                    continue;
+                }
+
+                List<Document> indexes = firstBatch(super.handleCommand(internal, database, "listIndexes",
+                        new Document("listIndexes", name)));
+
+                Journal.write(out, new Document("op", "collection")
+                        .append("db", database)
+                        .append("name", name)
+                        .append("options", info.get("options"))
+                        .append("indexes", indexes));
+
+                String namespace = database + "." + name;
+                List<Document> batch = new ArrayList<>(SNAPSHOT_BATCH);
+
+                try (Stream<Document> all = collection(namespace).queryAllAsStream()) {
+                    for (Document doc : (Iterable<Document>) all::iterator) {
+                        batch.add(doc);
+                        if (batch.size() == SNAPSHOT_BATCH) {
+                            Journal.write(out, put(namespace, batch));
+                            documents += batch.size();
+                            batch.clear();
+                        }
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    Journal.write(out, put(namespace, batch));
+                    documents += batch.size();
+                }
+            }
+        }
+
+        Journal.write(out, new Document("op", "end").append("documents", documents));
+        return documents;
+    }
+
+    // ================= RECOVERY =================
+    private void recover() {
+
+        try {
+            Files.createDirectories(dataDir);
+
+            TreeMap<Long, Path> snapshots = new TreeMap<>();
+            TreeMap<Long, Path> journals = new TreeMap<>();
+            try (Stream<Path> files = Files.list(dataDir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Matcher m = FILE.matcher(file.getFileName().toString());
+                    if (m.matches()) {
+                        ("snapshot".equals(m.group(1)) ? snapshots : journals).put(Long.parseLong(m.group(2)), file);
+                    }
+                }
+            }
+
+            long started = System.currentTimeMillis();
+            long from = 0;
+            long applied = 0;
+
+            // 1️⃣ newest snapshot that was written to the end
+            for (Long g : snapshots.descendingKeySet()) {
+                List<Document> records = Journal.read(snapshots.get(g));
+                if (!records.isEmpty() && "end".equals(records.get(records.size() - 1).get("op"))) {
+                    for (Document record : records) {
+                        apply(record, false);
+                    }
+                    from = g;
+                    break;
+                }
+                System.out.println("[EmbeddedMongoBackend] Snapshot " + g + " is incomplete, using an older one");
+            }
+
+            // 2️⃣ every journal written after it, in order
+            for (Path path : journals.tailMap(from, true).values()) {
+                for (Document record : Journal.read(path)) {
+                    apply(record, true);
+                    applied++;
+                }
+            }
+
+            generation = Math.max(from, journals.isEmpty() ? 0 : journals.lastKey());
+            System.out.println("[EmbeddedMongoBackend] Recovered " + dataDir.toAbsolutePath()
+                    + " (snapshot " + from + " + " + applied + " journal records) in "
+                    + (System.currentTimeMillis() - started) + " ms");
+
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not recover the embedded store from " + dataDir + ": " + ex.getMessage(), ex);
+        }
+
+        // 3️⃣ fold it all into one snapshot and start a fresh journal
+        snapshot();
+    }
+
+    // replace → a put may hit a document that is already there (journal replay)
+    private void apply(Document record, boolean replace) {
+
+        String op = (String) record.get("op");
+
+        try {
+            switch (op) {
+                case "put" -> {
+                    MongoCollection<?> collection = collection((String) record.get("ns"));
+                    for (Object value : (List<?>) record.get("docs")) {
+                        Document doc = (Document) value;
+                        if (replace) {
+                            collection.deleteDocuments(new Document("_id", doc.get("_id")), 1, NoopOplog.get());
+                        }
+                        collection.addDocument(doc);
+                    }
+                }
+                case "del" -> {
+                    MongoCollection<?> collection = collection((String) record.get("ns"));
+                    for (Object id : (List<?>) record.get("ids")) {
+                        collection.deleteDocuments(new Document("_id", id), 1, NoopOplog.get());
+                    }
+                }
+                case "cmd" -> super.handleCommand(internal,
+                        (String) record.get("db"), (String) record.get("name"), (Document) record.get("body"));
+                case "collection" -> restoreCollection(record);
+                default -> {
+                    // "end" marker
+                }
+            }
+        } catch (RuntimeException ex) {
+            // e.g. dropping a collection the snapshot no longer has
+            System.out.println("[EmbeddedMongoBackend] Skipped " + op + " during recovery: " + ex.getMessage());
+        }
+    }
+
+    private void restoreCollection(Document record) {
+
+        String database = (String) record.get("db");
+        String name = (String) record.get("name");
+
+        Document create = new Document("create", name);
+        if (record.get("options") instanceof Document options) {
+            create.putAll(options);
+        }
+        super.handleCommand(internal, database, "create", create);
+
+        List<Document> indexes = new ArrayList<>();
+        for (Object value : (List<?>) record.get("indexes")) {
+            Document index = (Document) value;
+            if (!"_id_".equals(index.get("name"))) {
+                index.remove("ns");
+                indexes.add(index);
+            }
+        }
+        if (!indexes.isEmpty()) {
+            super.handleCommand(internal, database, "createIndexes",
+                    withoutPartialUnique(new Document("createIndexes", name).append("indexes", indexes)));
+        }
+    }
+
+    // ================= SHUTDOWN =================
+    @Override
+    public void close() {
+
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        maintenance.shutdownNow();
+        try {
+            // Next start then has no journal to replay
+            snapshot();
+        } catch (RuntimeException ex) {
+            System.out.println("[EmbeddedMongoBackend] Final snapshot failed, the journal will be replayed: "
+                    + ex.getMessage());
+        }
+
+        writeLock.lock();
+        try {
+            closed = true;
+            journal.close();
+        } catch (IOException ex) {
+            System.out.println("[EmbeddedMongoBackend] Could not close the journal: " + ex.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+
+        super.close();
+    }
+
+    // ---------- HELPERS ----------
+    private boolean journaled(String namespace) {
+        return !SYSTEM_DATABASES.contains(namespace.substring(0, namespace.indexOf('.')));
+    }
+
+    private MongoCollection<?> collection(String namespace) {
+
+        int dot = namespace.indexOf('.');
+        MongoDatabase database = resolveDatabase(namespace.substring(0, dot));
+        String name = namespace.substring(dot + 1);
+
+        MongoCollection<?> collection = database.resolveCollection(name, false);
+        return collection != null ? collection : database.createCollectionOrThrowIfExists(name);
+    }
+
+    private List<Document> find(String namespace, Document query) {
+
+        List<Document> found = new ArrayList<>();
+        for (Document doc : collection(namespace).handleQuery(query)) {
+            found.add(doc);
+        }
+        return found;
+    }
+
+    private static Document put(String namespace, List<Document> documents) {
+        return new Document("op", "put").append("ns", namespace).append("docs", new ArrayList<>(documents));
+    }
+
+    // Session and cluster fields of the original request do not replay
+    private static Document commandBody(Document query) {
+
+        Document body = new Document();
+        for (String key : query.keySet()) {
+            if (!key.startsWith("$") && !"lsid".equals(key) && !"txnNumber".equals(key)) {
+                body.put(key, query.get(key));
+            }
+        }
+        return body;
+    }
+
+    // The memory backend ignores partialFilterExpression, so a partial unique
+    // index would reject every second document the filter leaves out (two
+    // balls without a clientBallId). It is kept as a plain index; the scoring
+    // path already looks those keys up under the match lock before inserting
+    private static Document withoutPartialUnique(Document query) {
+
+        if (!(query.get("indexes") instanceof List<?> indexes)) {
+            return query;
+        }
+
+        List<Document> plain = new ArrayList<>();
+        for (Object value : indexes) {
+            Document index = new Document((Document) value);
+            if (Boolean.TRUE.equals(index.get("unique")) && index.containsKey("partialFilterExpression")) {
+                index.remove("unique");
+            }
+            plain.add(index);
+        }
+
+        Document copy = new Document(query);
+        copy.put("indexes", plain);
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Document> firstBatch(Document response) {
+        return (List<Document>) ((Document) response.get("cursor")).get("firstBatch");
+    }
+
+    private Path snapshotPath(long g) {
+        return dataDir.resolve("snapshot-" + g + ".bson");
+    }
+
+    private Path journalPath(long g) {
+        return dataDir.resolve("journal-" + g + ".log");
+    }
+
+    // Older snapshots and journals; a journal still mapped (Windows) goes next time
+    private void deleteBefore(long g) {
+
+        try (Stream<Path> files = Files.list(dataDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher m = FILE.matcher(file.getFileName().toString());
+                if (m.matches() && Long.parseLong(m.group(2)) < g) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException ex) {
+                        System.out.println("[EmbeddedMongoBackend] Could not delete " + file.getFileName()
+                                + " yet: " + ex.getMessage());
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            System.out.println("[EmbeddedMongoBackend] Could not list " + dataDir + ": " + ex.getMessage());
+        }
+    }
+}
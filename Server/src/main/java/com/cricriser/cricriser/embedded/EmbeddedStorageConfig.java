@@ -0,0 +1,66 @@
+package com.cricriser.cricriser.embedded;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+
+/**
+ * Storage for a laptop at the ground: with the "embedded" profile the app
+ * runs its own single-node store instead of connecting to MongoDB.
+ *
+ *   java -jar cricriser.jar --spring.profiles.active=embedded
+ *
+ * The store speaks the Mongo wire protocol on loopback, so every repository,
+ * MongoTemplate query and aggregation runs unchanged; this MongoClient
+ * replaces the one Spring Boot would build from spring.data.mongodb.uri.
+ */
+@Configuration
+@Profile("embedded")
+public class EmbeddedStorageConfig {
+
+    @Bean
+    public EmbeddedMongoBackend embeddedMongoBackend(
+            @Value("${app.embedded.data-dir:./cricriser-data}") String dataDir,
+            @Value("${app.embedded.journal-window-mb:16}") int journalWindowMb,
+            @Value("${app.embedded.fsync-ms:50}") long fsyncMs,
+            @Value("${app.embedded.snapshot-minutes:10}") long snapshotMinutes
+    ) {
+        if (journalWindowMb <= 0 || fsyncMs < 0 || snapshotMinutes < 0) {
+            throw new RuntimeException("app.embedded.journal-window-mb must be positive, fsync-ms and snapshot-minutes not negative");
+        }
+        return new EmbeddedMongoBackend(Path.of(dataDir), journalWindowMb << 20, fsyncMs, snapshotMinutes);
+    }
+
+    // Loopback only; port 0 → any free port (set one to browse the data with mongosh)
+    @Bean(destroyMethod = "shutdownNow")
+    public MongoServer embeddedMongoServer(
+            EmbeddedMongoBackend backend,
+            @Value("${app.embedded.port:0}") int port
+    ) {
+        MongoServer server = new MongoServer(backend);
+        server.bind("127.0.0.1", port);
+        System.out.println("[EmbeddedStorageConfig] Embedded store listening on " + server.getLocalAddress());
+        return server;
+    }
+
+    @Bean(destroyMethod = "close")
+    public MongoClient mongoClient(MongoServer embeddedMongoServer) {
+
+        InetSocketAddress address = embeddedMongoServer.getLocalAddress();
+        return MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(
+                        "mongodb://" + address.getHostString() + ":" + address.getPort()))
+                .build());
+    }
+}
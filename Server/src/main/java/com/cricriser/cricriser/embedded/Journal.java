@@ -0,0 +1,148 @@
+package com.cricriser.cricriser.embedded;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import de.bwaldvogel.mongo.bson.Document;
+import de.bwaldvogel.mongo.wire.bson.BsonDecoder;
+import de.bwaldvogel.mongo.wire.bson.BsonEncoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * One append-only journal segment, written through a memory-mapped window.
+ *
+ * Record = length (int) + CRC32 (int) + BSON document. An append is a copy
+ * into the page cache, so it survives a crash of the JVM at once and a power
+ * cut after the next force(). Reading stops at the first zero length or CRC
+ * mismatch: the unused tail of the window, or a record a crash cut short.
+ */
+class Journal implements Closeable {
+
+    private static final int HEADER = 8;
+
+    private final FileChannel channel;
+    private final int window;
+
+    private MappedByteBuffer mapped;
+    private long position;
+    private long records;
+    private boolean dirty;
+
+    Journal(Path path, int window) throws IOException {
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.window = window;
+        this.mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, window);
+    }
+
+    void append(Document record) {
+
+        byte[] frame = frame(record);
+
+        if (frame.length > mapped.remaining()) {
+            // Next window starts at the current end; the old one is flushed first
+            mapped.force();
+            try {
+                mapped = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(window, frame.length));
+            } catch (IOException ex) {
+                throw new RuntimeException("Could not extend the journal: " + ex.getMessage(), ex);
+            }
+        }
+
+        mapped.put(frame);
+        position += frame.length;
+        records++;
+        dirty = true;
+    }
+
+    void force() {
+        if (dirty) {
+            mapped.force();
+            dirty = false;
+        }
+    }
+
+    long records() {
+        return records;
+    }
+
+    long bytes() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    // ================= FRAMING (shared with snapshots) =================
+    static byte[] frame(Document record) {
+
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            BsonEncoder.encodeDocument(record, buf);
+            byte[] bson = new byte[buf.readableBytes()];
+            buf.readBytes(bson);
+
+            ByteBuffer frame = ByteBuffer.allocate(HEADER + bson.length);
+            frame.putInt(bson.length);
+            frame.putInt(crc(bson));
+            frame.put(bson);
+            return frame.array();
+        } finally {
+            buf.release();
+        }
+    }
+
+    static void write(OutputStream out, Document record) throws IOException {
+        out.write(frame(record));
+    }
+
+    // Every whole record, in append order
+    static List<Document> read(Path path) throws IOException {
+
+        List<Document> records = new ArrayList<>();
+
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            ByteBuffer data = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+
+            while (data.remaining() >= HEADER) {
+
+                int length = data.getInt();
+                int crc = data.getInt();
+                if (length <= 0 || length > data.remaining()) {
+                    break;
+                }
+
+                byte[] bson = new byte[length];
+                data.get(bson);
+                if (crc(bson) != crc) {
+                    System.out.println("[Journal] Torn record at the end of " + path.getFileName() + ", ignored");
+                    break;
+                }
+
+                ByteBuf buf = Unpooled.wrappedBuffer(bson);
+                records.add(BsonDecoder.decodeBson(buf));
+            }
+        }
+        return records;
+    }
+
+    private static int crc(byte[] bson) {
+        CRC32 crc = new CRC32();
+        crc.update(bson);
+        return (int) crc.getValue();
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Date;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -20,7 +21,10 @@ public class League {
     @Id
     private String id;
 
+    @Indexed
     private String adminId;
+
+    @Indexed(unique = true)
     private String name;
 
     private String leagueType;//NEW FIELD → "BILATERAL" or "TOURNAMENT"
@@ -15,11 +15,14 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.cricriser.cricriser.ballbyball.archive.InningsArchiveService;
+import com.cricriser.cricriser.ballbyball.live.LiveMatchService;
 import com.cricriser.cricriser.cloudinary.CloudinaryService;
 import com.cricriser.cricriser.match.matchscheduling.MatchSchedule;
 import com.cricriser.cricriser.match.matchscheduling.MatchScheduleRepository;
 import com.cricriser.cricriser.match.matchscoring.MatchScoreRepository;
-import com.cricriser.cricriser.points.PointsTableRepository;
+import com.cricriser.cricriser.match.scorecard.ScorecardService;
+import com.cricriser.cricriser.points.PointsTableService;
 import com.cricriser.cricriser.team.Team;
 import com.cricriser.cricriser.team.TeamRepository;
 
@@ -42,7 +45,16 @@ public class LeagueService {
     private CloudinaryService cloudinaryService;
 
     @Autowired
-    private PointsTableRepository pointsTableRepository;
+    private PointsTableService pointsTableService;
+
+    @Autowired
+    private LiveMatchService liveMatchService;
+
+    @Autowired
+    private ScorecardService scorecardService;
+
+    @Autowired
+    private InningsArchiveService archiveService;
 
     private String getLoggedInAdminId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -513,9 +525,12 @@ public class LeagueService {
 
         // ==================== DELETE SCORES ====================
         matchScoreRepository.deleteByLeagueId(leagueId);
+        scorecardService.deleteLeague(leagueId);
+        archiveService.deleteLeague(leagueId);
+        liveMatchService.evictLeague(leagueId);
 
         // ==================== DELETE POINTS TABLE ====================
-        pointsTableRepository.deleteByLeagueId(leagueId);
+        pointsTableService.deleteLeague(leagueId);
 
         // ==================== DELETE LEAGUE LOGO ====================
         if (league.getLogoUrl() != null && !league.getLogoUrl().isEmpty()) {
@@ -564,9 +579,12 @@ public class LeagueService {
 
             // ==================== DELETE MATCH SCORE ====================
             matchScoreRepository.deleteByLeagueId(leagueId);
+            scorecardService.deleteLeague(leagueId);
+            archiveService.deleteLeague(leagueId);
+            liveMatchService.evictLeague(leagueId);
 
             // ==================== DELETE POINTS TABLE ====================
-            pointsTableRepository.deleteByLeagueId(leagueId);
+            pointsTableService.deleteLeague(leagueId);
 
             // ==================== DELETE LEAGUE LOGO ====================
             if (league.getLogoUrl() != null && !league.getLogoUrl().isEmpty()) {
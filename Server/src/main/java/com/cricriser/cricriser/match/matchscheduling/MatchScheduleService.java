@@ -1,12 +1,16 @@
 package com.cricriser.cricriser.match.matchscheduling;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.cricriser.cricriser.league.League;
 import com.cricriser.cricriser.league.LeagueRepository;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.match.matchscoring.MatchScoreRepository;
 import com.cricriser.cricriser.security.JwtBlacklistService;
 import com.cricriser.cricriser.security.JwtUtil;
 
@@ -19,6 +23,9 @@ public class MatchScheduleService {
     @Autowired
     private LeagueRepository leagueRepository;
 
+    @Autowired
+    private MatchScoreRepository matchScoreRepository;
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -168,6 +175,33 @@ public class MatchScheduleService {
         }
     }
 
+    // ================= REMAINING LEAGUE FIXTURES =================
+    // League-stage games without a completed score (what the points table still lacks)
+    public List<MatchSchedule> getRemainingLeagueFixtures(String leagueId) {
+
+        Set<String> completed = matchScoreRepository.findByLeagueId(leagueId).stream()
+                .filter(m -> "Completed".equalsIgnoreCase(m.getMatchStatus()))
+                .map(MatchScore::getMatchId)
+                .collect(Collectors.toSet());
+
+        return repo.findByLeagueId(leagueId).stream()
+                .filter(m -> m.getMatchType() == null || "LEAGUE".equalsIgnoreCase(m.getMatchType()))
+                .filter(m -> m.getTeam1Id() != null && m.getTeam2Id() != null)
+                .filter(m -> !completed.contains(m.getId()))
+                .collect(Collectors.toList());
+    }
+
+    // league.teams entries are stored like "India:TEAM_ID"
+    public static List<String> teamIds(League league) {
+
+        if (league.getTeams() == null) {
+            return List.of();
+        }
+        return league.getTeams().stream()
+                .map(t -> t.contains(":") ? t.split(":")[1] : t)
+                .toList();
+    }
+
     // ================= TOKEN VALIDATION =================
     private String validateToken(String token) throws Exception {
 
@@ -3,6 +3,7 @@ package com.cricriser.cricriser.match.matchscoring;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -18,7 +19,10 @@ public class MatchScore {
     @Id
     private String id;
 
+    @Indexed(unique = true)
     private String matchId; // Reference to MatchSchedule
+
+    @Indexed
     private String leagueId;     // Reference to League
 
     private String team1Id;
@@ -75,6 +79,8 @@ public class MatchScore {
 
     private boolean forceBowlerChange = false;
 
+    private long version; // bumped on every write, guards MatchScoreWriter
+
 
 
 }
@@ -12,9 +12,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.cricriser.cricriser.ballbyball.live.MatchVersions;
+import com.cricriser.cricriser.ballbyball.live.MatchVersions.Version;
+
 @RestController
 @RequestMapping("/api/match/score")
 @CrossOrigin(origins = "*")
@@ -23,6 +27,9 @@ public class MatchScoreController {
     @Autowired
     private MatchScoreService matchScoreService;
 
+    @Autowired
+    private MatchVersions matchVersions;
+
     // ================= ADD MATCH SCORE =================
     @PostMapping("/add")
     public ResponseEntity<?> addScore(@RequestBody MatchScore score) {
@@ -70,9 +77,29 @@ public class MatchScoreController {
 
     // ================= GET SCORE BY MATCH ID =================
     @GetMapping("/{matchId}")
-    public ResponseEntity<?> getByMatchId(@PathVariable String matchId) {
+    public ResponseEntity<?> getByMatchId(
+            @PathVariable String matchId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+
+        // Version first, then Mongo → the tag is never newer than the body
+        Version version = matchVersions.current(matchId);
+        String etag = matchVersions.etag("score", version);
+
+        if (matchVersions.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(matchVersions.cacheControl(version.completed()))
+                    .build();
+        }
+
         MatchScore score = matchScoreService.getMatchScoreByMatchId(matchId);
-        return ResponseEntity.ok(score);
+        boolean completed = score != null && score.isSecondInningsCompleted();
+        matchVersions.observeCompleted(matchId, version, completed);
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(matchVersions.cacheControl(completed))
+                .body(score);
     }
 
     // ================= GET ALL SCORES =================
@@ -9,10 +9,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.cricriser.cricriser.ballbyball.BallByBallRepository;
+import com.cricriser.cricriser.ballbyball.archive.InningsArchiveService;
+import com.cricriser.cricriser.ballbyball.live.LiveMatchService;
+import com.cricriser.cricriser.ballbyball.live.MatchSequencer;
 import com.cricriser.cricriser.league.League;
 import com.cricriser.cricriser.league.LeagueRepository;
 import com.cricriser.cricriser.match.matchscheduling.MatchSchedule;
 import com.cricriser.cricriser.match.matchscheduling.MatchScheduleRepository;
+import com.cricriser.cricriser.match.scorecard.ScorecardService;
 import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStats;
 import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStatsRepository;
 import com.cricriser.cricriser.player.playerstats.PlayerStatsService;
@@ -47,6 +51,18 @@ public class MatchScoreService {
     @Autowired
     private PlayerStatsService playerStatsService;
 
+    @Autowired
+    private LiveMatchService liveMatchService;
+
+    @Autowired
+    private MatchSequencer matchSequencer;
+
+    @Autowired
+    private ScorecardService scorecardService;
+
+    @Autowired
+    private InningsArchiveService archiveService;
+
     // Initiate innings
     @Transactional
     public MatchScore startInnings(
@@ -56,6 +72,19 @@ public class MatchScoreService {
             String nonStrikerId,
             String bowlerId
     ) {
+        // Same writer queue as ball entry for this match
+        return matchSequencer.execute(matchId, () -> doStartInnings(
+                matchId, innings, strikerId, nonStrikerId, bowlerId
+        ));
+    }
+
+    private MatchScore doStartInnings(
+            String matchId,
+            int innings,
+            String strikerId,
+            String nonStrikerId,
+            String bowlerId
+    ) {
 
         // ================= BASIC VALIDATION =================
         if (innings != 1 && innings != 2) {
@@ -170,7 +199,13 @@ public class MatchScoreService {
         createIfNotExists(matchId, nonStrikerId);
         createIfNotExists(matchId, bowlerId);
 
-        return matchScoreRepository.save(score);
+        score.setVersion(score.getVersion() + 1);
+        MatchScore saved = matchScoreRepository.save(score);
+
+        // ================= KEEP MATCH RESIDENT FOR BALL ENTRY =================
+        liveMatchService.start(saved);
+
+        return saved;
     }
 
     // ===================== ADD NEW SCORE =====================
@@ -288,8 +323,9 @@ public class MatchScoreService {
         score.setTeam2OutBatters(new ArrayList<>());
         // NOW SAVE
         MatchScore saved = matchScoreRepository.save(score);
+        liveMatchService.evict(saved.getMatchId());
 
-        pointsTableService.updatePointsTable(score.getLeagueId());
+        pointsTableService.applyMatchTransition(null, saved);
 
         return saved;
 
@@ -297,6 +333,10 @@ public class MatchScoreService {
 
     // ===================== UPDATE SCORE =====================
     public MatchScore updateScore(MatchScore score) {
+        return matchSequencer.execute(score.getMatchId(), () -> doUpdateScore(score));
+    }
+
+    private MatchScore doUpdateScore(MatchScore score) {
 
         MatchScore existing = matchScoreRepository.findByMatchId(score.getMatchId());
         if (existing == null) {
@@ -304,6 +344,7 @@ public class MatchScoreService {
         }
 
         score.setId(existing.getId());
+        score.setVersion(existing.getVersion() + 1);
 
         League league = leagueRepository.findById(score.getLeagueId())
                 .orElseThrow(() -> new RuntimeException("Invalid leagueId"));
@@ -330,7 +371,9 @@ public class MatchScoreService {
         }
 
         MatchScore saved = matchScoreRepository.save(score);
-        pointsTableService.updatePointsTable(score.getLeagueId());
+        liveMatchService.evict(score.getMatchId());
+        scorecardService.scoreChanged(saved);
+        pointsTableService.applyMatchTransition(existing, saved);
 
         return saved;
     }
@@ -403,31 +446,46 @@ public class MatchScoreService {
     @Transactional
     public void deleteScoreById(String id) {
 
+        MatchScore found = matchScoreRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Match score not found"));
+
+        // Same lock as ball entry → no in-flight ball lands between these deletes
+        matchSequencer.run(found.getMatchId(), () -> doDeleteScore(id));
+    }
+
+    private void doDeleteScore(String id) {
+
+        // Re-read under the lock: a ball may have changed it since
         MatchScore score = matchScoreRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Match score not found"));
 
         String matchId = score.getMatchId();
-        String leagueId = score.getLeagueId();
 
         // DELETE BALL-BY-BALL
         ballByBallRepository.deleteByMatchId(matchId);
+        archiveService.deleteMatch(matchId);
 
         // DELETE MATCH PLAYER STATS
         repo.deleteByMatchId(matchId);
 
         // DELETE MATCH SCORE
         matchScoreRepository.deleteById(id);
+        scorecardService.deleteMatch(matchId);
+        liveMatchService.evict(matchId);
 
-        // UPDATE POINTS TABLE
-        pointsTableService.updatePointsTable(leagueId);
+        // TAKE ITS RESULT OUT OF THE POINTS TABLE
+        pointsTableService.applyMatchTransition(score, null);
     }
 
     @Transactional
     public void deleteAllScores() {
 
         ballByBallRepository.deleteAll();
+        archiveService.deleteAll();
         repo.deleteAll();                 // match_player_stats
         matchScoreRepository.deleteAll();
+        scorecardService.deleteAll();
+        liveMatchService.evictAll();
     }
 
     public void createIfNotExists(String matchId, String playerId) {
@@ -442,8 +500,6 @@ public class MatchScoreService {
                     stats.setWickets(0);
                     stats.setRunsConceded(0);
                     stats.setBallsBowled(0);
-                    stats.setStrikeRate(0);
-                    stats.setEconomy(0);
                     return repo.save(stats);
                 });
     }
@@ -9,9 +9,6 @@ import com.cricriser.cricriser.ballbyball.ballservice.BallService;
 @Service
 public class MatchScoreUpdateService {
 
-    @Autowired
-    private MatchScoreRepository matchScoreRepository;
-
     @Autowired
     private MatchScoreService matchScoreService;
 
@@ -19,9 +16,8 @@ public class MatchScoreUpdateService {
     private BallService ballService;
 
     // ===================== PRE BALL VALIDATION =====================
-    public MatchScore validateBeforeBall(String matchId, int innings) {
+    public MatchScore validateBeforeBall(MatchScore score, int innings) {
 
-        MatchScore score = matchScoreRepository.findByMatchId(matchId);
         if (score == null) {
             throw new RuntimeException("Match score does not exist");
         }
@@ -59,6 +55,7 @@ public class MatchScoreUpdateService {
         return score;
     }
 
+    // In-memory only: the ball pipeline persists the score once per delivery
     public void updateMatchScore(BallByBall ball, MatchScore score) {
 
         boolean team1Batting
@@ -102,8 +99,6 @@ public class MatchScoreUpdateService {
 
         // 🔥 INNINGS + MATCH COMPLETION
         checkInningsCompletion(score, ball);
-
-        matchScoreRepository.save(score);
     }
 
     private void checkInningsCompletion(MatchScore score, BallByBall ball) {
@@ -0,0 +1,185 @@
+package com.cricriser.cricriser.match.matchscoring;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
+
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Persists a MatchScore as the difference from its last persisted state
+ * instead of rewriting the whole document (six player lists included).
+ *
+ * Counters go out as {@code $inc}, list appends as {@code $push}, list
+ * removals as {@code $pull} and everything else as {@code $set}. The write
+ * is guarded by {@code version}, so a concurrent edit is detected rather
+ * than silently overwritten.
+ */
+@Service
+public class MatchScoreWriter {
+
+    private static final List<Field> FIELDS = persistentFields();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // ================= WRITE CHANGED FIELDS ONLY =================
+    public void write(MatchScore before, MatchScore after) {
+
+        Update update = diff(before, after);
+        if (update.getUpdateObject().isEmpty()) {
+            return;
+        }
+
+        long expected = before.getVersion();
+        update.inc("version", 1);
+
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(before.getId())
+                        .andOperator(versionIs(expected))),
+                update,
+                MatchScore.class
+        );
+
+        if (result.getMatchedCount() == 0) {
+            throw new OptimisticLockingFailureException(
+                    "Match score was modified concurrently, please retry"
+            );
+        }
+
+        after.setVersion(expected + 1);
+    }
+
+    // ================= DIFF =================
+    public Update diff(MatchScore before, MatchScore after) {
+
+        Update update = new Update();
+
+        for (Field field : FIELDS) {
+
+            Object old = ReflectionUtils.getField(field, before);
+            Object now = ReflectionUtils.getField(field, after);
+
+            if (Objects.equals(old, now)) {
+                continue;
+            }
+
+            String name = field.getName();
+
+            if (field.getType() == int.class) {
+                update.inc(name, (int) now - (int) old);
+
+            } else if (List.class.isAssignableFrom(field.getType())
+                    && old != null && now != null) {
+                diffList(update, name, (List<?>) old, (List<?>) now);
+
+            } else {
+                update.set(name, now);
+            }
+        }
+
+        return update;
+    }
+
+    // ================= FIELD SNAPSHOTS (UNDO / REDO) =================
+    // Values held by `source` for every field that differs in `other`
+    public Map<String, Object> changedFields(MatchScore source, MatchScore other) {
+
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        for (Field field : FIELDS) {
+            Object value = ReflectionUtils.getField(field, source);
+            if (!Objects.equals(value, ReflectionUtils.getField(field, other))) {
+                values.put(field.getName(), copyOf(value));
+            }
+        }
+
+        return values;
+    }
+
+    public void applyFields(MatchScore score, Map<String, Object> values) {
+
+        for (Field field : FIELDS) {
+            if (values.containsKey(field.getName())) {
+                ReflectionUtils.setField(field, score, copyOf(values.get(field.getName())));
+            }
+        }
+    }
+
+    // ---------- HELPERS ----------
+    private Object copyOf(Object value) {
+        return value instanceof List<?> list ? new ArrayList<>(list) : value;
+    }
+
+    private void diffList(Update update, String name, List<?> old, List<?> now) {
+
+        // Appended at the end (out batters)
+        if (now.size() > old.size() && now.subList(0, old.size()).equals(old)) {
+            update.push(name).each(new ArrayList<>(now.subList(old.size(), now.size())));
+            return;
+        }
+
+        // Removed, order of the rest untouched (yet to bat)
+        if (now.size() < old.size() && isSubsequence(now, old)) {
+            List<Object> removed = new ArrayList<>(old);
+            removed.removeAll(now);
+            update.pullAll(name, removed.toArray());
+            return;
+        }
+
+        update.set(name, now);
+    }
+
+    private boolean isSubsequence(List<?> shorter, List<?> longer) {
+        int i = 0;
+        for (Object item : longer) {
+            if (i < shorter.size() && Objects.equals(shorter.get(i), item)) {
+                i++;
+            }
+        }
+        return i == shorter.size();
+    }
+
+    // Documents written before versioning have no version field
+    private Criteria versionIs(long expected) {
+        if (expected == 0) {
+            return new Criteria().orOperator(
+                    Criteria.where("version").is(0L),
+                    Criteria.where("version").exists(false)
+            );
+        }
+        return Criteria.where("version").is(expected);
+    }
+
+    private static List<Field> persistentFields() {
+
+        List<Field> fields = new ArrayList<>();
+
+        for (Field field : MatchScore.class.getDeclaredFields()) {
+            int mod = field.getModifiers();
+            if (Modifier.isStatic(mod) || Modifier.isTransient(mod)) {
+                continue;
+            }
+            if (field.getName().equals("id") || field.getName().equals("version")) {
+                continue;
+            }
+            ReflectionUtils.makeAccessible(field);
+            fields.add(field);
+        }
+
+        return fields;
+    }
+}
@@ -0,0 +1,142 @@
+package com.cricriser.cricriser.match.scorecard;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * Read model of a full scorecard, one document per match (id = matchId).
+ * Written by ScorecardService as deliveries are recorded; the scorecard
+ * endpoint serves it with a single read.
+ */
+@Data
+@Document(collection = "match_scorecard")
+public class MatchScorecard {
+
+    @Id
+    private String matchId;
+
+    @Indexed
+    private String leagueId;
+
+    private String team1Id;
+    private String team2Id;
+    private String matchStatus;
+    private String matchWinner;
+    private String result;
+
+    // "1", "2" (super overs after) → card; a map so one innings is $set alone
+    private Map<String, InningsCard> innings = new LinkedHashMap<>();
+
+    private long updatedAt;
+
+    // ================= ONE INNINGS =================
+    @Data
+    public static class InningsCard {
+
+        private int innings;
+        private String battingTeamId;
+        private String bowlingTeamId;
+
+        // Totals after the last ball (same numbers as the match score)
+        private int runs;
+        private int wickets;
+        private double overs;
+        private int legalBalls;
+
+        private Extras extras = new Extras();
+
+        // In order of appearance
+        private List<BatterCard> batting = new ArrayList<>();
+        private List<BowlerCard> bowling = new ArrayList<>();
+
+        private List<FallOfWicket> fallOfWickets = new ArrayList<>();
+        private List<Partnership> partnerships = new ArrayList<>();
+        private List<OverSummary> overSummaries = new ArrayList<>();
+
+        private long lastBallSequence;
+    }
+
+    @Data
+    public static class Extras {
+        private int wides;
+        private int noBalls;
+        private int byes;
+        private int legByes;
+        private int total;
+    }
+
+    // Counter names match MatchPlayerStats → the same StatDelta applies
+    @Data
+    public static class BatterCard {
+        private String playerId;
+        private int runs;
+        private int balls;
+        private int fours;
+        private int sixes;
+        private double strikeRate;
+
+        private boolean out;
+        private String dismissalType;
+        private String bowlerId;
+        private String fielderId;
+    }
+
+    @Data
+    public static class BowlerCard {
+        private String playerId;
+        private int ballsBowled;
+        private double overs;
+        private int maidens;
+        private int runsConceded;
+        private int wickets;
+        private int wides;
+        private int noBalls;
+        private int dots;
+        private double economy;
+    }
+
+    @Data
+    public static class FallOfWicket {
+        private int wicket;          // 1st, 2nd ...
+        private String batterId;     // null for retired hurt
+        private int runs;
+        private double overs;
+        private long ballSequence;
+    }
+
+    @Data
+    public static class Partnership {
+        private int wicket;          // partnership for the Nth wicket
+        private String batter1Id;
+        private String batter2Id;
+        private int batter1Runs;
+        private int batter2Runs;
+        private int runs;            // includes extras
+        private int balls;           // legal balls
+        private boolean unbroken = true;
+    }
+
+    @Data
+    public static class OverSummary {
+        private int over;            // 1-based
+        private String bowlerId;
+        private int runs;
+        private int bowlerRuns;      // conceded by the bowler (no byes / leg byes)
+        private int wickets;
+        private int extras;
+        private int legalBalls;
+        private boolean completed;
+
+        // Innings total at the end of the over
+        private int totalRuns;
+        private int totalWickets;
+    }
+}
@@ -0,0 +1,8 @@
+package com.cricriser.cricriser.match.scorecard;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface MatchScorecardRepository extends MongoRepository<MatchScorecard, String> {
+
+    void deleteByLeagueId(String leagueId);
+}
@@ -0,0 +1,73 @@
+package com.cricriser.cricriser.match.scorecard;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cricriser.cricriser.ballbyball.live.MatchVersions;
+import com.cricriser.cricriser.ballbyball.live.MatchVersions.Version;
+
+@RestController
+@RequestMapping("/api/match/scorecard")
+@CrossOrigin(origins = "*")
+public class ScorecardController {
+
+    @Autowired
+    private ScorecardService scorecardService;
+
+    @Autowired
+    private MatchVersions matchVersions;
+
+    // ================= FULL SCORECARD (ONE DOCUMENT) =================
+    @GetMapping("/{matchId}")
+    public ResponseEntity<?> getScorecard(
+            @PathVariable String matchId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+
+        // Version first, then Mongo → the tag is never newer than the body
+        Version version = matchVersions.current(matchId);
+        String etag = matchVersions.etag("scorecard", version);
+
+        if (matchVersions.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(matchVersions.cacheControl(version.completed()))
+                    .build();
+        }
+
+        try {
+            MatchScorecard scorecard = scorecardService.getScorecard(matchId);
+
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(matchVersions.cacheControl(version.completed()))
+                    .body(scorecard);
+
+        } catch (RuntimeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ex.getMessage());
+        }
+    }
+
+    // ================= REBUILD FROM THE BALL LOG =================
+    @PostMapping("/{matchId}/rebuild")
+    public ResponseEntity<?> rebuild(@PathVariable String matchId) {
+
+        try {
+            return ResponseEntity.ok(scorecardService.rebuild(matchId));
+
+        } catch (RuntimeException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.cricriser.cricriser.match.scorecard;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.archive.InningsArchiveService;
+import com.cricriser.cricriser.ballbyball.ballservice.BallService;
+import com.cricriser.cricriser.ballbyball.live.MatchSequencer;
+import com.cricriser.cricriser.ballbyball.live.MatchVersions;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.match.matchscoring.MatchScoreRepository;
+import com.cricriser.cricriser.match.scorecard.MatchScorecard.BatterCard;
+import com.cricriser.cricriser.match.scorecard.MatchScorecard.BowlerCard;
+import com.cricriser.cricriser.match.scorecard.MatchScorecard.FallOfWicket;
+import com.cricriser.cricriser.match.scorecard.MatchScorecard.InningsCard;
+import com.cricriser.cricriser.match.scorecard.MatchScorecard.OverSummary;
+import com.cricriser.cricriser.match.scorecard.MatchScorecard.Partnership;
+import com.cricriser.cricriser.player.StatDelta;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStatsService;
+
+/**
+ * Maintains the match_scorecard read model.
+ *
+ * The card of the innings in progress stays resident per match and each new
+ * delivery is folded into it (batter and bowler counters through the same
+ * StatDelta rules as match stats); only that innings is then $set on the
+ * document. On a miss (restart, undo, innings change) the innings is rebuilt
+ * from the ball log, which already holds the deliveries being applied.
+ * Called under the match lock, after the balls are persisted.
+ */
+@Service
+public class ScorecardService {
+
+    @Autowired
+    private MatchScorecardRepository scorecardRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private InningsArchiveService archiveService;
+
+    @Autowired
+    private MatchScoreRepository matchScoreRepository;
+
+    @Autowired
+    private MatchPlayerStatsService matchPlayerStatsService;
+
+    @Autowired
+    private BallService ballService;
+
+    @Autowired
+    private MatchSequencer matchSequencer;
+
+    @Autowired
+    private MatchVersions matchVersions;
+
+    // matchId → card of the innings being played
+    private final Map<String, InningsCard> current = new ConcurrentHashMap<>();
+
+    // ================= PIPELINE: BALLS PERSISTED =================
+    public void ballsRecorded(MatchScore score, List<BallByBall> balls) {
+
+        String matchId = score.getMatchId();
+
+        try {
+            int i = 0;
+            while (i < balls.size()) {
+
+                // A batch can cross into the next innings
+                int innings = balls.get(i).getInnings();
+                int j = i;
+                while (j < balls.size() && balls.get(j).getInnings() == innings) {
+                    j++;
+                }
+
+                InningsCard card = current.get(matchId);
+
+                if (card != null && card.getInnings() == innings
+                        && card.getLastBallSequence() < balls.get(i).getBallSequence()) {
+                    for (int k = i; k < j; k++) {
+                        apply(card, score, balls.get(k));
+                    }
+                } else {
+                    // The log already holds these balls → rebuild covers them
+                    card = rebuildInnings(score, innings);
+                }
+
+                current.put(matchId, card);
+                save(score, card);
+                i = j;
+            }
+
+            if (score.isSecondInningsCompleted()) {
+                current.remove(matchId);
+            }
+
+        } catch (RuntimeException ex) {
+            // The ball is stored either way; next delivery rebuilds from the log
+            current.remove(matchId);
+            System.out.println("[ScorecardService] Scorecard update failed for " + matchId + ": " + ex.getMessage());
+        }
+    }
+
+    // ================= PIPELINE: LAST BALL REMOVED =================
+    public void ballUndone(MatchScore score, BallByBall undone) {
+
+        String matchId = score.getMatchId();
+
+        try {
+            InningsCard card = rebuildInnings(score, undone.getInnings());
+            current.put(matchId, card);
+            save(score, card);
+
+        } catch (RuntimeException ex) {
+            current.remove(matchId);
+            System.out.println("[ScorecardService] Scorecard undo failed for " + matchId + ": " + ex.getMessage());
+        }
+    }
+
+    // ================= READ (ONE DOCUMENT) =================
+    public MatchScorecard getScorecard(String matchId) {
+
+        MatchScorecard scorecard = scorecardRepository.findById(matchId).orElse(null);
+        if (scorecard != null) {
+            return scorecard;
+        }
+
+        // Match scored before the read model existed → build it once
+        return rebuild(matchId);
+    }
+
+    // ================= FULL REBUILD FROM THE LOG =================
+    public MatchScorecard rebuild(String matchId) {
+        return matchSequencer.execute(matchId, () -> doRebuild(matchId));
+    }
+
+    private MatchScorecard doRebuild(String matchId) {
+
+        MatchScore score = matchScoreRepository.findByMatchId(matchId);
+        if (score == null) {
+            throw new RuntimeException("Match score not found");
+        }
+
+        MatchScorecard scorecard = new MatchScorecard();
+        scorecard.setMatchId(matchId);
+        header(scorecard, score);
+
+        for (BallByBall ball : archiveService.matchLog(matchId)) {
+            InningsCard card = scorecard.getInnings()
+                    .computeIfAbsent(String.valueOf(ball.getInnings()), k -> new InningsCard());
+            apply(card, score, ball);
+        }
+
+        scorecard.setUpdatedAt(System.currentTimeMillis());
+        scorecardRepository.save(scorecard);
+
+        current.remove(matchId);
+        matchVersions.bump(matchId, score.isSecondInningsCompleted());
+        return scorecard;
+    }
+
+    // ================= SCORE EDITED OUTSIDE THE PIPELINE =================
+    public void scoreChanged(MatchScore score) {
+
+        Update update = new Update();
+        headerUpdate(update, score);
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(score.getMatchId())), update, MatchScorecard.class
+        );
+        matchVersions.bump(score.getMatchId(), score.isSecondInningsCompleted());
+    }
+
+    // ================= DELETE =================
+    public void deleteMatch(String matchId) {
+        current.remove(matchId);
+        scorecardRepository.deleteById(matchId);
+    }
+
+    public void deleteLeague(String leagueId) {
+        current.clear();
+        scorecardRepository.deleteByLeagueId(leagueId);
+    }
+
+    public void deleteAll() {
+        current.clear();
+        scorecardRepository.deleteAll();
+    }
+
+    // ================= APPLY ONE BALL =================
+    private void apply(InningsCard card, MatchScore score, BallByBall ball) {
+
+        // 1️⃣ INNINGS CONTEXT
+        if (card.getBattingTeamId() == null) {
+            card.setInnings(ball.getInnings());
+            card.setBattingTeamId(ball.getBattingTeamId());
+            card.setBowlingTeamId(
+                    score.getTeam1Id() != null && score.getTeam1Id().equals(ball.getBattingTeamId())
+                            ? score.getTeam2Id()
+                            : score.getTeam1Id()
+            );
+        }
+
+        int total = ballService.calculateTotalRuns(ball);
+        String extraType = ball.getExtraType() == null ? "" : ball.getExtraType().toUpperCase();
+
+        // 2️⃣ BATTERS (ORDER OF APPEARANCE) + BOWLER, SAME RULES AS MATCH STATS
+        BatterCard striker = batter(card, ball.getBatterId());
+        batter(card, ball.getNonStrikerId());
+        BowlerCard bowler = bowler(card, ball.getBowlerId());
+
+        StatDelta batting = matchPlayerStatsService.battingDelta(ball);
+        StatDelta bowling = matchPlayerStatsService.bowlingDelta(ball);
+        batting.applyTo(striker);
+        bowling.applyTo(bowler);
+
+        int batRuns = batting.getIncrements().getOrDefault("runs", 0);
+        int bowlerRuns = bowling.getIncrements().getOrDefault("runsConceded", 0);
+
+        if (ball.isLegalBall() && bowlerRuns == 0) {
+            bowler.setDots(bowler.getDots() + 1);
+        }
+
+        // 3️⃣ EXTRAS (SAME TOTAL AS THE TEAM'S EXTRAS)
+        MatchScorecard.Extras extras = card.getExtras();
+        switch (extraType) {
+            case "WIDE" -> extras.setWides(extras.getWides() + ball.getExtraRuns());
+            case "NO_BALL" -> extras.setNoBalls(extras.getNoBalls() + ball.getExtraRuns());
+            case "BYE" -> extras.setByes(extras.getByes() + ball.getExtraRuns());
+            case "LEG_BYE" -> extras.setLegByes(extras.getLegByes() + ball.getExtraRuns());
+            default -> { }
+        }
+        extras.setTotal(extras.getTotal() + ball.getExtraRuns());
+
+        // 4️⃣ TOTALS
+        card.setRuns(card.getRuns() + total);
+        if (ball.isLegalBall()) {
+            card.setLegalBalls(card.getLegalBalls() + 1);
+        }
+        card.setOvers(overs(card.getLegalBalls()));
+
+        // 5️⃣ PARTNERSHIP (a new pair at the crease starts a new one)
+        Partnership partnership = partnership(card, ball);
+        partnership.setRuns(partnership.getRuns() + total);
+        if (ball.isLegalBall()) {
+            partnership.setBalls(partnership.getBalls() + 1);
+        }
+        if (ball.getBatterId() != null && ball.getBatterId().equals(partnership.getBatter1Id())) {
+            partnership.setBatter1Runs(partnership.getBatter1Runs() + batRuns);
+        } else {
+            partnership.setBatter2Runs(partnership.getBatter2Runs() + batRuns);
+        }
+
+        // 6️⃣ WICKET → DISMISSAL + FALL OF WICKET
+        if (ball.isWicket()) {
+
+            card.setWickets(card.getWickets() + 1);
+            partnership.setUnbroken(false);
+
+            if (ball.getOutBatterId() != null) {
+                BatterCard out = batter(card, ball.getOutBatterId());
+                out.setOut(true);
+                out.setDismissalType(ball.getWicketType());
+                out.setBowlerId(matchPlayerStatsService.isBowlerWicket(ball.getWicketType())
+                        ? ball.getBowlerId()
+                        : null);
+                out.setFielderId(ball.getFielderId());
+            }
+
+            FallOfWicket fow = new FallOfWicket();
+            fow.setWicket(card.getWickets());
+            fow.setBatterId(ball.getOutBatterId());
+            fow.setRuns(card.getRuns());
+            fow.setOvers(card.getOvers());
+            fow.setBallSequence(ball.getBallSequence());
+            card.getFallOfWickets().add(fow);
+        }
+
+        // 7️⃣ OVER SUMMARY
+        OverSummary over = over(card, ball);
+        over.setRuns(over.getRuns() + total);
+        over.setBowlerRuns(over.getBowlerRuns() + bowlerRuns);
+        over.setExtras(over.getExtras() + ball.getExtraRuns());
+        if (ball.isLegalBall()) {
+            over.setLegalBalls(over.getLegalBalls() + 1);
+        }
+        if (ball.isWicket()) {
+            over.setWickets(over.getWickets() + 1);
+        }
+        over.setTotalRuns(card.getRuns());
+        over.setTotalWickets(card.getWickets());
+
+        if (ball.isOverCompleted()) {
+            over.setCompleted(true);
+            if (over.getBowlerRuns() == 0 && over.getLegalBalls() >= 6) {
+                bowler.setMaidens(bowler.getMaidens() + 1);
+            }
+        }
+
+        // 8️⃣ DERIVED FIGURES OF THE PLAYERS TOUCHED
+        striker.setStrikeRate(striker.getBalls() > 0 ? round(striker.getRuns() * 100.0 / striker.getBalls()) : 0);
+        bowler.setOvers(overs(bowler.getBallsBowled()));
+        bowler.setEconomy(bowler.getBallsBowled() > 0
+                ? round(bowler.getRunsConceded() * 6.0 / bowler.getBallsBowled())
+                : 0);
+
+        card.setLastBallSequence(ball.getBallSequence());
+    }
+
+    // ---------- HELPERS ----------
+    private InningsCard rebuildInnings(MatchScore score, int innings) {
+
+        InningsCard card = new InningsCard();
+        card.setInnings(innings);
+
+        for (BallByBall ball
+                : archiveService.inningsLog(score.getMatchId(), innings)) {
+            apply(card, score, ball);
+        }
+        return card;
+    }
+
+    // Only this innings travels; header fields follow the live score
+    private void save(MatchScore score, InningsCard card) {
+
+        String key = "innings." + card.getInnings();
+
+        Update update = card.getLastBallSequence() == 0
+                ? new Update().unset(key)          // every ball of the innings undone
+                : new Update().set(key, card);
+
+        headerUpdate(update, score);
+        update.set("updatedAt", System.currentTimeMillis());
+
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(score.getMatchId())), update, MatchScorecard.class
+        );
+
+        // Versions were bumped at commit, before this write → bump again so
+        // a tag taken in between never labels the older scorecard
+        matchVersions.bump(score.getMatchId(), score.isSecondInningsCompleted());
+    }
+
+    private void header(MatchScorecard scorecard, MatchScore score) {
+        scorecard.setLeagueId(score.getLeagueId());
+        scorecard.setTeam1Id(score.getTeam1Id());
+        scorecard.setTeam2Id(score.getTeam2Id());
+        scorecard.setMatchStatus(score.getMatchStatus());
+        scorecard.setMatchWinner(score.getMatchWinner());
+        scorecard.setResult(score.getResult());
+    }
+
+    private void headerUpdate(Update update, MatchScore score) {
+        update.set("leagueId", score.getLeagueId())
+                .set("team1Id", score.getTeam1Id())
+                .set("team2Id", score.getTeam2Id())
+                .set("matchStatus", score.getMatchStatus())
+                .set("matchWinner", score.getMatchWinner())
+                .set("result", score.getResult());
+    }
+
+    private BatterCard batter(InningsCard card, String playerId) {
+
+        if (playerId == null) {
+            return new BatterCard();
+        }
+        for (BatterCard b : card.getBatting()) {
+            if (playerId.equals(b.getPlayerId())) {
+                return b;
+            }
+        }
+        BatterCard b = new BatterCard();
+        b.setPlayerId(playerId);
+        card.getBatting().add(b);
+        return b;
+    }
+
+    private BowlerCard bowler(InningsCard card, String playerId) {
+
+        if (playerId == null) {
+            return new BowlerCard();
+        }
+        for (BowlerCard b : card.getBowling()) {
+            if (playerId.equals(b.getPlayerId())) {
+                return b;
+            }
+        }
+        BowlerCard b = new BowlerCard();
+        b.setPlayerId(playerId);
+        card.getBowling().add(b);
+        return b;
+    }
+
+    private Partnership partnership(InningsCard card, BallByBall ball) {
+
+        List<Partnership> all = card.getPartnerships();
+        Partnership last = all.isEmpty() ? null : all.get(all.size() - 1);
+
+        if (last != null && last.isUnbroken() && samePair(last, ball.getBatterId(), ball.getNonStrikerId())) {
+            return last;
+        }
+        if (last != null) {
+            last.setUnbroken(false);
+        }
+
+        Partnership p = new Partnership();
+        p.setWicket(card.getWickets() + 1);
+        p.setBatter1Id(ball.getBatterId());
+        p.setBatter2Id(ball.getNonStrikerId());
+        all.add(p);
+        return p;
+    }
+
+    private boolean samePair(Partnership p, String a, String b) {
+        return (eq(p.getBatter1Id(), a) && eq(p.getBatter2Id(), b))
+                || (eq(p.getBatter1Id(), b) && eq(p.getBatter2Id(), a));
+    }
+
+    private OverSummary over(InningsCard card, BallByBall ball) {
+
+        List<OverSummary> all = card.getOverSummaries();
+        OverSummary last = all.isEmpty() ? null : all.get(all.size() - 1);
+
+        if (last != null && last.getOver() == ball.getOver()) {
+            return last;
+        }
+
+        OverSummary o = new OverSummary();
+        o.setOver(ball.getOver());
+        o.setBowlerId(ball.getBowlerId());
+        all.add(o);
+        return o;
+    }
+
+    private static boolean eq(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static double overs(int legalBalls) {
+        return legalBalls / 6 + (legalBalls % 6) / 10.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -228,7 +228,7 @@ public class PlayerService {
         stats.setInnings(req.getInnings());
         stats.setRunsScored(req.getRunsScored());
         stats.setBattingAverage(req.getBattingAverage());
-        stats.setBattingStrikeRate(req.getBattingStrikeRate());
+        stats.setBallsFaced(req.getBallsFaced());
         stats.setFours(req.getFours());
         stats.setSixes(req.getSixes());
         stats.setHundreds(req.getHundreds());
@@ -239,7 +239,7 @@ public class PlayerService {
         stats.setBowlingAverage(req.getBowlingAverage());
         stats.setRunsConceded(req.getRunsConceded());
         stats.setBowlingStrikeRate(req.getBowlingStrikeRate());
-        stats.setEconomy(req.getEconomy());
+        stats.setBallsBowled(req.getBallsBowled());
         stats.setFiveWicketHauls(req.getFiveWicketHauls());
         stats.setBestBowlingFigures(req.getBestBowlingFigures());
         stats.setBestMatchFigures(req.getBestMatchFigures());
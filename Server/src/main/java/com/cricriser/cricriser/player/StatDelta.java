@@ -0,0 +1,70 @@
+package com.cricriser.cricriser.player;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Counter increments produced by one or more deliveries for a single stats
+ * document. The same delta is applied to the in-memory copy and sent to
+ * Mongo as a {@code $inc}, so the scoring rules are written only once.
+ */
+public class StatDelta {
+
+    private final Map<String, Integer> increments = new LinkedHashMap<>();
+
+    public static StatDelta of(Map<String, Integer> increments) {
+        StatDelta delta = new StatDelta();
+        if (increments != null) {
+            increments.forEach(delta::inc);
+        }
+        return delta;
+    }
+
+    public StatDelta inc(String field, int by) {
+        if (by != 0) {
+            increments.merge(field, by, Integer::sum);
+        }
+        return this;
+    }
+
+    public StatDelta add(StatDelta other) {
+        other.increments.forEach(this::inc);
+        return this;
+    }
+
+    public StatDelta negate() {
+        StatDelta negated = new StatDelta();
+        increments.forEach((field, by) -> negated.inc(field, -by));
+        return negated;
+    }
+
+    public boolean isEmpty() {
+        return increments.isEmpty();
+    }
+
+    public Map<String, Integer> getIncrements() {
+        return increments;
+    }
+
+    // ================= MONGO =================
+    public Update toUpdate() {
+        Update update = new Update();
+        increments.forEach(update::inc);
+        return update;
+    }
+
+    // ================= IN MEMORY =================
+    public void applyTo(Object stats) {
+
+        BeanWrapper fields = PropertyAccessorFactory.forBeanPropertyAccess(stats);
+
+        increments.forEach((field, by) -> fields.setPropertyValue(
+                field,
+                ((Number) fields.getPropertyValue(field)).intValue() + by
+        ));
+    }
+}
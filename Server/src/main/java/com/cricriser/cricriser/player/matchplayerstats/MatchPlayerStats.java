@@ -1,6 +1,8 @@
 package com.cricriser.cricriser.player.matchplayerstats;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -8,6 +10,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Document(collection = "match_player_stats")
+@CompoundIndex(name = "match_player", def = "{'matchId': 1, 'playerId': 1}", unique = true)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +21,7 @@ public class MatchPlayerStats {
 
     private String matchId;
     private String teamId;
+    @Indexed
     private String playerId;
 
     // ================= BATTING (THIS MATCH) =================
@@ -25,8 +29,6 @@ public class MatchPlayerStats {
     private int balls;       // e.g. 49
     private int fours;
     private int sixes;
-    private double strikeRate;
-
 
     private boolean out;     // true / false
     private String dismissalType; // RUN_OUT, CAUGHT, BOWLED
@@ -34,12 +36,24 @@ public class MatchPlayerStats {
     private String fielderId;// if applicable
 
     // ================= BOWLING (THIS MATCH) =================
-    private double overs;
     private int ballsBowled;
     private int runsConceded;
     private int wickets;
     private int maidens;
-    private double economy;
     private int wides;
     private int noBalls;
+
+    // ================= DERIVED (READ-ONLY, NEVER STORED) =================
+    // Counters are $inc'd per ball; strike rate, overs and economy follow from them
+    public double getStrikeRate() {
+        return balls > 0 ? (runs * 100.0) / balls : 0;
+    }
+
+    public double getOvers() {
+        return ballsBowled / 6 + (ballsBowled % 6) / 10.0;
+    }
+
+    public double getEconomy() {
+        return ballsBowled > 0 ? (runsConceded * 6.0) / ballsBowled : 0;
+    }
 }
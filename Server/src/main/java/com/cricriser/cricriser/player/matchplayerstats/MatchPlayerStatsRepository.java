@@ -1,5 +1,7 @@
 package com.cricriser.cricriser.player.matchplayerstats;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -10,6 +12,10 @@ public interface MatchPlayerStatsRepository
     Optional<MatchPlayerStats>
         findByMatchIdAndPlayerId(String matchId, String playerId);
 
+    List<MatchPlayerStats> findByMatchId(String matchId);
+
+    List<MatchPlayerStats> findByPlayerIdIn(Collection<String> playerIds);
+
     void deleteByMatchId(String matchId);
 
 }
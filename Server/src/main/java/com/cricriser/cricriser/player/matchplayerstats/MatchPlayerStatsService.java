@@ -1,12 +1,24 @@
 package com.cricriser.cricriser.player.matchplayerstats;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.cricriser.cricriser.ballbyball.BallByBall;
 import com.cricriser.cricriser.ballbyball.ballservice.BallService;
-import com.cricriser.cricriser.ballbyball.ballservice.OverService;
-import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.ballbyball.live.LiveMatch;
+import com.cricriser.cricriser.player.StatDelta;
 
 @Service
 public class MatchPlayerStatsService {
@@ -15,94 +27,144 @@ public class MatchPlayerStatsService {
     private MatchPlayerStatsRepository repo;
 
     @Autowired
-    private OverService overService;
+    private BallService ballService;
 
     @Autowired
-    private BallService ballService;
+    private MongoTemplate mongoTemplate;
 
-    public void updateMatchPlayerStats(BallByBall ball, MatchScore score) {
+    // In-memory only: persistBalls() sends the same deltas to Mongo
+    public void updateMatchPlayerStats(BallByBall ball, LiveMatch live) {
 
-        // ================= BATTER =================
-        MatchPlayerStats batter
-                = getOrCreate(ball.getMatchId(), ball.getBatterId());
+        battingDelta(ball).applyTo(live.playerStats(ball.getBatterId()));
+        bowlingDelta(ball).applyTo(live.playerStats(ball.getBowlerId()));
+    }
 
-// ✅ BAT RUNS ONLY
-        if (!"WIDE".equalsIgnoreCase(ball.getExtraType())
-                && ball.getRuns() > 0) {
+    // ================= BATTER =================
+    public StatDelta battingDelta(BallByBall ball) {
 
-            batter.setRuns(
-                    batter.getRuns() + ball.getRuns()
-            );
+        StatDelta delta = new StatDelta();
+        boolean wide = "WIDE".equalsIgnoreCase(ball.getExtraType());
+
+// ✅ BAT RUNS ONLY
+        if (!wide && ball.getRuns() > 0) {
+            delta.inc("runs", ball.getRuns());
         }
 
 // ✅ BALLS FACED
         if ((ball.isLegalBall() || "NO_BALL".equalsIgnoreCase(ball.getExtraType()))
-                && !"WIDE".equalsIgnoreCase(ball.getExtraType())) {
-
-            batter.setBalls(batter.getBalls() + 1);
+                && !wide) {
+            delta.inc("balls", 1);
         }
 
 // ✅ BOUNDARIES OFF BAT
-        if (ball.isBoundary()
-                && !"WIDE".equalsIgnoreCase(ball.getExtraType())
-                && ball.getRuns() > 0) {
+        if (ball.isBoundary() && !wide && ball.getRuns() > 0) {
 
             if (ball.getBoundaryRuns() == 4) {
-                batter.setFours(batter.getFours() + 1);
+                delta.inc("fours", 1);
             }
             if (ball.getBoundaryRuns() == 6) {
-                batter.setSixes(batter.getSixes() + 1);
+                delta.inc("sixes", 1);
             }
         }
 
-// ✅ STRIKE RATE
-        if (batter.getBalls() > 0) {
-            batter.setStrikeRate(
-                    (batter.getRuns() * 100.0)
-                    / batter.getBalls()
-            );
-        }
+        return delta;
+    }
 
-        repo.save(batter);
+    // ================= BOWLER =================
+    public StatDelta bowlingDelta(BallByBall ball) {
 
-        // ================= BOWLER =================
-        MatchPlayerStats bowler
-                = getOrCreate(ball.getMatchId(), ball.getBowlerId());
+        StatDelta delta = new StatDelta();
 
         if (ball.isLegalBall()) {
-            bowler.setBallsBowled(bowler.getBallsBowled() + 1);
-            bowler.setOvers(
-                    overService.calculateOversFromBalls(
-                            bowler.getBallsBowled()
-                    )
-            );
+            delta.inc("ballsBowled", 1);
         }
 
-        bowler.setRunsConceded(
-                bowler.getRunsConceded()
-                + ballService.calculateTotalRuns(ball)
-        );
+        delta.inc("runsConceded", ballService.calculateTotalRuns(ball));
 
         if ("WIDE".equalsIgnoreCase(ball.getExtraType())) {
-            bowler.setWides(bowler.getWides() + ball.getExtraRuns());
+            delta.inc("wides", ball.getExtraRuns());
         }
 
         if ("NO_BALL".equalsIgnoreCase(ball.getExtraType())) {
-            bowler.setNoBalls(bowler.getNoBalls() + 1);
+            delta.inc("noBalls", 1);
         }
 
         if (ball.isWicket() && isBowlerWicket(ball.getWicketType())) {
-            bowler.setWickets(bowler.getWickets() + 1);
+            delta.inc("wickets", 1);
         }
 
-        if (bowler.getBallsBowled() > 0) {
-            bowler.setEconomy(
-                    (bowler.getRunsConceded() * 6.0)
-                    / bowler.getBallsBowled()
-            );
+        return delta;
+    }
+
+    // ================= PERSIST (ONE BULK $inc, NO READS) =================
+    public void persistBalls(List<BallByBall> balls, LiveMatch live) {
+
+        Set<String> dismissed = new LinkedHashSet<>();
+
+        // outBatterId stays null for retired hurt
+        for (BallByBall ball : balls) {
+            if (ball.getOutBatterId() != null) {
+                dismissed.add(ball.getOutBatterId());
+            }
         }
 
-        repo.save(bowler);
+        persistDeltas(deltas(balls), dismissed, live);
+    }
+
+    public Map<String, StatDelta> deltas(List<BallByBall> balls) {
+
+        Map<String, StatDelta> deltas = new LinkedHashMap<>();
+
+        for (BallByBall ball : balls) {
+            deltas.computeIfAbsent(ball.getBatterId(), id -> new StatDelta())
+                    .add(battingDelta(ball));
+            deltas.computeIfAbsent(ball.getBowlerId(), id -> new StatDelta())
+                    .add(bowlingDelta(ball));
+        }
+
+        return deltas;
+    }
+
+    // Counters as $inc, dismissal fields copied from the live stats
+    public void persistDeltas(
+            Map<String, StatDelta> deltas,
+            Set<String> dismissalChanged,
+            LiveMatch live
+    ) {
+        Set<String> players = new LinkedHashSet<>(deltas.keySet());
+        players.addAll(dismissalChanged);
+
+        BulkOperations ops
+                = mongoTemplate.bulkOps(BulkMode.UNORDERED, MatchPlayerStats.class);
+        boolean any = false;
+
+        for (String playerId : players) {
+
+            MatchPlayerStats stats = live.playerStats(playerId);
+            StatDelta delta = deltas.getOrDefault(playerId, new StatDelta());
+
+            if (delta.isEmpty() && !dismissalChanged.contains(playerId)) {
+                continue;
+            }
+
+            Update update = delta.toUpdate()
+                    .setOnInsert("matchId", stats.getMatchId())
+                    .setOnInsert("playerId", playerId);
+
+            if (dismissalChanged.contains(playerId)) {
+                update.set("out", stats.isOut())
+                        .set("dismissalType", stats.getDismissalType())
+                        .set("bowlerId", stats.getBowlerId())
+                        .set("fielderId", stats.getFielderId());
+            }
+
+            ops.upsert(Query.query(Criteria.where("_id").is(stats.getId())), update);
+            any = true;
+        }
+
+        if (any) {
+            ops.execute();
+        }
     }
 
     // ---------- HELPERS ----------
@@ -120,19 +182,17 @@ public class MatchPlayerStatsService {
                     stats.setFours(0);
                     stats.setSixes(0);
                     stats.setOut(false);
-                    stats.setOvers(0);
                     stats.setBallsBowled(0);
                     stats.setRunsConceded(0);
                     stats.setWickets(0);
                     stats.setMaidens(0);
-                    stats.setEconomy(0);
                     stats.setWides(0);
                     stats.setNoBalls(0);
                     return repo.save(stats);
                 });
     }
 
-    private boolean isBowlerWicket(String wicketType) {
+    public boolean isBowlerWicket(String wicketType) {
         if (wicketType == null) {
             return false;
         }
@@ -167,14 +227,11 @@ public class MatchPlayerStatsService {
     }
 
     public void markBatterOut(
-            String matchId,
-            String batterId,
+            MatchPlayerStats stats,
             String wicketType,
             String bowlerId,
             String fielderId
     ) {
-        MatchPlayerStats stats = getOrCreate(matchId, batterId);
-
         stats.setOut(true);
         stats.setDismissalType(wicketType);
 
@@ -187,8 +244,14 @@ public class MatchPlayerStatsService {
 
         // ✅ Fielder only for applicable dismissals
         stats.setFielderId(fielderId);
+    }
 
-        repo.save(stats);
+    // Undo of a dismissal
+    public void markBatterNotOut(MatchPlayerStats stats) {
+        stats.setOut(false);
+        stats.setDismissalType(null);
+        stats.setBowlerId(null);
+        stats.setFielderId(null);
     }
 
 }
@@ -19,7 +19,6 @@ public class PlayerStats {
     private int matches;
     private int innings;
 
-    private double battingStrikeRate;
     private double battingAverage;
 
     // Batting
@@ -38,11 +37,21 @@ public class PlayerStats {
     private int wickets;
     private double bowlingStrikeRate;
     private double bowlingAverage;
-    private double economy;
+
     private int fiveWicketHauls;
     private int wides;
     private int noBalls;
 
     private String bestBowlingFigures;
     private String bestMatchFigures;
+
+    // ================= DERIVED (READ-ONLY, NEVER STORED) =================
+    // Counters are $inc'd per ball; strike rate and economy follow from them
+    public double getBattingStrikeRate() {
+        return ballsFaced > 0 ? (runsScored * 100.0) / ballsFaced : 0;
+    }
+
+    public double getEconomy() {
+        return ballsBowled > 0 ? (runsConceded * 6.0) / ballsBowled : 0;
+    }
 }
@@ -1,140 +1,294 @@
 package com.cricriser.cricriser.player.playerstats;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.cricriser.cricriser.ballbyball.BallByBall;
 import com.cricriser.cricriser.ballbyball.ballservice.BallService;
+import com.cricriser.cricriser.player.StatDelta;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStats;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStatsRepository;
 
 @Service
 public class PlayerStatsService {
 
     @Autowired
-    private PlayerStatsRepository playerStatsRepository;
+    private MatchPlayerStatsRepository matchPlayerStatsRepository;
 
     @Autowired
     private BallService ballService;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Last journaled ball whose increments reached this career document
+    private static final String REPLAYED_BALL = "replayedBallId";
+
     // ================= UPDATE CAREER STATS =================
+    // Server-side $inc upserts: no read, no lost update between scorers
     public void updatePlayerStats(BallByBall ball) {
+        updatePlayerStats(List.of(ball));
+    }
 
-        // ================= BATTER =================
-        String batterId = ball.isWicket()
-                ? ball.getOutBatterId()
-                : ball.getBatterId();
+    // ================= UPDATE CAREER STATS (BATCH) =================
+    // Deltas summed per player → one bulk write, one upsert per player
+    public void updatePlayerStats(List<BallByBall> balls) {
+        applyDeltas(deltas(balls));
+    }
 
-        PlayerStats batter = getOrCreate(batterId);
+    public Map<String, StatDelta> deltas(List<BallByBall> balls) {
 
-// ✅ ADD ONLY BAT RUNS (NO WIDE, NO BYES)
-        if (!"WIDE".equalsIgnoreCase(ball.getExtraType())
-                && ball.getRuns() > 0) {
+        Map<String, StatDelta> deltas = new LinkedHashMap<>();
+
+        for (BallByBall ball : balls) {
+            deltas.computeIfAbsent(batterIdOf(ball), id -> new StatDelta())
+                    .add(battingDelta(ball));
+            deltas.computeIfAbsent(ball.getBowlerId(), id -> new StatDelta())
+                    .add(bowlingDelta(ball));
+        }
+
+        return deltas;
+    }
+
+    public void applyDeltas(Map<String, StatDelta> deltas) {
+
+        BulkOperations ops
+                = mongoTemplate.bulkOps(BulkMode.UNORDERED, PlayerStats.class);
+        boolean any = false;
+
+        for (Map.Entry<String, StatDelta> entry : deltas.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            ops.upsert(
+                    Query.query(Criteria.where("_id").is(entry.getKey())),
+                    entry.getValue().toUpdate()
+            );
+            any = true;
+        }
+
+        if (any) {
+            ops.execute();
+        }
+    }
+
+    // ================= UPDATE CAREER STATS (REPLAYED BALL) =================
+    // Same $inc as the direct path, at most once per ball and player: the
+    // increment and the ball's marker go in one single-document update, so
+    // replaying an entry again (even after a partial write) skips the players
+    // it already reached. Entries replay one at a time → one marker is enough
+    public void applyDeltasOnce(Map<String, StatDelta> deltas, String ballId) {
+
+        BulkOperations ops
+                = mongoTemplate.bulkOps(BulkMode.ORDERED, PlayerStats.class);
+        boolean any = false;
+
+        for (Map.Entry<String, StatDelta> entry : deltas.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+
+            // Document exists first → the guarded update below never upserts a duplicate _id
+            ops.upsert(byId(entry.getKey()), new Update().setOnInsert("matches", 0));
+
+            ops.updateOne(
+                    Query.query(Criteria.where("_id").is(entry.getKey()).and(REPLAYED_BALL).ne(ballId)),
+                    entry.getValue().toUpdate().set(REPLAYED_BALL, ballId)
+            );
+            any = true;
+        }
+
+        if (any) {
+            ops.execute();
+        }
+    }
+
+    // ================= REBUILD CAREER STATS =================
+    // Career counters are the sum of every MatchPlayerStats of the player
+    public void rebuildCareerStats(Collection<String> playerIds) {
+
+        if (playerIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, PlayerStats> careers = new LinkedHashMap<>();
+        playerIds.forEach(id -> careers.put(id, newStats(id)));
+
+        for (MatchPlayerStats match : matchPlayerStatsRepository.findByPlayerIdIn(playerIds)) {
+            fold(careers.get(match.getPlayerId()), match);
+        }
 
-            batter.setRunsScored(
-                    batter.getRunsScored() + ball.getRuns()
+        BulkOperations ops
+                = mongoTemplate.bulkOps(BulkMode.UNORDERED, PlayerStats.class);
+
+        for (PlayerStats career : careers.values()) {
+            ops.upsert(
+                    Query.query(Criteria.where("_id").is(career.getPlayerId())),
+                    careerUpdate(career)
             );
         }
 
+        ops.execute();
+    }
+
+    // ================= BATTING =================
+    public StatDelta battingDelta(BallByBall ball) {
+
+        StatDelta delta = new StatDelta();
+        boolean wide = "WIDE".equalsIgnoreCase(ball.getExtraType());
+
+// ✅ ADD ONLY BAT RUNS (NO WIDE, NO BYES)
+        if (!wide && ball.getRuns() > 0) {
+            delta.inc("runsScored", ball.getRuns());
+        }
+
 // ✅ BALLS FACED
 // - Legal ball
 // - No ball
 // - NOT wide
         if ((ball.isLegalBall() || "NO_BALL".equalsIgnoreCase(ball.getExtraType()))
-                && !"WIDE".equalsIgnoreCase(ball.getExtraType())) {
-
-            batter.setBallsFaced(batter.getBallsFaced() + 1);
+                && !wide) {
+            delta.inc("ballsFaced", 1);
         }
 
 // ✅ BOUNDARIES (ONLY OFF BAT)
-        if (ball.isBoundary()
-                && !"WIDE".equalsIgnoreCase(ball.getExtraType())
-                && ball.getRuns() > 0) {
+        if (ball.isBoundary() && !wide && ball.getRuns() > 0) {
 
             if (ball.getBoundaryRuns() == 4) {
-                batter.setFours(batter.getFours() + 1);
+                delta.inc("fours", 1);
             }
             if (ball.getBoundaryRuns() == 6) {
-                batter.setSixes(batter.getSixes() + 1);
+                delta.inc("sixes", 1);
             }
         }
 
-// ✅ STRIKE RATE
-        if (batter.getBallsFaced() > 0) {
-            batter.setBattingStrikeRate(
-                    (batter.getRunsScored() * 100.0)
-                    / batter.getBallsFaced()
-            );
-        }
+        return delta;
+    }
 
-        playerStatsRepository.save(batter);
+    // ================= BOWLING =================
+    public StatDelta bowlingDelta(BallByBall ball) {
 
-        // ================= BOWLER =================
-        PlayerStats bowler = getOrCreate(ball.getBowlerId());
+        StatDelta delta = new StatDelta();
 
         if (ball.isLegalBall()) {
-            bowler.setBallsBowled(bowler.getBallsBowled() + 1);
+            delta.inc("ballsBowled", 1);
         }
 
         // ✅ RUNS CONCEDED (INCLUDING EXTRAS)
-        bowler.setRunsConceded(
-                bowler.getRunsConceded()
-                + ballService.calculateTotalRuns(ball)
-        );
+        delta.inc("runsConceded", ballService.calculateTotalRuns(ball));
 
         // ✅ EXTRAS
         if ("WIDE".equalsIgnoreCase(ball.getExtraType())) {
-            bowler.setWides(bowler.getWides() + ball.getExtraRuns());
+            delta.inc("wides", ball.getExtraRuns());
         }
 
         if ("NO_BALL".equalsIgnoreCase(ball.getExtraType())) {
-            bowler.setNoBalls(bowler.getNoBalls() + 1);
+            delta.inc("noBalls", 1);
         }
 
         // ✅ WICKETS
         if (ball.isWicket() && isBowlerWicket(ball.getWicketType())) {
-            bowler.setWickets(bowler.getWickets() + 1);
-        }
-
-        if (bowler.getBallsBowled() > 0) {
-            bowler.setEconomy(
-                    (bowler.getRunsConceded() * 6.0)
-                    / bowler.getBallsBowled()
-            );
+            delta.inc("wickets", 1);
         }
 
-        playerStatsRepository.save(bowler);
+        return delta;
     }
 
     // ================= HELPER =================
-    private PlayerStats getOrCreate(String playerId) {
+    private PlayerStats newStats(String playerId) {
+
+        PlayerStats stats = new PlayerStats();
+        stats.setPlayerId(playerId);
+
+        // Batting
+        stats.setRunsScored(0);
+        stats.setBallsFaced(0);
+        stats.setFours(0);
+        stats.setSixes(0);
+        stats.setHighestScore(0);
 
-        PlayerStats stats
-                = playerStatsRepository.findByPlayerId(playerId);
+        // Bowling
+        stats.setBallsBowled(0);
+        stats.setRunsConceded(0);
+        stats.setWickets(0);
 
-        if (stats == null) {
+        stats.setBowlingAverage(0);
 
-            stats = new PlayerStats();
-            stats.setPlayerId(playerId);
+        return stats;
+    }
 
-            // Batting
-            stats.setRunsScored(0);
-            stats.setBallsFaced(0);
-            stats.setFours(0);
-            stats.setSixes(0);
-            stats.setHighestScore(0);
+    private void fold(PlayerStats career, MatchPlayerStats match) {
 
-            // Bowling
-            stats.setBallsBowled(0);
-            stats.setRunsConceded(0);
-            stats.setWickets(0);
+        boolean batted = match.getBalls() > 0 || match.isOut();
+        boolean bowled = match.getBallsBowled() > 0;
 
-            stats.setBattingStrikeRate(0);
-            stats.setBowlingAverage(0);
-            stats.setEconomy(0);
+        career.setMatches(career.getMatches() + 1);
+        career.setInnings(career.getInnings() + (batted ? 1 : 0) + (bowled ? 1 : 0));
 
-            playerStatsRepository.save(stats);
+        career.setRunsScored(career.getRunsScored() + match.getRuns());
+        career.setBallsFaced(career.getBallsFaced() + match.getBalls());
+        career.setFours(career.getFours() + match.getFours());
+        career.setSixes(career.getSixes() + match.getSixes());
+        career.setHighestScore(Math.max(career.getHighestScore(), match.getRuns()));
+
+        if (match.getRuns() >= 100) {
+            career.setHundreds(career.getHundreds() + 1);
+        } else if (match.getRuns() >= 50) {
+            career.setFifties(career.getFifties() + 1);
         }
 
-        return stats;
+        career.setBallsBowled(career.getBallsBowled() + match.getBallsBowled());
+        career.setRunsConceded(career.getRunsConceded() + match.getRunsConceded());
+        career.setWickets(career.getWickets() + match.getWickets());
+        career.setWides(career.getWides() + match.getWides());
+        career.setNoBalls(career.getNoBalls() + match.getNoBalls());
+
+        if (match.getWickets() >= 5) {
+            career.setFiveWicketHauls(career.getFiveWicketHauls() + 1);
+        }
+    }
+
+    // $set of the rebuilt counters; figures strings are left as they are
+    private Update careerUpdate(PlayerStats career) {
+
+        return new Update()
+                .set("matches", career.getMatches())
+                .set("innings", career.getInnings())
+                .set("runsScored", career.getRunsScored())
+                .set("ballsFaced", career.getBallsFaced())
+                .set("fours", career.getFours())
+                .set("sixes", career.getSixes())
+                .set("hundreds", career.getHundreds())
+                .set("fifties", career.getFifties())
+                .set("highestScore", career.getHighestScore())
+                .set("runsConceded", career.getRunsConceded())
+                .set("ballsBowled", career.getBallsBowled())
+                .set("wickets", career.getWickets())
+                .set("wides", career.getWides())
+                .set("noBalls", career.getNoBalls())
+                .set("fiveWicketHauls", career.getFiveWicketHauls())
+                .set("bowlingAverage", career.getWickets() > 0
+                        ? (double) career.getRunsConceded() / career.getWickets() : 0)
+                .set("bowlingStrikeRate", career.getWickets() > 0
+                        ? (double) career.getBallsBowled() / career.getWickets() : 0);
+    }
+
+    // Wicket balls are credited to the dismissed batter
+    private String batterIdOf(BallByBall ball) {
+        return ball.isWicket()
+                ? ball.getOutBatterId()
+                : ball.getBatterId();
     }
 
     // ================= WICKET TYPE =================
@@ -152,14 +306,24 @@ public class PlayerStatsService {
         };
     }
 
+    // ================= FIRST APPEARANCE =================
+    // Guarded server-side updates, no read: a full save here would overwrite
+    // the $inc upserts of another match the player is scoring in
     public void incrementMatchIfNotExists(String playerId) {
 
-        PlayerStats stats = getOrCreate(playerId);
+        BulkOperations ops
+                = mongoTemplate.bulkOps(BulkMode.ORDERED, PlayerStats.class);
 
-        if (stats.getMatches() == 0) {
-            stats.setMatches(1);
-            playerStatsRepository.save(stats);
-        }
+        // New player → created with matches = 1
+        ops.upsert(byId(playerId), new Update().setOnInsert("matches", 1));
+
+        // Existing player still on 0 (or created by a $inc without the field)
+        ops.updateOne(
+                Query.query(Criteria.where("_id").is(playerId).and("matches").in(0, null)),
+                new Update().set("matches", 1)
+        );
+
+        ops.execute();
     }
 
     public void incrementInningsIfFirstBall(
@@ -167,17 +331,31 @@ public class PlayerStatsService {
             boolean isBatting,
             boolean isBowling
     ) {
-        PlayerStats stats = getOrCreate(playerId);
+        BulkOperations ops
+                = mongoTemplate.bulkOps(BulkMode.ORDERED, PlayerStats.class);
+
+        // Make sure the document exists, so the guards below never upsert a duplicate _id
+        ops.upsert(byId(playerId), new Update().setOnInsert("innings", 0));
 
-        if (isBatting && stats.getBallsFaced() == 0) {
-            stats.setInnings(stats.getInnings() + 1);
+        if (isBatting) {
+            ops.updateOne(
+                    Query.query(Criteria.where("_id").is(playerId).and("ballsFaced").in(0, null)),
+                    new Update().inc("innings", 1)
+            );
         }
 
-        if (isBowling && stats.getBallsBowled() == 0) {
-            stats.setInnings(stats.getInnings() + 1);
+        if (isBowling) {
+            ops.updateOne(
+                    Query.query(Criteria.where("_id").is(playerId).and("ballsBowled").in(0, null)),
+                    new Update().inc("innings", 1)
+            );
         }
 
-        playerStatsRepository.save(stats);
+        ops.execute();
+    }
+
+    private Query byId(String playerId) {
+        return Query.query(Criteria.where("_id").is(playerId));
     }
 
 }
@@ -1,6 +1,7 @@
 package com.cricriser.cricriser.points;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -8,6 +9,8 @@ import lombok.Data;
 @Data
 
 @Document(collection = "points_table")
+// teamName holds the team id; incremental upserts key on it
+@CompoundIndex(name = "league_team", def = "{'leagueId': 1, 'teamName': 1}", unique = true)
 public class PointsTable {
 
     @Id
@@ -0,0 +1,129 @@
+package com.cricriser.cricriser.points;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Bounded LRU of sorted points tables, each stored with its JSON already
+ * serialized so a hit costs neither a Mongo round trip nor Jackson. Only
+ * PointsTableService writes to it, at the moment it writes the table.
+ */
+@Component
+public class PointsTableCache {
+
+    private final int maxLeagues;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // access-order → eldest entry is the least recently read league
+    private final LinkedHashMap<String, Entry> entries;
+
+    // Bumped on every invalidation (any row write or rebuild); a load that started
+    // before it is discarded. It doubles as the version of the table it guards
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PointsTableCache(@Value("${app.points-cache.max-leagues:256}") int maxLeagues) {
+        this.maxLeagues = maxLeagues;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > PointsTableCache.this.maxLeagues) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // ================= READ =================
+    public synchronized Entry get(String leagueId) {
+
+        Entry entry = entries.get(leagueId);
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    public long generation(String leagueId) {
+        return generations.getOrDefault(leagueId, 0L);
+    }
+
+    // ================= WRITE =================
+    // Only stored if nothing was invalidated since `seenGeneration`
+    public Entry putIfCurrent(StandingsSnapshot snapshot, long seenGeneration) {
+
+        // Serialize outside the lock
+        Entry entry = new Entry(snapshot, serialize(snapshot));
+
+        synchronized (this) {
+            if (generation(snapshot.getLeagueId()) == seenGeneration) {
+                entries.put(snapshot.getLeagueId(), entry);
+            }
+        }
+        return entry;
+    }
+
+    // Returns the new generation
+    public synchronized long invalidate(String leagueId) {
+        long generation = generations.merge(leagueId, 1L, Long::sum);
+        if (entries.remove(leagueId) != null) {
+            invalidations.increment();
+        }
+        return generation;
+    }
+
+    // ================= METRICS =================
+    public synchronized CacheStats stats() {
+
+        long hit = hits.sum();
+        long miss = misses.sum();
+
+        return new CacheStats(
+                entries.size(), maxLeagues,
+                hit, miss,
+                hit + miss == 0 ? 0 : (double) hit / (hit + miss),
+                evictions.sum(), invalidations.sum()
+        );
+    }
+
+    // ---------- HELPERS ----------
+    private byte[] serialize(StandingsSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsBytes(snapshot.getRows());
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException("Could not serialize points table: " + ex.getMessage());
+        }
+    }
+
+    // ================= TYPES =================
+    public record Entry(StandingsSnapshot snapshot, byte[] json) {}
+
+    public record CacheStats(
+            int size,
+            int maxSize,
+            long hits,
+            long misses,
+            double hitRatio,
+            long evictions,
+            long invalidations
+    ) {}
+}
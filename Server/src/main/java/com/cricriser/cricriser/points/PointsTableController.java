@@ -3,9 +3,13 @@ package com.cricriser.cricriser.points;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.cricriser.cricriser.points.projection.TournamentProjectionService;
+import com.cricriser.cricriser.points.qualification.QualificationService;
+
 @RestController
 @RequestMapping("/api/points")
 @CrossOrigin(origins = "*")
@@ -14,6 +18,15 @@ public class PointsTableController {
     @Autowired
     private PointsTableService pointsTableService;
 
+    @Autowired
+    private PointsTableCache pointsTableCache;
+
+    @Autowired
+    private QualificationService qualificationService;
+
+    @Autowired
+    private TournamentProjectionService projectionService;
+
     // Recalculate and return
     @PostMapping("/recalculate/{leagueId}")
     public ResponseEntity<?> recalculate(@PathVariable String leagueId) {
@@ -25,25 +38,79 @@ public class PointsTableController {
         }
     }
 
-    // Get current table (from DB)
+    // Get current table (last consistent rebuild, version in a header)
     @GetMapping("/{leagueId}")
     public ResponseEntity<?> getTable(@PathVariable String leagueId) {
         try {
-            List<PointsTable> table = pointsTableService.getPointsTable(leagueId);
-            return ResponseEntity.ok(table);
+            PointsTableCache.Entry standings = pointsTableService.getCachedStandings(leagueId);
+
+            // Pre-serialized → no Jackson on the hot path
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("X-Standings-Version", String.valueOf(standings.snapshot().getVersion()))
+                    .body(standings.json());
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    // Cache hit / miss / eviction counters
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> cacheStats() {
+        return ResponseEntity.ok(pointsTableCache.stats());
+    }
+
+    // Can the team still finish in the top N, and what has to happen?
+    @GetMapping("/{leagueId}/qualification/{teamId}")
+    public ResponseEntity<?> qualification(
+            @PathVariable String leagueId,
+            @PathVariable String teamId,
+            @RequestParam(defaultValue = "4") int top
+    ) {
+        try {
+            return ResponseEntity.ok(qualificationService.evaluate(leagueId, teamId, top));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    // Monte Carlo finish-position probabilities (remaining fixtures played ball by ball)
+    @GetMapping("/{leagueId}/projection")
+    public ResponseEntity<?> projection(
+            @PathVariable String leagueId,
+            @RequestParam(defaultValue = "10000") int simulations,
+            @RequestParam(defaultValue = "4") int top,
+            @RequestParam(required = false) Long seed
+    ) {
+        try {
+            return ResponseEntity.ok(projectionService.project(leagueId, simulations, top, seed));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    // One simulated match as deliveries (synthetic load for the scoring endpoints)
+    @GetMapping("/{leagueId}/projection/deliveries/{matchId}")
+    public ResponseEntity<?> simulatedDeliveries(
+            @PathVariable String leagueId,
+            @PathVariable String matchId,
+            @RequestParam(required = false) Long seed
+    ) {
+        try {
+            return ResponseEntity.ok(projectionService.simulateFixture(leagueId, matchId, seed));
         } catch (RuntimeException ex) {
             return ResponseEntity.badRequest().body(ex.getMessage());
         }
     }
 
     /**
-     * Update existing points table (does not delete the old one).
-     * Useful when a single match score is updated.
+     * Score changes are applied incrementally as they happen; this forces a
+     * full rebuild (kept for existing clients).
      */
     @PutMapping("/update/{leagueId}")
     public ResponseEntity<?> updatePoints(@PathVariable String leagueId) {
         try {
-            List<PointsTable> updated = pointsTableService.updatePointsTable(leagueId);
+            List<PointsTable> updated = pointsTableService.recalculatePointsTable(leagueId);
             return ResponseEntity.ok(updated);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error updating points table: " + e.getMessage());
@@ -3,15 +3,30 @@ package com.cricriser.cricriser.points;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.cricriser.cricriser.match.matchscoring.MatchScore;
 import com.cricriser.cricriser.match.matchscoring.MatchScoreRepository;
+import com.cricriser.cricriser.player.StatDelta;
 
 @Service
 public class PointsTableService {
@@ -22,82 +37,142 @@ public class PointsTableService {
     @Autowired
     private PointsTableRepository pointsTableRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StandingsRecomputeQueue recomputeQueue;
+
+    @Autowired
+    private PointsTableCache cache;
+
+    private final Map<String, Object> leagueLocks = new ConcurrentHashMap<>();
+
     // ================= CONFIG =================
     private static final int WIN_POINTS = 2;
     private static final int TIE_POINTS = 1;
     private static final int NR_POINTS  = 1;
 
-    // FULL REBUILD POINTS TABLE (DELETE & RECALCULATE)
+    private static final Comparator<PointsTable> STANDINGS_ORDER = Comparator
+            .comparingInt(PointsTable::getPoints).reversed()
+            .thenComparingDouble(PointsTable::getNetRunRate).reversed()
+            .thenComparingInt(PointsTable::getRunsFor).reversed();
+
+    private static final List<String> COUNTERS = List.of(
+            "played", "won", "lost", "tied", "noResult", "points",
+            "runsFor", "runsAgainst", "ballsFaced", "ballsBowled"
+    );
+
+    // FULL REBUILD POINTS TABLE (RECALCULATE & REPLACE ROWS)
+    // One rebuild per league at a time → concurrent rebuilds cannot overwrite each other
     public List<PointsTable> recalculatePointsTable(String leagueId) {
 
-        // Delete old table
-        pointsTableRepository.deleteByLeagueId(leagueId);
+        synchronized (leagueLock(leagueId)) {
 
-        // Get completed matches only
-        List<MatchScore> matches = matchScoreRepository.findByLeagueId(leagueId)
-                .stream()
-                .filter(m -> "Completed".equalsIgnoreCase(m.getMatchStatus()))
-                .collect(Collectors.toList());
+            long generation = cache.generation(leagueId);
 
-        Map<String, PointsTable> map = new HashMap<>();
+            // Get completed matches only
+            List<MatchScore> matches = matchScoreRepository.findByLeagueId(leagueId)
+                    .stream()
+                    .filter(m -> "Completed".equalsIgnoreCase(m.getMatchStatus()))
+                    .collect(Collectors.toList());
 
-        for (MatchScore m : matches) {
-            processMatch(map, leagueId, m);
-        }
+            Map<String, PointsTable> map = new HashMap<>();
 
-        // Calculate NRR
-        List<PointsTable> finalTable = finalizeTable(map);
+            for (MatchScore m : matches) {
+                processMatch(map, leagueId, m);
+            }
 
-        // Save fresh
-        pointsTableRepository.saveAll(finalTable);
-        return finalTable;
-    }
+            // Calculate NRR
+            List<PointsTable> finalTable = finalizeTable(map);
 
-    //  UPDATE POINTS TABLE WITHOUT DELETE
-    public List<PointsTable> updatePointsTable(String leagueId) {
+            // Replace row by row (no window where the league has no table)
+            replaceRows(leagueId, finalTable);
 
-        List<PointsTable> oldTable = pointsTableRepository.findByLeagueId(leagueId);
+            // Rows changed → new generation, which is also the table's version
+            long rebuilt = cache.invalidate(leagueId);
 
-        List<MatchScore> matches = matchScoreRepository.findByLeagueId(leagueId)
-                .stream()
-                .filter(m -> "Completed".equalsIgnoreCase(m.getMatchStatus()))
-                .collect(Collectors.toList());
+            // An incremental write raced us → it re-queued a rebuild, leave the slot empty
+            if (rebuilt == generation + 1) {
+                cache.putIfCurrent(snapshot(leagueId, finalTable, rebuilt), rebuilt);
+            }
+            return finalTable;
+        }
+    }
 
-        Map<String, PointsTable> map = new HashMap<>();
+    // ================= INCREMENTAL: ONE MATCH CHANGED =================
+    // Only the delta between the match's old and new contribution is sent,
+    // as one atomic pipeline update per affected row (counters + NRR)
+    public void applyMatchTransition(MatchScore before, MatchScore after) {
 
-        for (MatchScore m : matches) {
-            processMatch(map, leagueId, m);
+        if (!isCompleted(before) && !isCompleted(after)) {
+            return;
         }
 
-        // Finalize (NRR + Sort)
-        List<PointsTable> newTable = finalizeTable(map);
+        Map<RowKey, StatDelta> deltas = new LinkedHashMap<>();
+        contribute(deltas, before, -1);
+        contribute(deltas, after, 1);
+
+        Set<String> leagues = new LinkedHashSet<>();
+
+        for (Map.Entry<RowKey, StatDelta> entry : deltas.entrySet()) {
 
-        // Preserve Mongo IDs
-        for (PointsTable fresh : newTable) {
-            for (PointsTable old : oldTable) {
-                if (fresh.getTeamName().equalsIgnoreCase(old.getTeamName())) {
-                    fresh.setId(old.getId());
-                }
+            if (entry.getValue().isEmpty()) {
+                continue;
             }
+
+            RowKey row = entry.getKey();
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("leagueId").is(row.leagueId())
+                            .and("teamName").is(row.team())),
+                    incrementWithNrr(row.team(), entry.getValue()),
+                    PointsTable.class
+            );
+            leagues.add(row.leagueId());
         }
 
-        // Overwrite
-        pointsTableRepository.saveAll(newTable);
-        return newTable;
+        for (String leagueId : leagues) {
+            // Both rows written → next read loads them together
+            cache.invalidate(leagueId);
+            recomputeQueue.markDirty(leagueId, () -> recalculatePointsTable(leagueId));
+        }
     }
 
     //GET CURRENT POINTS TABLE
     public List<PointsTable> getPointsTable(String leagueId) {
+        return getStandings(leagueId).getRows();
+    }
+
+    // Last consistent table with its version
+    public StandingsSnapshot getStandings(String leagueId) {
+        return getCachedStandings(leagueId).snapshot();
+    }
+
+    // Read-through: sorted rows + serialized JSON
+    public PointsTableCache.Entry getCachedStandings(String leagueId) {
+
+        PointsTableCache.Entry cached = cache.get(leagueId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = cache.generation(leagueId);
 
         List<PointsTable> table = pointsTableRepository.findByLeagueId(leagueId);
+        table.sort(STANDINGS_ORDER);
 
-        table.sort(Comparator
-                .comparingInt(PointsTable::getPoints).reversed()
-                .thenComparingDouble(PointsTable::getNetRunRate).reversed()
-                .thenComparingInt(PointsTable::getRunsFor).reversed()
-        );
+        // Same generation → same version, however often the entry is evicted and reloaded.
+        // A write landed while we were loading → serve, but do not cache
+        return cache.putIfCurrent(snapshot(leagueId, table, generation), generation);
+    }
+
+    // ================= LEAGUE DELETED =================
+    public void deleteLeague(String leagueId) {
 
-        return table;
+        synchronized (leagueLock(leagueId)) {
+            pointsTableRepository.deleteByLeagueId(leagueId);
+            cache.invalidate(leagueId);
+        }
     }
 
     // PROCESS SINGLE MATCH ENTRY
@@ -175,12 +250,7 @@ public class PointsTableService {
         }
 
         List<PointsTable> result = new ArrayList<>(map.values());
-
-        result.sort(Comparator
-                .comparingInt(PointsTable::getPoints).reversed()
-                .thenComparingDouble(PointsTable::getNetRunRate).reversed()
-                .thenComparingInt(PointsTable::getRunsFor).reversed()
-        );
+        result.sort(STANDINGS_ORDER);
 
         return result;
     }
@@ -192,6 +262,7 @@ public class PointsTableService {
 
         p.setLeagueId(leagueId);
         p.setTeamName(teamName);
+        p.setTeamId(teamName);
         p.setPlayed(0);
         p.setWon(0);
         p.setLost(0);
@@ -207,6 +278,121 @@ public class PointsTableService {
         return p;
     }
 
+    // ---------- SNAPSHOT HELPERS ----------
+    private Object leagueLock(String leagueId) {
+        return leagueLocks.computeIfAbsent(leagueId, id -> new Object());
+    }
+
+    private StandingsSnapshot snapshot(String leagueId, List<PointsTable> rows, long generation) {
+
+        return new StandingsSnapshot(
+                leagueId,
+                generation,
+                List.copyOf(rows),
+                System.currentTimeMillis()
+        );
+    }
+
+    private void replaceRows(String leagueId, List<PointsTable> rows) {
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, PointsTable.class);
+        List<String> teams = new ArrayList<>();
+
+        for (PointsTable row : rows) {
+
+            Update update = new Update()
+                    .set("teamId", row.getTeamId())
+                    .set("netRunRate", row.getNetRunRate());
+
+            BeanWrapper fields = PropertyAccessorFactory.forBeanPropertyAccess(row);
+            for (String counter : COUNTERS) {
+                update.set(counter, fields.getPropertyValue(counter));
+            }
+
+            ops.upsert(
+                    Query.query(Criteria.where("leagueId").is(leagueId)
+                            .and("teamName").is(row.getTeamName())),
+                    update
+            );
+            teams.add(row.getTeamName());
+        }
+
+        // Teams without a completed match any more
+        ops.remove(Query.query(Criteria.where("leagueId").is(leagueId)
+                .and("teamName").nin(teams)));
+
+        ops.execute();
+    }
+
+    // ---------- INCREMENTAL HELPERS ----------
+    private boolean isCompleted(MatchScore m) {
+        return m != null && "Completed".equalsIgnoreCase(m.getMatchStatus());
+    }
+
+    // Same rules as the full rebuild, signed: +1 counts a result, -1 takes it back
+    private void contribute(Map<RowKey, StatDelta> deltas, MatchScore m, int sign) {
+
+        if (!isCompleted(m)) {
+            return;
+        }
+
+        Map<String, PointsTable> rows = new HashMap<>();
+        processMatch(rows, m.getLeagueId(), m);
+
+        rows.forEach((team, row) -> {
+            StatDelta delta = deltas.computeIfAbsent(
+                    new RowKey(m.getLeagueId(), team), key -> new StatDelta()
+            );
+            BeanWrapper fields = PropertyAccessorFactory.forBeanPropertyAccess(row);
+            for (String counter : COUNTERS) {
+                delta.inc(counter, sign * (int) fields.getPropertyValue(counter));
+            }
+        });
+    }
+
+    private AggregationUpdate incrementWithNrr(String teamId, StatDelta delta) {
+
+        Document counters = new Document();
+        delta.getIncrements().forEach((field, by) -> counters.append(
+                field, new Document("$add", List.of(valueOrZero(field), by))
+        ));
+        counters.append("teamId", new Document("$ifNull", List.of("$teamId", teamId)));
+
+        // Second stage sees the incremented counters
+        Document nrr = new Document("netRunRate", new Document("$cond", List.of(
+                new Document("$or", List.of(
+                        new Document("$eq", List.of(valueOrZero("ballsFaced"), 0)),
+                        new Document("$eq", List.of(valueOrZero("ballsBowled"), 0))
+                )),
+                0.0,
+                new Document("$round", List.of(
+                        new Document("$subtract", List.of(
+                                runsPerOver("runsFor", "ballsFaced"),
+                                runsPerOver("runsAgainst", "ballsBowled")
+                        )),
+                        3
+                ))
+        )));
+
+        return AggregationUpdate.from(List.of(
+                context -> new Document("$set", counters),
+                context -> new Document("$set", nrr)
+        ));
+    }
+
+    private Document valueOrZero(String field) {
+        return new Document("$ifNull", List.of("$" + field, 0));
+    }
+
+    private Document runsPerOver(String runs, String balls) {
+        return new Document("$divide", List.of(
+                new Document("$multiply", List.of(valueOrZero(runs), 6)),
+                "$" + balls
+        ));
+    }
+
+    private record RowKey(String leagueId, String team) {}
+
     //  OVERS TO BALLS FIX
     private int oversToBalls(double overs) {
         int whole = (int) overs;
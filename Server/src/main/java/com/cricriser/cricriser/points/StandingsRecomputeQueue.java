@@ -0,0 +1,95 @@
+package com.cricriser.cricriser.points;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Debounced, per-league recompute of standings. Any number of marks for a
+ * league inside one window collapse into a single recompute; different
+ * leagues recompute in parallel on a small worker pool, and one league never
+ * recomputes twice at the same time.
+ */
+@Component
+public class StandingsRecomputeQueue {
+
+    private final long debounceMs;
+    private final ScheduledExecutorService workers;
+
+    // leagueId → pending recompute (present = dirty and scheduled)
+    private final Map<String, Runnable> dirty = new ConcurrentHashMap<>();
+
+    // leagues whose recompute is running right now
+    private final Map<String, Boolean> running = new ConcurrentHashMap<>();
+
+    public StandingsRecomputeQueue(
+            @Value("${app.standings.debounce-ms:2000}") long debounceMs,
+            @Value("${app.standings.workers:4}") int workers
+    ) {
+        this.debounceMs = debounceMs;
+
+        AtomicInteger ids = new AtomicInteger();
+        this.workers = Executors.newScheduledThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "standings-" + ids.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ================= MARK DIRTY =================
+    public void markDirty(String leagueId, Runnable recompute) {
+
+        if (leagueId == null) {
+            return;
+        }
+
+        // Already waiting for this window → coalesced
+        if (dirty.putIfAbsent(leagueId, recompute) == null) {
+            schedule(leagueId);
+        }
+    }
+
+    public boolean isDirty(String leagueId) {
+        return dirty.containsKey(leagueId);
+    }
+
+    // ---------- HELPERS ----------
+    private void schedule(String leagueId) {
+        workers.schedule(() -> drain(leagueId), debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain(String leagueId) {
+
+        // Still recomputing the previous window → try again after this one
+        if (running.putIfAbsent(leagueId, Boolean.TRUE) != null) {
+            schedule(leagueId);
+            return;
+        }
+
+        try {
+            // Marks arriving from here on schedule a fresh window
+            Runnable recompute = dirty.remove(leagueId);
+            if (recompute != null) {
+                recompute.run();
+            }
+        } catch (RuntimeException ex) {
+            System.out.println("[StandingsRecomputeQueue] Recompute failed for league "
+                    + leagueId + ": " + ex.getMessage());
+        } finally {
+            running.remove(leagueId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
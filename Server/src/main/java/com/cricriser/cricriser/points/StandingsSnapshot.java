@@ -0,0 +1,17 @@
+package com.cricriser.cricriser.points;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Immutable, versioned copy of a league's sorted table
+@Getter
+@AllArgsConstructor
+public class StandingsSnapshot {
+
+    private final String leagueId;
+    private final long version;      // cache generation the rows were read at; LRU eviction keeps it
+    private final List<PointsTable> rows;
+    private final long computedAt;
+}
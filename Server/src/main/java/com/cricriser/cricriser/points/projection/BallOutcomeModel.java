@@ -0,0 +1,88 @@
+package com.cricriser.cricriser.points.projection;
+
+import java.util.Map;
+
+/**
+ * Per-player ball outcome distributions, flattened into arrays so the
+ * simulator samples them without lookups or allocation. Players are
+ * addressed by index; {@link #ids} maps back to player ids.
+ *
+ * Outcomes of a delivery that reaches the bat: 0, 1, 2, 3, 4, 6 runs or a wicket.
+ */
+public final class BallOutcomeModel {
+
+    public static final int[] RUNS = { 0, 1, 2, 3, 4, 6, 0 };
+    public static final int WICKET = 6;
+    public static final int OUTCOMES = RUNS.length;
+
+    final String[] ids;
+    final Map<String, Integer> index;
+
+    // Cumulative, last entry 1.0
+    final double[][] battingCdf;
+    final double[][] bowlingCdf;
+
+    final double[] wideRate;
+    final double[] noBallRate;
+    final double[] ballsBowled;    // observed, picks the bowlers of an XI
+
+    BallOutcomeModel(String[] ids, Map<String, Integer> index,
+            double[][] battingCdf, double[][] bowlingCdf,
+            double[] wideRate, double[] noBallRate, double[] ballsBowled) {
+        this.ids = ids;
+        this.index = index;
+        this.battingCdf = battingCdf;
+        this.bowlingCdf = bowlingCdf;
+        this.wideRate = wideRate;
+        this.noBallRate = noBallRate;
+        this.ballsBowled = ballsBowled;
+    }
+
+    public int players() {
+        return ids.length;
+    }
+
+    public int indexOf(String playerId) {
+        Integer i = index.get(playerId);
+        return i == null ? -1 : i;
+    }
+
+    // Inverse CDF, linear over 7 buckets
+    static int sample(double[] cdf, double u) {
+
+        int outcome = 0;
+        while (outcome < OUTCOMES - 1 && u >= cdf[outcome]) {
+            outcome++;
+        }
+        return outcome;
+    }
+
+    // Runs of a delivery → outcome bucket (5 counts as 4, 7+ as 6)
+    static int bucket(int runs, boolean wicket) {
+
+        if (wicket) {
+            return WICKET;
+        }
+        if (runs <= 3) {
+            return Math.max(runs, 0);
+        }
+        return runs <= 5 ? 4 : 5;
+    }
+
+    static double[] cumulative(double[] counts) {
+
+        double total = 0;
+        for (double c : counts) {
+            total += c;
+        }
+
+        double[] cdf = new double[counts.length];
+        double running = 0;
+        for (int i = 0; i < counts.length; i++) {
+            running += counts[i];
+            cdf[i] = total == 0 ? (i + 1.0) / counts.length : running / total;
+        }
+        cdf[counts.length - 1] = 1.0;
+        return cdf;
+    }
+}
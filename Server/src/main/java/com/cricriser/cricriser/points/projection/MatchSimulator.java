@@ -0,0 +1,254 @@
+package com.cricriser.cricriser.points.projection;
+
+import java.util.SplittableRandom;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.ballservice.ExtraService;
+import com.cricriser.cricriser.ballbyball.ballservice.OverService;
+import com.cricriser.cricriser.ballbyball.ballservice.StrikeRotationService;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+
+/**
+ * Plays a fixture ball by ball through the same rules the scoring pipeline
+ * applies to real deliveries (extras, over completion, strike rotation).
+ * One instance per worker thread: the ball, the score and every counter are
+ * reused, so the per-ball loop allocates nothing.
+ */
+final class MatchSimulator {
+
+    // Only ever set from these constants → compared by reference in the loop
+    private static final String WIDE = "WIDE";
+    private static final String NO_BALL = "NO_BALL";
+    private static final String CAUGHT = "CAUGHT";
+
+    private final ExtraService extraService;
+    private final OverService overService;
+    private final StrikeRotationService strikeRotationService;
+
+    private final BallOutcomeModel model;
+    private final int ballsPerInnings;
+    private final int maxOversPerBowler;
+
+    // Reused for every delivery
+    private final BallByBall ball = new BallByBall();
+    private final MatchScore score = new MatchScore();
+    private final int[] oversBowled;
+
+    private BallListener listener;
+
+    // ================= LAST RESULT =================
+    int team1Runs;
+    int team1Balls;
+    int team2Runs;
+    int team2Balls;
+    int winner;              // 1, 2 or 0 for a tie
+    long deliveries;         // total simulated by this instance
+
+    private int inningsBalls;
+
+    MatchSimulator(ExtraService extraService, OverService overService,
+            StrikeRotationService strikeRotationService,
+            BallOutcomeModel model, int oversPerInnings) {
+        this.extraService = extraService;
+        this.overService = overService;
+        this.strikeRotationService = strikeRotationService;
+        this.model = model;
+        this.ballsPerInnings = oversPerInnings * 6;
+        this.maxOversPerBowler = (oversPerInnings + 4) / 5;
+        this.oversBowled = new int[model.players()];
+    }
+
+    void setListener(BallListener listener) {
+        this.listener = listener;
+    }
+
+    // ================= MATCH =================
+    void play(Lineup team1, Lineup team2, SplittableRandom random) {
+
+        boolean team1First = random.nextBoolean();
+        Lineup first = team1First ? team1 : team2;
+        Lineup second = team1First ? team2 : team1;
+
+        int firstRuns = innings(1, first, second, -1, random);
+        int firstBalls = inningsBalls;
+        int secondRuns = innings(2, second, first, firstRuns + 1, random);
+        int secondBalls = inningsBalls;
+
+        team1Runs = team1First ? firstRuns : secondRuns;
+        team1Balls = team1First ? firstBalls : secondBalls;
+        team2Runs = team1First ? secondRuns : firstRuns;
+        team2Balls = team1First ? secondBalls : firstBalls;
+
+        winner = team1Runs > team2Runs ? 1 : team2Runs > team1Runs ? 2 : 0;
+    }
+
+    // ================= INNINGS =================
+    // target < 0 → first innings; returns runs, legal balls in inningsBalls
+    private int innings(int inningsNo, Lineup batting, Lineup bowling, int target, SplittableRandom random) {
+
+        String[] ids = model.ids;
+        int[] order = batting.battingOrder();
+
+        for (int b : bowling.bowlers()) {
+            oversBowled[b] = 0;
+        }
+
+        int striker = order[0];
+        int nonStriker = order[1];
+        int next = 2;
+
+        score.setInnings(inningsNo);
+        score.setStrikerId(ids[striker]);
+        score.setNonStrikerId(ids[nonStriker]);
+        score.setCurrentBowlerId(null);
+        score.setLastOverBowlerId(null);
+
+        int runs = 0;
+        int wickets = 0;
+        int legal = 0;
+        int over = 0;
+        int ballInOver = 0;
+        int bowler = -1;
+        boolean freeHit = false;
+
+        while (legal < ballsPerInnings && wickets < order.length - 1 && (target < 0 || runs < target)) {
+
+            // 1️⃣ NEW OVER → NEW BOWLER (OverService cleared the current one)
+            if (score.getCurrentBowlerId() == null) {
+                bowler = pickBowler(bowling.bowlers(), over);
+                score.setCurrentBowlerId(ids[bowler]);
+            }
+
+            reset(inningsNo, over, ballInOver, ids[striker], ids[nonStriker], ids[bowler]);
+
+            // 2️⃣ EXTRAS (bowler's rates) → ExtraService decides legality + penalty
+            double u = random.nextDouble();
+            if (u < model.wideRate[bowler]) {
+                ball.setExtraType(WIDE);
+            } else if (u < model.wideRate[bowler] + model.noBallRate[bowler]) {
+                ball.setExtraType(NO_BALL);
+            }
+            extraService.applyExtras(ball);
+
+            // 3️⃣ OFF THE BAT: batter's or bowler's distribution, half each
+            if (ball.getExtraType() != WIDE) {
+
+                double[] cdf = random.nextBoolean() ? model.battingCdf[striker] : model.bowlingCdf[bowler];
+                int outcome = BallOutcomeModel.sample(cdf, random.nextDouble());
+
+                if (outcome == BallOutcomeModel.WICKET) {
+                    if (ball.isLegalBall() && !freeHit) {
+                        ball.setWicket(true);
+                        ball.setWicketType(CAUGHT);
+                        ball.setOutBatterId(ids[striker]);
+                    }
+                } else {
+                    int bat = BallOutcomeModel.RUNS[outcome];
+                    ball.setRuns(bat);
+                    ball.setBoundary(bat == 4 || bat == 6);
+                    ball.setBoundaryRuns(bat == 4 || bat == 6 ? bat : 0);
+                }
+            }
+
+            // 4️⃣ OVER PROGRESS
+            if (ball.isLegalBall()) {
+                ballInOver++;
+                legal++;
+                ball.setBall(ballInOver);
+            }
+            overService.checkOverCompletion(ball, score);
+
+            runs += ball.getRuns() + ball.getExtraRuns();
+
+            // 5️⃣ WICKET → next batter takes strike at the same end
+            if (ball.isWicket()) {
+                wickets++;
+                if (next < order.length) {
+                    striker = order[next++];
+                    score.setStrikerId(ids[striker]);
+                }
+            }
+
+            // 6️⃣ STRIKE (ids are the model's own String instances)
+            strikeRotationService.rotateStrike(ball, score);
+            if (score.getStrikerId() != ids[striker]) {
+                int swap = striker;
+                striker = nonStriker;
+                nonStriker = swap;
+            }
+
+            // Free hit carries over wides until a legal ball is bowled
+            if (ball.getExtraType() == NO_BALL) {
+                freeHit = true;
+            } else if (ball.isLegalBall()) {
+                freeHit = false;
+            }
+
+            if (ball.isOverCompleted()) {
+                oversBowled[bowler]++;
+                over++;
+                ballInOver = 0;
+            }
+
+            deliveries++;
+
+            if (listener != null) {
+                listener.onBall(ball, runs, wickets, legal);
+            }
+        }
+
+        inningsBalls = legal;
+        return runs;
+    }
+
+    // ---------- HELPERS ----------
+    // Rotate through the attack; nobody twice in a row, nobody past the quota
+    private int pickBowler(int[] bowlers, int over) {
+
+        String last = score.getLastOverBowlerId();
+
+        for (int k = 0; k < bowlers.length; k++) {
+            int b = bowlers[(over + k) % bowlers.length];
+            if (oversBowled[b] < maxOversPerBowler && model.ids[b] != last) {
+                return b;
+            }
+        }
+        for (int b : bowlers) {
+            if (model.ids[b] != last) {
+                return b;
+            }
+        }
+        return bowlers[0];
+    }
+
+    private void reset(int inningsNo, int over, int ballInOver, String batter, String nonStriker, String bowler) {
+
+        ball.setInnings(inningsNo);
+        ball.setOver(over);
+        ball.setBall(ballInOver);
+        ball.setBatterId(batter);
+        ball.setNonStrikerId(nonStriker);
+        ball.setBowlerId(bowler);
+        ball.setExtraType(null);
+        ball.setExtraRuns(0);
+        ball.setRuns(0);
+        ball.setRunningRuns(0);
+        ball.setLegalBall(false);
+        ball.setFreeHit(false);
+        ball.setOverCompleted(false);
+        ball.setWicket(false);
+        ball.setWicketType(null);
+        ball.setOutBatterId(null);
+        ball.setBoundary(false);
+        ball.setBoundaryRuns(0);
+    }
+
+    // ================= TYPES =================
+    // Indexes into the model; bowlers ⊂ battingOrder
+    record Lineup(int[] battingOrder, int[] bowlers) {}
+
+    // Sees the reused ball after the rules ran (copy it to keep it)
+    interface BallListener {
+        void onBall(BallByBall ball, int inningsRuns, int inningsWickets, int legalBalls);
+    }
+}
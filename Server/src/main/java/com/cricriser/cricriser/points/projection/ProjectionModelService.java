@@ -0,0 +1,323 @@
+package com.cricriser.cricriser.points.projection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.archive.InningsArchive;
+import com.cricriser.cricriser.player.playerstats.PlayerStats;
+import com.cricriser.cricriser.player.playerstats.PlayerStatsRepository;
+
+/**
+ * Learns {@link BallOutcomeModel}s: ball-level counts from ball_by_ball and
+ * innings_archive where a player has them, career totals from PlayerStats where they do
+ * not, both shrunk towards the league-wide distribution so a player with
+ * three balls faced does not bat like a god (or a rabbit).
+ */
+@Service
+public class ProjectionModelService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PlayerStatsRepository playerStatsRepository;
+
+    private final long ttlMs;
+
+    // leagueId → model built for that league's squads
+    private final Map<String, CachedModel> models = new ConcurrentHashMap<>();
+
+    // ================= CONFIG =================
+    private static final double PRIOR_BALLS = 60;      // weight of the league distribution
+    private static final double MIN_BALL_DATA = 30;    // below → fall back to PlayerStats
+
+    // 0, 1, 2, 3, 4, 6, W per 100 balls (T20 par) when the league has no data yet
+    private static final double[] DEFAULT_OUTCOMES = { 36, 37, 8, 1, 10, 4, 4 };
+    private static final double DEFAULT_WIDE_RATE = 0.03;
+    private static final double DEFAULT_NO_BALL_RATE = 0.005;
+
+    public ProjectionModelService(@Value("${app.projection.model-ttl-ms:600000}") long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    // ================= CACHED PER LEAGUE =================
+    public BallOutcomeModel modelFor(String leagueId, Set<String> playerIds) {
+
+        CachedModel cached = models.get(leagueId);
+        if (cached != null
+                && System.currentTimeMillis() - cached.builtAt() < ttlMs
+                && cached.players().equals(playerIds)) {
+            return cached.model();
+        }
+
+        BallOutcomeModel model = build(playerIds);
+        models.put(leagueId, new CachedModel(model, Set.copyOf(playerIds), System.currentTimeMillis()));
+        return model;
+    }
+
+    // ================= BUILD =================
+    public BallOutcomeModel build(Set<String> playerIds) {
+
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(playerIds));
+        int n = ids.size();
+
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            index.put(ids.get(i), i);
+        }
+
+        double[][] batting = new double[n][BallOutcomeModel.OUTCOMES];
+        double[][] bowling = new double[n][BallOutcomeModel.OUTCOMES];
+        double[] wides = new double[n];
+        double[] noBalls = new double[n];
+        double[] legalBowled = new double[n];
+
+        // 1️⃣ BALL-LEVEL COUNTS
+        if (n > 0) {
+            countBatting(ids, index, batting);
+            countBowling(ids, index, bowling, wides, noBalls, legalBowled);
+            countArchived(ids, index, batting, bowling, wides, noBalls, legalBowled);
+        }
+
+        // 2️⃣ CAREER TOTALS WHERE BALL DATA IS THIN
+        for (PlayerStats stats : playerStatsRepository.findAllById(ids)) {
+
+            int i = index.get(stats.getPlayerId());
+
+            if (sum(batting[i]) < MIN_BALL_DATA && stats.getBallsFaced() > 0) {
+                addCareerBatting(batting[i], stats);
+            }
+            if (legalBowled[i] < MIN_BALL_DATA && stats.getBallsBowled() > 0) {
+                addCareerBowling(bowling[i], stats);
+                wides[i] += stats.getWides();
+                noBalls[i] += stats.getNoBalls();
+                legalBowled[i] += stats.getBallsBowled();
+            }
+        }
+
+        // 3️⃣ LEAGUE PRIOR
+        double[] battingPrior = prior(batting);
+        double[] bowlingPrior = prior(bowling);
+
+        double allWides = Arrays.stream(wides).sum();
+        double allNoBalls = Arrays.stream(noBalls).sum();
+        double allBowled = Arrays.stream(legalBowled).sum() + allWides + allNoBalls;
+        double wideRate = allBowled == 0 ? DEFAULT_WIDE_RATE : allWides / allBowled;
+        double noBallRate = allBowled == 0 ? DEFAULT_NO_BALL_RATE : allNoBalls / allBowled;
+
+        double[][] battingCdf = new double[n][];
+        double[][] bowlingCdf = new double[n][];
+        double[] wideRates = new double[n];
+        double[] noBallRates = new double[n];
+
+        for (int i = 0; i < n; i++) {
+
+            battingCdf[i] = BallOutcomeModel.cumulative(shrink(batting[i], battingPrior));
+            bowlingCdf[i] = BallOutcomeModel.cumulative(shrink(bowling[i], bowlingPrior));
+
+            double deliveries = legalBowled[i] + wides[i] + noBalls[i] + PRIOR_BALLS;
+            wideRates[i] = (wides[i] + PRIOR_BALLS * wideRate) / deliveries;
+            noBallRates[i] = (noBalls[i] + PRIOR_BALLS * noBallRate) / deliveries;
+        }
+
+        return new BallOutcomeModel(
+                ids.toArray(String[]::new), index,
+                battingCdf, bowlingCdf, wideRates, noBallRates, legalBowled
+        );
+    }
+
+    // ---------- BALL_BY_BALL AGGREGATIONS ----------
+    // Deliveries that reached the bat (byes / leg byes count as dots for the batter)
+    private void countBatting(List<String> ids, Map<String, Integer> index, double[][] batting) {
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("batterId").in(ids)
+                        .and("validDelivery").ne(false)
+                        .and("extraType").in(Arrays.asList(null, "BYE", "LEG_BYE"))),
+                Aggregation.group("batterId", "runs", "isWicket").count().as("count")
+        );
+
+        for (Document row : mongoTemplate.aggregate(aggregation, BallByBall.class, Document.class)) {
+
+            Document key = row.get("_id", Document.class);
+            Integer i = index.get(key.getString("batterId"));
+            if (i == null) {
+                continue;
+            }
+
+            int outcome = BallOutcomeModel.bucket(intOf(key.get("runs")), Boolean.TRUE.equals(key.get("isWicket")));
+            batting[i][outcome] += intOf(row.get("count"));
+        }
+    }
+
+    private void countBowling(List<String> ids, Map<String, Integer> index, double[][] bowling,
+            double[] wides, double[] noBalls, double[] legalBowled) {
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("bowlerId").in(ids).and("validDelivery").ne(false)),
+                Aggregation.group("bowlerId", "extraType", "runs", "isWicket").count().as("count")
+        );
+
+        for (Document row : mongoTemplate.aggregate(aggregation, BallByBall.class, Document.class)) {
+
+            Document key = row.get("_id", Document.class);
+            Integer i = index.get(key.getString("bowlerId"));
+            if (i == null) {
+                continue;
+            }
+
+            int count = intOf(row.get("count"));
+            String extraType = key.getString("extraType");
+
+            if ("WIDE".equals(extraType)) {
+                wides[i] += count;
+            } else if ("NO_BALL".equals(extraType)) {
+                noBalls[i] += count;
+            } else {
+                int outcome = BallOutcomeModel.bucket(intOf(key.get("runs")), Boolean.TRUE.equals(key.get("isWicket")));
+                bowling[i][outcome] += count;
+                legalBowled[i] += count;
+            }
+        }
+    }
+
+    // ---------- INNINGS_ARCHIVE COLUMNS ----------
+    // Same rules as the two aggregations above, over the per-ball byte columns
+    private void countArchived(List<String> ids, Map<String, Integer> index, double[][] batting,
+            double[][] bowling, double[] wides, double[] noBalls, double[] legalBowled) {
+
+        Query query = Query.query(Criteria.where("players").in(ids));
+        query.fields().exclude("balls");
+
+        for (InningsArchive archive : mongoTemplate.find(query, InningsArchive.class)) {
+            for (int b = 0; b < archive.getBallCount(); b++) {
+
+                if (!archive.hasFlag(b, InningsArchive.VALID_DELIVERY)) {
+                    continue;
+                }
+
+                byte extraType = archive.getExtraTypes()[b];
+                int outcome = BallOutcomeModel.bucket(
+                        archive.getRuns()[b] & 0xFF, archive.hasFlag(b, InningsArchive.WICKET)
+                );
+
+                Integer batter = index.get(archive.batterAt(b));
+                if (batter != null && extraType != InningsArchive.WIDE && extraType != InningsArchive.NO_BALL) {
+                    batting[batter][outcome]++;
+                }
+
+                Integer bowler = index.get(archive.bowlerAt(b));
+                if (bowler == null) {
+                    continue;
+                }
+
+                if (extraType == InningsArchive.WIDE) {
+                    wides[bowler]++;
+                } else if (extraType == InningsArchive.NO_BALL) {
+                    noBalls[bowler]++;
+                } else {
+                    bowling[bowler][outcome]++;
+                    legalBowled[bowler]++;
+                }
+            }
+        }
+    }
+
+    // ---------- PLAYERSTATS FALLBACK ----------
+    // Only totals are known: boundaries exact, other runs split 3:1 into singles
+    // and twos, one dismissal per innings
+    private void addCareerBatting(double[] counts, PlayerStats s) {
+
+        double others = Math.max(0, s.getRunsScored() - 4.0 * s.getFours() - 6.0 * s.getSixes());
+        double twos = others * 0.25 / 2;
+        double singles = others - 2 * twos;
+        double wickets = s.getInnings();
+        double dots = Math.max(0, s.getBallsFaced() - singles - twos - s.getFours() - s.getSixes() - wickets);
+
+        counts[0] += dots;
+        counts[1] += singles;
+        counts[2] += twos;
+        counts[4] += s.getFours();
+        counts[5] += s.getSixes();
+        counts[BallOutcomeModel.WICKET] += wickets;
+    }
+
+    private void addCareerBowling(double[] counts, PlayerStats s) {
+
+        double balls = s.getBallsBowled();
+        double conceded = Math.max(0, s.getRunsConceded() - s.getWides() - s.getNoBalls());
+
+        // Same shape as the league default, scaled to the bowler's economy
+        double defaultRunsPerBall = 0;
+        double defaultBalls = 0;
+        for (int i = 0; i < BallOutcomeModel.OUTCOMES; i++) {
+            defaultRunsPerBall += DEFAULT_OUTCOMES[i] * BallOutcomeModel.RUNS[i];
+            defaultBalls += DEFAULT_OUTCOMES[i];
+        }
+        double scale = defaultRunsPerBall == 0 ? 1 : (conceded / balls) / (defaultRunsPerBall / defaultBalls);
+
+        double scoring = 0;
+        for (int i = 1; i < BallOutcomeModel.WICKET; i++) {
+            counts[i] += balls * DEFAULT_OUTCOMES[i] / defaultBalls * scale;
+            scoring += balls * DEFAULT_OUTCOMES[i] / defaultBalls * scale;
+        }
+        counts[BallOutcomeModel.WICKET] += s.getWickets();
+        counts[0] += Math.max(0, balls - scoring - s.getWickets());
+    }
+
+    // ---------- HELPERS ----------
+    private double[] prior(double[][] counts) {
+
+        double[] total = new double[BallOutcomeModel.OUTCOMES];
+        for (double[] player : counts) {
+            for (int i = 0; i < total.length; i++) {
+                total[i] += player[i];
+            }
+        }
+        return normalize(sum(total) == 0 ? DEFAULT_OUTCOMES.clone() : total);
+    }
+
+    private double[] shrink(double[] counts, double[] prior) {
+
+        double[] shrunk = new double[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            shrunk[i] = counts[i] + PRIOR_BALLS * prior[i];
+        }
+        return shrunk;
+    }
+
+    private double[] normalize(double[] counts) {
+
+        double total = sum(counts);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] /= total;
+        }
+        return counts;
+    }
+
+    private double sum(double[] values) {
+        return Arrays.stream(values).sum();
+    }
+
+    private int intOf(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    private record CachedModel(BallOutcomeModel model, Set<String> players, long builtAt) {}
+}
@@ -0,0 +1,31 @@
+package com.cricriser.cricriser.points.projection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ProjectionResult {
+
+    private String leagueId;
+    private int simulations;
+    private int remainingMatches;
+    private int topN;
+    private long seed;
+
+    private long simulatedBalls;
+    private long elapsedMs;
+
+    // Sorted by expected points
+    private List<TeamProjection> teams = new ArrayList<>();
+
+    // finishProbabilities[i] → chance of finishing (i + 1)th
+    public record TeamProjection(
+            String teamId,
+            int currentPoints,
+            double expectedPoints,
+            double topNProbability,
+            double[] finishProbabilities
+    ) {}
+}
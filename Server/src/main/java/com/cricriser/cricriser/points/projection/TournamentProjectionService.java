@@ -0,0 +1,491 @@
+package com.cricriser.cricriser.points.projection;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.ballservice.ExtraService;
+import com.cricriser.cricriser.ballbyball.ballservice.OverService;
+import com.cricriser.cricriser.ballbyball.ballservice.StrikeRotationService;
+import com.cricriser.cricriser.league.League;
+import com.cricriser.cricriser.league.LeagueRepository;
+import com.cricriser.cricriser.match.matchscheduling.MatchSchedule;
+import com.cricriser.cricriser.match.matchscheduling.MatchScheduleService;
+import com.cricriser.cricriser.points.PointsTable;
+import com.cricriser.cricriser.points.PointsTableService;
+import com.cricriser.cricriser.team.Team;
+import com.cricriser.cricriser.team.TeamRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Monte Carlo projection of the league table: plays the remaining fixtures
+ * ball by ball many times over (see {@link MatchSimulator}) and counts where
+ * each team finishes. Simulations are split across one worker per core,
+ * each with its own simulator, counters and random stream.
+ *
+ * The same simulator also produces a single synthetic match as a list of
+ * deliveries, ready to be fed to the scoring endpoints as load.
+ */
+@Service
+public class TournamentProjectionService {
+
+    @Autowired
+    private PointsTableService pointsTableService;
+
+    @Autowired
+    private MatchScheduleService matchScheduleService;
+
+    @Autowired
+    private LeagueRepository leagueRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ProjectionModelService modelService;
+
+    @Autowired
+    private ExtraService extraService;
+
+    @Autowired
+    private OverService overService;
+
+    @Autowired
+    private StrikeRotationService strikeRotationService;
+
+    private final int workerCount;
+    private final int maxSimulations;
+    private final ExecutorService workers;
+
+    // ================= CONFIG =================
+    private static final int XI = 11;
+    private static final int ATTACK = 5;
+    private static final int DEFAULT_OVERS = 20;
+
+    public TournamentProjectionService(
+            @Value("${app.projection.workers:0}") int workers,
+            @Value("${app.projection.max-simulations:200000}") int maxSimulations
+    ) {
+        this.workerCount = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.maxSimulations = maxSimulations;
+
+        AtomicInteger ids = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, task -> {
+            Thread thread = new Thread(task, "projection-" + ids.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ================= PROJECT =================
+    public ProjectionResult project(String leagueId, int simulations, int topN, Long seed) {
+
+        if (simulations <= 0 || simulations > maxSimulations) {
+            throw new RuntimeException("simulations must be between 1 and " + maxSimulations);
+        }
+
+        long start = System.currentTimeMillis();
+        Season season = prepare(leagueId);
+        long rootSeed = seed != null ? seed : System.nanoTime();
+
+        // 1️⃣ SPLIT ACROSS WORKERS (independent random streams)
+        SplittableRandom root = new SplittableRandom(rootSeed);
+        List<Callable<Tally>> tasks = new ArrayList<>();
+
+        for (int w = 0; w < workerCount; w++) {
+            int count = simulations / workerCount + (w < simulations % workerCount ? 1 : 0);
+            if (count > 0) {
+                SplittableRandom random = root.split();
+                tasks.add(() -> simulate(season, count, random));
+            }
+        }
+
+        // 2️⃣ MERGE
+        int teams = season.teamIds().size();
+        Tally total = new Tally(teams);
+
+        try {
+            for (Future<Tally> future : workers.invokeAll(tasks)) {
+                total.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Projection interrupted");
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("Projection failed: " + ex.getCause().getMessage());
+        }
+
+        return result(leagueId, season, total, simulations, topN, rootSeed, start);
+    }
+
+    // ================= SYNTHETIC MATCH =================
+    public List<BallByBall> simulateFixture(String leagueId, String matchId, Long seed) {
+
+        Season season = prepare(leagueId);
+
+        int fixture = -1;
+        for (int i = 0; i < season.fixtures().size(); i++) {
+            if (season.fixtures().get(i).getId().equals(matchId)) {
+                fixture = i;
+            }
+        }
+        if (fixture < 0) {
+            throw new RuntimeException("Match is not a remaining league fixture");
+        }
+
+        MatchSchedule match = season.fixtures().get(fixture);
+        int[] teams = season.fixtureTeams()[fixture];
+
+        // Player → team, to label each innings
+        Map<String, String> teamOf = new HashMap<>();
+        for (int side : teams) {
+            for (int p : season.lineups()[side].battingOrder()) {
+                teamOf.put(season.model().ids[p], season.teamIds().get(side));
+            }
+        }
+
+        List<BallByBall> balls = new ArrayList<>();
+        MatchSimulator simulator = simulator(season);
+
+        simulator.setListener((ball, runs, wickets, legalBalls) -> {
+            BallByBall copy = copy(ball);
+            copy.setClientBallId(UUID.randomUUID().toString());
+            copy.setLeagueId(leagueId);
+            copy.setMatchId(match.getId());
+            copy.setBattingTeamId(teamOf.get(ball.getBatterId()));
+            copy.setBowlingTeamId(teamOf.get(ball.getBowlerId()));
+            copy.setBallSequence(balls.size() + 1);
+            copy.setTotalRunsAtBall(runs);
+            copy.setTotalWicketsAtBall(wickets);
+            copy.setLegalBallsAtBall(legalBalls);
+            copy.setOversAtBall(overService.calculateOversFromBalls(legalBalls));
+            balls.add(copy);
+        });
+
+        simulator.play(season.lineups()[teams[0]], season.lineups()[teams[1]],
+                new SplittableRandom(seed != null ? seed : System.nanoTime()));
+
+        return balls;
+    }
+
+    // ---------- WORKER ----------
+    private Tally simulate(Season season, int count, SplittableRandom random) {
+
+        int teams = season.teamIds().size();
+        int[][] fixtures = season.fixtureTeams();
+        MatchSimulator simulator = simulator(season);
+        Tally tally = new Tally(teams);
+
+        int[] points = new int[teams];
+        int[] runsFor = new int[teams];
+        int[] runsAgainst = new int[teams];
+        int[] ballsFaced = new int[teams];
+        int[] ballsBowled = new int[teams];
+        double[] nrr = new double[teams];
+        int[] order = new int[teams];
+
+        for (int s = 0; s < count; s++) {
+
+            System.arraycopy(season.points(), 0, points, 0, teams);
+            System.arraycopy(season.runsFor(), 0, runsFor, 0, teams);
+            System.arraycopy(season.runsAgainst(), 0, runsAgainst, 0, teams);
+            System.arraycopy(season.ballsFaced(), 0, ballsFaced, 0, teams);
+            System.arraycopy(season.ballsBowled(), 0, ballsBowled, 0, teams);
+
+            // 1️⃣ PLAY OUT THE SEASON
+            for (int[] f : fixtures) {
+
+                int a = f[0];
+                int b = f[1];
+                simulator.play(season.lineups()[a], season.lineups()[b], random);
+
+                runsFor[a] += simulator.team1Runs;
+                runsAgainst[a] += simulator.team2Runs;
+                ballsFaced[a] += simulator.team1Balls;
+                ballsBowled[a] += simulator.team2Balls;
+                runsFor[b] += simulator.team2Runs;
+                runsAgainst[b] += simulator.team1Runs;
+                ballsFaced[b] += simulator.team2Balls;
+                ballsBowled[b] += simulator.team1Balls;
+
+                if (simulator.winner == 1) {
+                    points[a] += 2;
+                } else if (simulator.winner == 2) {
+                    points[b] += 2;
+                } else {
+                    points[a] += 1;
+                    points[b] += 1;
+                }
+            }
+
+            // 2️⃣ RANK (points, then NRR, then runs scored)
+            for (int t = 0; t < teams; t++) {
+                nrr[t] = netRunRate(runsFor[t], ballsFaced[t], runsAgainst[t], ballsBowled[t]);
+                order[t] = t;
+            }
+            for (int i = 1; i < teams; i++) {
+                int team = order[i];
+                int j = i - 1;
+                while (j >= 0 && ranksBelow(order[j], team, points, nrr, runsFor)) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = team;
+            }
+
+            for (int position = 0; position < teams; position++) {
+                tally.positions[order[position]][position]++;
+            }
+            for (int t = 0; t < teams; t++) {
+                tally.pointsSum[t] += points[t];
+            }
+        }
+
+        tally.deliveries = simulator.deliveries;
+        return tally;
+    }
+
+    // ---------- SETUP ----------
+    private Season prepare(String leagueId) {
+
+        League league = leagueRepository.findById(leagueId)
+                .orElseThrow(() -> new RuntimeException("League not found"));
+
+        List<MatchSchedule> fixtures = matchScheduleService.getRemainingLeagueFixtures(leagueId);
+
+        // 1️⃣ TEAMS
+        Map<String, PointsTable> rows = new LinkedHashMap<>();
+        pointsTableService.getPointsTable(leagueId).forEach(row -> rows.put(row.getTeamName(), row));
+
+        Map<String, Integer> index = new LinkedHashMap<>();
+        rows.keySet().forEach(team -> index.putIfAbsent(team, index.size()));
+        MatchScheduleService.teamIds(league).forEach(team -> index.putIfAbsent(team, index.size()));
+        fixtures.forEach(m -> {
+            index.putIfAbsent(m.getTeam1Id(), index.size());
+            index.putIfAbsent(m.getTeam2Id(), index.size());
+        });
+
+        List<String> teamIds = new ArrayList<>(index.keySet());
+        int teams = teamIds.size();
+
+        // 2️⃣ PLAYING XIs (squad order; placeholders bat at league par)
+        Map<String, Team> squads = new HashMap<>();
+        teamRepository.findAllById(teamIds).forEach(team -> squads.put(team.getId(), team));
+
+        List<List<String>> xis = new ArrayList<>();
+        Set<String> players = new LinkedHashSet<>();
+
+        for (String teamId : teamIds) {
+
+            Team team = squads.get(teamId);
+            List<String> xi = new ArrayList<>();
+            if (team != null && team.getSquadPlayerIds() != null) {
+                team.getSquadPlayerIds().stream().distinct().limit(XI).forEach(xi::add);
+            }
+            while (xi.size() < XI) {
+                xi.add(teamId + "#" + (xi.size() + 1));
+            }
+            xis.add(xi);
+            players.addAll(xi);
+        }
+
+        BallOutcomeModel model = modelService.modelFor(leagueId, players);
+
+        MatchSimulator.Lineup[] lineups = new MatchSimulator.Lineup[teams];
+        for (int t = 0; t < teams; t++) {
+            lineups[t] = lineup(model, xis.get(t));
+        }
+
+        // 3️⃣ TABLE SO FAR
+        int[] points = new int[teams];
+        int[] runsFor = new int[teams];
+        int[] runsAgainst = new int[teams];
+        int[] ballsFaced = new int[teams];
+        int[] ballsBowled = new int[teams];
+
+        rows.forEach((teamId, row) -> {
+            int t = index.get(teamId);
+            points[t] = row.getPoints();
+            runsFor[t] = row.getRunsFor();
+            runsAgainst[t] = row.getRunsAgainst();
+            ballsFaced[t] = row.getBallsFaced();
+            ballsBowled[t] = row.getBallsBowled();
+        });
+
+        int[][] fixtureTeams = fixtures.stream()
+                .map(m -> new int[] { index.get(m.getTeam1Id()), index.get(m.getTeam2Id()) })
+                .toArray(int[][]::new);
+
+        int overs = league.getOversPerInnings() == null ? DEFAULT_OVERS : league.getOversPerInnings();
+
+        return new Season(teamIds, fixtures, fixtureTeams, model, lineups, overs,
+                points, runsFor, runsAgainst, ballsFaced, ballsBowled);
+    }
+
+    // Bowlers: the five of the XI who have bowled most, tail first on ties
+    private MatchSimulator.Lineup lineup(BallOutcomeModel model, List<String> xi) {
+
+        int[] order = xi.stream().mapToInt(model::indexOf).toArray();
+
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < order.length; i++) {
+            positions.add(i);
+        }
+        positions.sort(Comparator
+                .comparingDouble((Integer i) -> -model.ballsBowled[order[i]])
+                .thenComparing(i -> -i));
+
+        int[] bowlers = positions.stream().limit(ATTACK).mapToInt(i -> order[i]).toArray();
+        return new MatchSimulator.Lineup(order, bowlers);
+    }
+
+    private MatchSimulator simulator(Season season) {
+        return new MatchSimulator(extraService, overService, strikeRotationService,
+                season.model(), season.oversPerInnings());
+    }
+
+    // ---------- RESULT ----------
+    private ProjectionResult result(String leagueId, Season season, Tally total,
+            int simulations, int topN, long seed, long start) {
+
+        ProjectionResult result = new ProjectionResult();
+        result.setLeagueId(leagueId);
+        result.setSimulations(simulations);
+        result.setRemainingMatches(season.fixtures().size());
+        result.setTopN(topN);
+        result.setSeed(seed);
+        result.setSimulatedBalls(total.deliveries);
+
+        int teams = season.teamIds().size();
+
+        for (int t = 0; t < teams; t++) {
+
+            double[] finish = new double[teams];
+            double top = 0;
+            for (int position = 0; position < teams; position++) {
+                finish[position] = (double) total.positions[t][position] / simulations;
+                if (position < topN) {
+                    top += finish[position];
+                }
+            }
+
+            result.getTeams().add(new ProjectionResult.TeamProjection(
+                    season.teamIds().get(t),
+                    season.points()[t],
+                    total.pointsSum[t] / simulations,
+                    top,
+                    finish
+            ));
+        }
+
+        result.getTeams().sort(Comparator
+                .comparingDouble(ProjectionResult.TeamProjection::expectedPoints).reversed());
+
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    // ---------- HELPERS ----------
+    private static boolean ranksBelow(int a, int b, int[] points, double[] nrr, int[] runsFor) {
+
+        if (points[a] != points[b]) {
+            return points[a] < points[b];
+        }
+        if (nrr[a] != nrr[b]) {
+            return nrr[a] < nrr[b];
+        }
+        return runsFor[a] < runsFor[b];
+    }
+
+    private static double netRunRate(int runsFor, int ballsFaced, int runsAgainst, int ballsBowled) {
+
+        if (ballsFaced == 0 || ballsBowled == 0) {
+            return 0;
+        }
+        return runsFor * 6.0 / ballsFaced - runsAgainst * 6.0 / ballsBowled;
+    }
+
+    private BallByBall copy(BallByBall ball) {
+
+        BallByBall copy = new BallByBall();
+        copy.setInnings(ball.getInnings());
+        copy.setOver(ball.getOver());
+        copy.setBall(ball.getBall());
+        copy.setBatterId(ball.getBatterId());
+        copy.setNonStrikerId(ball.getNonStrikerId());
+        copy.setBowlerId(ball.getBowlerId());
+        copy.setRuns(ball.getRuns());
+        copy.setExtraType(ball.getExtraType());
+        copy.setExtraRuns(ball.getExtraRuns());
+        copy.setLegalBall(ball.isLegalBall());
+        copy.setFreeHit(ball.isFreeHit());
+        copy.setOverCompleted(ball.isOverCompleted());
+        copy.setWicket(ball.isWicket());
+        copy.setWicketType(ball.getWicketType());
+        copy.setOutBatterId(ball.getOutBatterId());
+        copy.setBoundary(ball.isBoundary());
+        copy.setBoundaryRuns(ball.getBoundaryRuns());
+        return copy;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // ================= TYPES =================
+    private record Season(
+            List<String> teamIds,
+            List<MatchSchedule> fixtures,
+            int[][] fixtureTeams,
+            BallOutcomeModel model,
+            MatchSimulator.Lineup[] lineups,
+            int oversPerInnings,
+            int[] points,
+            int[] runsFor,
+            int[] runsAgainst,
+            int[] ballsFaced,
+            int[] ballsBowled
+    ) {}
+
+    private static final class Tally {
+
+        final long[][] positions;     // [team][finish position]
+        final double[] pointsSum;
+        long deliveries;
+
+        Tally(int teams) {
+            this.positions = new long[teams][teams];
+            this.pointsSum = new double[teams];
+        }
+
+        void add(Tally other) {
+            for (int t = 0; t < positions.length; t++) {
+                for (int p = 0; p < positions[t].length; p++) {
+                    positions[t][p] += other.positions[t][p];
+                }
+                pointsSum[t] += other.pointsSum[t];
+            }
+            deliveries += other.deliveries;
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.cricriser.cricriser.points.qualification;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Searches every win/loss combination of the remaining fixtures for one
+ * team's chances of finishing in the top N. Pure computation (no Spring,
+ * no Mongo) so it can be benchmarked on its own.
+ *
+ * The 2^k tree is cut three ways:
+ * - bounds: a subtree where the team is already through or already out on
+ *   points alone is counted without being walked
+ * - equivalence: teams that can no longer end level with the target are
+ *   collapsed to "above" / "below", so standings that differ only there
+ *   share one memo entry
+ * - memo: (fixture, standings) → summary of the subtree below it
+ * The top levels of the tree fork onto the pool, the rest runs sequentially.
+ */
+public class QualificationEngine {
+
+    // Collapsed points (real points are >= 0)
+    private static final int BELOW = -1;
+    private static final int ABOVE = -2;
+
+    private static final int GRADE_OUT = 0;
+    private static final int GRADE_NRR = 1;
+    private static final int GRADE_IN = 2;
+
+    private final ForkJoinPool pool;
+    private final int maxMemoStates;
+
+    public QualificationEngine(ForkJoinPool pool, int maxMemoStates) {
+        this.pool = pool;
+        this.maxMemoStates = maxMemoStates;
+    }
+
+    // ================= ENTRY =================
+    public Outcome evaluate(QualificationProblem problem) {
+
+        if (problem.target() < 0 || problem.target() >= problem.teams()) {
+            throw new RuntimeException("Target team is not part of the problem");
+        }
+        if (problem.topN() <= 0) {
+            throw new RuntimeException("topN must be at least 1");
+        }
+
+        Search search = new Search(problem);
+        Summary root = pool.invoke(search.new Node(0, problem.points().clone()));
+
+        int k = search.fixtures.length;
+        double total = Math.pow(2, k);
+
+        // Back to the caller's fixture order
+        int[] mustWin = new int[k];
+        int[] example = new int[k];
+
+        for (int i = 0; i < k; i++) {
+
+            int original = search.order[i];
+            int[] fixture = search.fixtures[i];
+
+            mustWin[original] = switch (root.possible[i]) {
+                case 1 -> fixture[0];
+                case 2 -> fixture[1];
+                default -> -1;
+            };
+            example[original] = root.grade == GRADE_OUT
+                    ? -1
+                    : fixture[root.example.get(i) ? 1 : 0];
+        }
+
+        return new Outcome(
+                root.qualify / total,
+                root.nrr / total,
+                root.out / total,
+                mustWin,
+                example,
+                search.states.sum(),
+                search.memoHits.sum()
+        );
+    }
+
+    // ================= SEARCH (ONE REQUEST) =================
+    private final class Search {
+
+        private final int[][] fixtures;
+        private final int[] order;            // search index → caller's fixture index
+        private final int[][] remaining;      // [depth][team] → fixtures left from depth on
+        private final int[] base;             // points before the remaining fixtures
+        private final int target;
+        private final int topN;
+        private final double[][] nrrLow;
+        private final double[][] nrrHigh;
+        private final int forkDepth;
+
+        private final Summary[] allIn;        // by fixtures left
+        private final Summary[] allOut;
+
+        private final Map<String, Summary> memo = new ConcurrentHashMap<>();
+        private final LongAdder states = new LongAdder();
+        private final LongAdder memoHits = new LongAdder();
+
+        Search(QualificationProblem problem) {
+
+            this.target = problem.target();
+            this.topN = problem.topN();
+            this.base = problem.points();
+            this.nrrLow = problem.nrrLow();
+            this.nrrHigh = problem.nrrHigh();
+
+            this.order = order(problem.fixtures(), problem.points(), target);
+            int[][] all = problem.fixtures();
+
+            this.fixtures = new int[all.length][];
+            for (int i = 0; i < order.length; i++) {
+                fixtures[i] = all[order[i]];
+            }
+
+            int k = fixtures.length;
+            int teams = problem.teams();
+
+            this.remaining = new int[k + 1][teams];
+            for (int d = k - 1; d >= 0; d--) {
+                remaining[d] = remaining[d + 1].clone();
+                remaining[d][fixtures[d][0]]++;
+                remaining[d][fixtures[d][1]]++;
+            }
+
+            // ~16 tasks per worker, then sequential
+            int levels = 32 - Integer.numberOfLeadingZeros(pool.getParallelism()) + 4;
+            this.forkDepth = Math.min(k, levels);
+
+            this.allIn = new Summary[k + 1];
+            this.allOut = new Summary[k + 1];
+            for (int left = 0; left <= k; left++) {
+                allIn[left] = Summary.uniform(k, left, GRADE_IN);
+                allOut[left] = Summary.uniform(k, left, GRADE_OUT);
+            }
+        }
+
+        // ---------- NODE ----------
+        private final class Node extends RecursiveTask<Summary> {
+
+            private final int depth;
+            private final int[] points;
+
+            Node(int depth, int[] points) {
+                this.depth = depth;
+                this.points = points;
+            }
+
+            @Override
+            protected Summary compute() {
+                return explore(depth, points);
+            }
+        }
+
+        private Summary explore(int depth, int[] points) {
+
+            collapse(depth, points);
+
+            // 1️⃣ BOUNDS
+            Summary bounded = bound(depth, points);
+            if (bounded != null) {
+                return bounded;
+            }
+
+            // 2️⃣ LEAF
+            if (depth == fixtures.length) {
+                return leaf(points);
+            }
+
+            // 3️⃣ MEMO
+            String key = key(depth, points);
+            Summary cached = memo.get(key);
+            if (cached != null) {
+                memoHits.increment();
+                return cached;
+            }
+            states.increment();
+
+            // 4️⃣ BRANCH (team1 wins / team2 wins)
+            int[] team1Wins = win(points, fixtures[depth][0]);
+            int[] team2Wins = win(points, fixtures[depth][1]);
+
+            Summary first;
+            Summary second;
+
+            if (depth < forkDepth) {
+                Node fork = new Node(depth + 1, team2Wins);
+                fork.fork();
+                first = explore(depth + 1, team1Wins);
+                second = fork.join();
+            } else {
+                first = explore(depth + 1, team1Wins);
+                second = explore(depth + 1, team2Wins);
+            }
+
+            Summary combined = Summary.combine(depth, first, second);
+
+            // Bounded memory: past the cap we keep searching, just stop storing
+            if (memo.size() < maxMemoStates) {
+                memo.putIfAbsent(key, combined);
+            }
+            return combined;
+        }
+
+        // ---------- EQUIVALENCE ----------
+        // A team always above (or below) the target on points no longer needs its exact total
+        private void collapse(int depth, int[] points) {
+
+            int targetMin = points[target];
+            int targetMax = points[target] + 2 * remaining[depth][target];
+
+            for (int team = 0; team < points.length; team++) {
+
+                if (team == target || points[team] < 0) {
+                    continue;
+                }
+                if (points[team] > targetMax) {
+                    points[team] = ABOVE;
+                } else if (points[team] + 2 * remaining[depth][team] < targetMin) {
+                    points[team] = BELOW;
+                }
+            }
+        }
+
+        // ---------- BOUNDS ----------
+        private Summary bound(int depth, int[] points) {
+
+            int above = 0;
+            int mayReach = 0;
+
+            for (int team = 0; team < points.length; team++) {
+
+                if (team == target || points[team] == BELOW) {
+                    continue;
+                }
+                if (points[team] == ABOVE) {
+                    above++;
+                }
+                mayReach++;
+            }
+
+            int left = fixtures.length - depth;
+
+            if (above >= topN) {
+                return allOut[left];
+            }
+            // Fewer than N teams can even draw level → through whatever happens
+            if (mayReach < topN) {
+                return allIn[left];
+            }
+            return null;
+        }
+
+        // ---------- LEAF ----------
+        private Summary leaf(int[] points) {
+
+            int own = points[target];
+            int ownWins = (own - base[target]) / 2;
+            double ownLow = nrrLow[target][ownWins];
+            double ownHigh = nrrHigh[target][ownWins];
+
+            int above = 0;
+            int surelyAhead = 0;     // level on points, better NRR in every case
+            int maybeAhead = 0;      // level on points, better NRR in some case
+
+            for (int team = 0; team < points.length; team++) {
+
+                if (team == target || points[team] == BELOW) {
+                    continue;
+                }
+                if (points[team] == ABOVE || points[team] > own) {
+                    above++;
+                    continue;
+                }
+                if (points[team] < own) {
+                    continue;
+                }
+
+                int wins = (points[team] - base[team]) / 2;
+                if (nrrLow[team][wins] > ownHigh) {
+                    surelyAhead++;
+                }
+                if (nrrHigh[team][wins] >= ownLow) {
+                    maybeAhead++;
+                }
+            }
+
+            int slots = topN - above;
+
+            if (slots <= 0 || surelyAhead >= slots) {
+                return allOut[0];
+            }
+            return maybeAhead < slots ? allIn[0] : Summary.nrrLeaf(fixtures.length);
+        }
+
+        // ---------- HELPERS ----------
+        private int[] win(int[] points, int team) {
+
+            int[] next = points.clone();
+            if (next[team] >= 0) {
+                next[team] += 2;
+            }
+            return next;
+        }
+
+        private String key(int depth, int[] points) {
+
+            char[] chars = new char[points.length + 1];
+            chars[0] = (char) depth;
+            for (int i = 0; i < points.length; i++) {
+                chars[i + 1] = (char) (points[i] + 2);
+            }
+            return new String(chars);
+        }
+    }
+
+    // Target's own games first (they fix its final points, after which most
+    // teams collapse), then games between teams close to each other on points
+    private static int[] order(int[][] fixtures, int[] points, int target) {
+
+        return IntStream.range(0, fixtures.length).boxed()
+                .sorted(Comparator
+                        .comparing((Integer i) -> !involves(fixtures[i], target))
+                        .thenComparingInt(i -> distance(fixtures[i], points)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static boolean involves(int[] fixture, int team) {
+        return fixture[0] == team || fixture[1] == team;
+    }
+
+    private static int distance(int[] fixture, int[] points) {
+        return Math.abs(points[fixture[0]] - points[fixture[1]]);
+    }
+
+    // ================= SUBTREE SUMMARY =================
+    // Counts are scenario counts (2^k can exceed a long, hence double).
+    // possible[i]: bit 1 → team1 winning fixture i still leaves the team alive, bit 2 → team2.
+    private static final class Summary {
+
+        final double qualify;
+        final double nrr;
+        final double out;
+        final byte[] possible;
+        final BitSet example;    // set bit → team2 wins that fixture
+        final int grade;         // best outcome reachable in the subtree
+
+        Summary(double qualify, double nrr, double out, byte[] possible, BitSet example, int grade) {
+            this.qualify = qualify;
+            this.nrr = nrr;
+            this.out = out;
+            this.possible = possible;
+            this.example = example;
+            this.grade = grade;
+        }
+
+        static Summary uniform(int fixtures, int left, int grade) {
+
+            byte[] possible = new byte[fixtures];
+            if (grade != GRADE_OUT) {
+                Arrays.fill(possible, (byte) 3);
+            }
+
+            double count = Math.pow(2, left);
+            return new Summary(
+                    grade == GRADE_IN ? count : 0,
+                    0,
+                    grade == GRADE_OUT ? count : 0,
+                    possible,
+                    new BitSet(),
+                    grade
+            );
+        }
+
+        static Summary nrrLeaf(int fixtures) {
+            return new Summary(0, 1, 0, new byte[fixtures], new BitSet(), GRADE_NRR);
+        }
+
+        // Only positions after `depth` are read from the children
+        static Summary combine(int depth, Summary team1Wins, Summary team2Wins) {
+
+            byte[] possible = new byte[team1Wins.possible.length];
+            for (int i = depth + 1; i < possible.length; i++) {
+                possible[i] = (byte) (team1Wins.possible[i] | team2Wins.possible[i]);
+            }
+            possible[depth] = (byte) ((team1Wins.grade != GRADE_OUT ? 1 : 0)
+                    | (team2Wins.grade != GRADE_OUT ? 2 : 0));
+
+            // Prefer the branch that qualifies outright
+            BitSet example;
+            int grade;
+            if (team2Wins.grade > team1Wins.grade) {
+                example = (BitSet) team2Wins.example.clone();
+                example.set(depth);
+                grade = team2Wins.grade;
+            } else {
+                example = team1Wins.example;
+                grade = team1Wins.grade;
+            }
+
+            return new Summary(
+                    team1Wins.qualify + team2Wins.qualify,
+                    team1Wins.nrr + team2Wins.nrr,
+                    team1Wins.out + team2Wins.out,
+                    possible,
+                    example,
+                    grade
+            );
+        }
+    }
+
+    // ================= RESULT =================
+    // Shares are over all 2^k win/loss combinations, each counted once.
+    // mustWin / example hold the winning team index per fixture (-1 → either / none).
+    public record Outcome(
+            double qualifyShare,
+            double nrrShare,
+            double eliminatedShare,
+            int[] mustWin,
+            int[] example,
+            long statesExplored,
+            long memoHits
+    ) {}
+}
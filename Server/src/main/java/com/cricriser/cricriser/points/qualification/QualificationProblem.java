@@ -0,0 +1,60 @@
+package com.cricriser.cricriser.points.qualification;
+
+/**
+ * Input of one qualification search, with teams as indexes.
+ *
+ * nrrLow / nrrHigh are indexed [team][wins in the remaining fixtures] and
+ * hold the worst / best net run rate the team can end on with that many
+ * wins, given the margin bounds used to build them.
+ */
+public record QualificationProblem(
+        int[] points,        // current points per team
+        int[][] fixtures,    // remaining matches → {team1, team2}
+        double[][] nrrLow,
+        double[][] nrrHigh,
+        int target,
+        int topN
+) {
+
+    public int teams() {
+        return points.length;
+    }
+
+    // ================= NRR BOUNDS =================
+    // Each remaining match: both innings full length at `parRuns`, decided by
+    // 1..marginRuns runs. Best case wins big and loses narrowly, worst the reverse.
+    public static double[] nrrBounds(
+            int runsFor, int ballsFaced, int runsAgainst, int ballsBowled,
+            int remaining, double parRuns, int ballsPerInnings, int marginRuns,
+            boolean best
+    ) {
+
+        double[] byWins = new double[remaining + 1];
+        int balls = remaining * ballsPerInnings;
+
+        for (int wins = 0; wins <= remaining; wins++) {
+
+            int losses = remaining - wins;
+            double margin = best
+                    ? wins * marginRuns - losses
+                    : wins - losses * (double) marginRuns;
+
+            byWins[wins] = netRunRate(
+                    runsFor + remaining * parRuns + margin,
+                    ballsFaced + balls,
+                    runsAgainst + remaining * parRuns,
+                    ballsBowled + balls
+            );
+        }
+
+        return byWins;
+    }
+
+    private static double netRunRate(double runsFor, int ballsFaced, double runsAgainst, int ballsBowled) {
+
+        if (ballsFaced == 0 || ballsBowled == 0) {
+            return 0;
+        }
+        return runsFor * 6 / ballsFaced - runsAgainst * 6 / ballsBowled;
+    }
+}
@@ -0,0 +1,34 @@
+package com.cricriser.cricriser.points.qualification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class QualificationResult {
+
+    private String leagueId;
+    private String teamId;
+    private int topN;
+    private int remainingMatches;
+
+    private String status;           // "QUALIFIED", "ELIMINATED", "ALIVE", "NEEDS_NRR"
+
+    // Share of all win/loss combinations of the remaining fixtures
+    private double qualifyShare;     // through on points (or NRR in every margin case)
+    private double nrrShare;         // level on points, depends on margins
+    private double eliminatedShare;
+
+    // Results every surviving scenario has in common
+    private List<FixtureResult> mustHappen = new ArrayList<>();
+
+    // One full set of results that gets the team through (best case)
+    private List<FixtureResult> exampleScenario = new ArrayList<>();
+
+    private long statesExplored;
+    private long memoHits;
+    private long elapsedMs;
+
+    public record FixtureResult(String matchId, int matchNo, String team1Id, String team2Id, String winnerId) {}
+}
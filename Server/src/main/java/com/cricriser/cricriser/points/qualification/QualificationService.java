@@ -0,0 +1,200 @@
+package com.cricriser.cricriser.points.qualification;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.cricriser.cricriser.league.League;
+import com.cricriser.cricriser.league.LeagueRepository;
+import com.cricriser.cricriser.match.matchscheduling.MatchSchedule;
+import com.cricriser.cricriser.match.matchscheduling.MatchScheduleService;
+import com.cricriser.cricriser.points.PointsTable;
+import com.cricriser.cricriser.points.PointsTableService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * "Can team X still make the top N, and what has to happen?" Builds a
+ * {@link QualificationProblem} from the current points table and the league
+ * fixtures not yet completed, and runs it through the search engine.
+ */
+@Service
+public class QualificationService {
+
+    @Autowired
+    private PointsTableService pointsTableService;
+
+    @Autowired
+    private MatchScheduleService matchScheduleService;
+
+    @Autowired
+    private LeagueRepository leagueRepository;
+
+    private final ForkJoinPool pool;
+    private final QualificationEngine engine;
+    private final int marginRuns;
+    private final int maxFixtures;
+
+    // ================= CONFIG =================
+    private static final int DEFAULT_OVERS = 20;
+    private static final double DEFAULT_RUNS_PER_BALL = 1.25;
+
+    public QualificationService(
+            @Value("${app.qualification.parallelism:0}") int parallelism,
+            @Value("${app.qualification.max-memo-states:500000}") int maxMemoStates,
+            @Value("${app.qualification.nrr-margin-runs:50}") int marginRuns,
+            @Value("${app.qualification.max-fixtures:32}") int maxFixtures
+    ) {
+        this.pool = new ForkJoinPool(parallelism > 0
+                ? parallelism
+                : Runtime.getRuntime().availableProcessors());
+        this.engine = new QualificationEngine(pool, maxMemoStates);
+        this.marginRuns = marginRuns;
+        this.maxFixtures = maxFixtures;
+    }
+
+    // ================= EVALUATE =================
+    public QualificationResult evaluate(String leagueId, String teamId, int topN) {
+
+        long start = System.currentTimeMillis();
+
+        League league = leagueRepository.findById(leagueId)
+                .orElseThrow(() -> new RuntimeException("League not found"));
+
+        // 1️⃣ REMAINING LEAGUE-STAGE FIXTURES
+        List<MatchSchedule> remaining = matchScheduleService.getRemainingLeagueFixtures(leagueId);
+
+        if (remaining.size() > maxFixtures) {
+            throw new RuntimeException("Too many remaining fixtures to search ("
+                    + remaining.size() + " > " + maxFixtures + ")");
+        }
+
+        // 2️⃣ TEAMS → INDEXES
+        Map<String, PointsTable> rows = new LinkedHashMap<>();
+        pointsTableService.getPointsTable(leagueId).forEach(row -> rows.put(row.getTeamName(), row));
+
+        Map<String, Integer> index = new LinkedHashMap<>();
+        rows.keySet().forEach(team -> index.putIfAbsent(team, index.size()));
+        MatchScheduleService.teamIds(league).forEach(team -> index.putIfAbsent(team, index.size()));
+        remaining.forEach(m -> {
+            index.putIfAbsent(m.getTeam1Id(), index.size());
+            index.putIfAbsent(m.getTeam2Id(), index.size());
+        });
+
+        Integer target = index.get(teamId);
+        if (target == null) {
+            throw new RuntimeException("Team is not part of this league");
+        }
+
+        // 3️⃣ PROBLEM
+        int[][] fixtures = remaining.stream()
+                .map(m -> new int[] { index.get(m.getTeam1Id()), index.get(m.getTeam2Id()) })
+                .toArray(int[][]::new);
+
+        QualificationProblem problem = problem(league, rows, index, fixtures, target, topN);
+
+        // 4️⃣ SEARCH
+        QualificationEngine.Outcome outcome = engine.evaluate(problem);
+
+        return result(leagueId, teamId, topN, remaining, index, outcome, start);
+    }
+
+    // ---------- HELPERS ----------
+    private QualificationProblem problem(League league, Map<String, PointsTable> rows,
+            Map<String, Integer> index, int[][] fixtures, int target, int topN) {
+
+        int teams = index.size();
+        int[] points = new int[teams];
+        int[] left = new int[teams];
+
+        for (int[] fixture : fixtures) {
+            left[fixture[0]]++;
+            left[fixture[1]]++;
+        }
+
+        // Par innings from the league so far
+        int ballsPerInnings = (league.getOversPerInnings() == null ? DEFAULT_OVERS : league.getOversPerInnings()) * 6;
+        int runs = rows.values().stream().mapToInt(PointsTable::getRunsFor).sum();
+        int balls = rows.values().stream().mapToInt(PointsTable::getBallsFaced).sum();
+        double parRuns = (balls == 0 ? DEFAULT_RUNS_PER_BALL : (double) runs / balls) * ballsPerInnings;
+
+        double[][] nrrLow = new double[teams][];
+        double[][] nrrHigh = new double[teams][];
+
+        for (Map.Entry<String, Integer> entry : index.entrySet()) {
+
+            int team = entry.getValue();
+            PointsTable row = rows.getOrDefault(entry.getKey(), new PointsTable());
+
+            points[team] = row.getPoints();
+            nrrLow[team] = QualificationProblem.nrrBounds(
+                    row.getRunsFor(), row.getBallsFaced(), row.getRunsAgainst(), row.getBallsBowled(),
+                    left[team], parRuns, ballsPerInnings, marginRuns, false);
+            nrrHigh[team] = QualificationProblem.nrrBounds(
+                    row.getRunsFor(), row.getBallsFaced(), row.getRunsAgainst(), row.getBallsBowled(),
+                    left[team], parRuns, ballsPerInnings, marginRuns, true);
+        }
+
+        return new QualificationProblem(points, fixtures, nrrLow, nrrHigh, target, topN);
+    }
+
+    private QualificationResult result(String leagueId, String teamId, int topN,
+            List<MatchSchedule> remaining, Map<String, Integer> index,
+            QualificationEngine.Outcome outcome, long start) {
+
+        List<String> teams = new ArrayList<>(index.keySet());
+
+        QualificationResult result = new QualificationResult();
+        result.setLeagueId(leagueId);
+        result.setTeamId(teamId);
+        result.setTopN(topN);
+        result.setRemainingMatches(remaining.size());
+        result.setQualifyShare(outcome.qualifyShare());
+        result.setNrrShare(outcome.nrrShare());
+        result.setEliminatedShare(outcome.eliminatedShare());
+        result.setStatesExplored(outcome.statesExplored());
+        result.setMemoHits(outcome.memoHits());
+
+        if (outcome.qualifyShare() == 1) {
+            result.setStatus("QUALIFIED");
+        } else if (outcome.eliminatedShare() == 1) {
+            result.setStatus("ELIMINATED");
+        } else if (outcome.qualifyShare() == 0) {
+            result.setStatus("NEEDS_NRR");
+        } else {
+            result.setStatus("ALIVE");
+        }
+
+        for (int i = 0; i < remaining.size(); i++) {
+
+            MatchSchedule m = remaining.get(i);
+
+            if (outcome.mustWin()[i] >= 0 && outcome.eliminatedShare() < 1) {
+                result.getMustHappen().add(fixture(m, teams.get(outcome.mustWin()[i])));
+            }
+            if (outcome.example()[i] >= 0) {
+                result.getExampleScenario().add(fixture(m, teams.get(outcome.example()[i])));
+            }
+        }
+
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private QualificationResult.FixtureResult fixture(MatchSchedule m, String winnerId) {
+        return new QualificationResult.FixtureResult(
+                m.getId(), m.getMatchNo(), m.getTeam1Id(), m.getTeam2Id(), winnerId
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -103,6 +103,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 || path.startsWith("/api/player/login")
                 || path.startsWith("/api/player/forgot-password")
                 || path.startsWith("/api/player/verify-otp")
-                || path.startsWith("/api/player/verify-forgot-otp");
+                || path.startsWith("/api/player/verify-forgot-otp")
+                // Scorer socket: token checked once in the handshake
+                || path.startsWith("/ws/scorer");
     }
 }
@@ -0,0 +1,84 @@
+package com.cricriser.cricriser.security;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Authenticates a WebSocket once, at the upgrade request. Browsers cannot
+ * set headers on a WebSocket, so the token may also come as ?token=.
+ * The email, token and token expiry stay on the session for the life of
+ * the connection; the handler checks the expiry on every message.
+ */
+@Component
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String EMAIL = "email";
+    public static final String TOKEN = "token";
+    public static final String EXPIRES_AT = "expiresAt";   // epoch millis
+
+    private final JwtUtil jwtUtil;
+    private final JwtBlacklistService jwtBlacklistService;
+
+    public JwtHandshakeInterceptor(JwtUtil jwtUtil, JwtBlacklistService jwtBlacklistService) {
+        this.jwtUtil = jwtUtil;
+        this.jwtBlacklistService = jwtBlacklistService;
+    }
+
+    @Override
+    public boolean beforeHandshake(
+            ServerHttpRequest request,
+            ServerHttpResponse response,
+            WebSocketHandler wsHandler,
+            Map<String, Object> attributes) {
+
+        String token = tokenOf(request);
+
+        if (token == null || jwtBlacklistService.isBlacklisted(token)) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        try {
+            // 🔑 Parse JWT ONCE PER CONNECTION
+            attributes.put(EMAIL, jwtUtil.extractEmail(token));
+            attributes.put(TOKEN, token);
+            attributes.put(EXPIRES_AT, jwtUtil.extractExpiration(token).getTime());
+            return true;
+
+        } catch (RuntimeException e) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+    }
+
+    @Override
+    public void afterHandshake(
+            ServerHttpRequest request,
+            ServerHttpResponse response,
+            WebSocketHandler wsHandler,
+            Exception exception) {
+    }
+
+    // ---------- HELPERS ----------
+    private String tokenOf(ServerHttpRequest request) {
+
+        String authHeader = request.getHeaders().getFirst("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+
+        String token = UriComponentsBuilder.fromUri(request.getURI())
+                .build()
+                .getQueryParams()
+                .getFirst(TOKEN);
+
+        return token == null || token.isBlank() ? null : token;
+    }
+}
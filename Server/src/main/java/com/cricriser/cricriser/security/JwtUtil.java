@@ -57,6 +57,21 @@ public class JwtUtil {
         }
     }
 
+    public Date extractExpiration(String token) {
+        try {
+            return Jwts.parserBuilder()
+                    .setSigningKey(getKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody()
+                    .getExpiration();
+        } catch (ExpiredJwtException e) {
+            throw new RuntimeException("Session expired");
+        } catch (JwtException e) {
+            throw new RuntimeException("Invalid token");
+        }
+    }
+
     public boolean validateToken(String token) {
         try {
             Jwts.parserBuilder()
@@ -3,6 +3,7 @@ package com.cricriser.cricriser.team;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -13,6 +14,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "team")
+@CompoundIndex(name = "league_name", def = "{'leagueId': 1, 'name': 1}")
 public class Team {
     @Id
     private String id;
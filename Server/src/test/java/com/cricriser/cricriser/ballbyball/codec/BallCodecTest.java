@@ -0,0 +1,292 @@
+package com.cricriser.cricriser.ballbyball.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+
+/**
+ * decode(encode(balls)) must give back equal balls for everything the
+ * archive and the binary feed store, and must fail loudly (never with a
+ * wrong answer) on damaged input.
+ */
+class BallCodecTest {
+
+    // ================= ROUND TRIP =================
+    @Test
+    void twoInningsRoundTrip() {
+
+        List<BallByBall> balls = new ArrayList<>(innings(1, 1, 0));
+        // Second innings restarts every running total → negative deltas
+        balls.addAll(innings(2, 200, 1));
+
+        assertRoundTrip(balls);
+    }
+
+    @Test
+    void emptyBlockRoundTrips() {
+        assertEquals(List.of(), BallCodec.decode(BallCodec.encode(List.of())));
+    }
+
+    @Test
+    void nullIdsAndStringsRoundTrip() {
+
+        BallByBall ball = new BallByBall();
+        ball.setValidDelivery(false);
+        assertNull(ball.getId());
+        assertNull(ball.getCommentary());
+
+        BallByBall empty = ball(1, 1, 1, 0);
+        empty.setCommentary("");
+        empty.setInvalidReason("");
+
+        assertRoundTrip(List.of(ball, empty));
+    }
+
+    @Test
+    void nonCanonicalIdsKeepTheirExactText() {
+
+        String objectId = new ObjectId().toHexString();
+        String uuid = UUID.randomUUID().toString();
+
+        List<String> ids = List.of(
+                objectId,
+                objectId.toUpperCase(),
+                objectId.substring(0, 12) + objectId.substring(12).toUpperCase(),
+                uuid,
+                uuid.toUpperCase(),
+                "1-2-3-4-5",                           // parses as a UUID, prints differently
+                "{" + uuid + "}",
+                "match-7/ball-3",
+                "ünïcødé-id"
+        );
+
+        List<BallByBall> balls = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            BallByBall b = ball(1, i + 1, i, 0);
+            b.setId(ids.get(i));
+            b.setClientBallId(ids.get(ids.size() - 1 - i));
+            b.setBatterId(ids.get(i));
+            balls.add(b);
+        }
+
+        List<BallByBall> decoded = assertRoundTrip(balls);
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(ids.get(i), decoded.get(i).getId());
+        }
+    }
+
+    @Test
+    void unknownEnumValuesGoThroughTheDictionary() {
+
+        BallByBall b = ball(1, 1, 1, 0);
+        b.setExtraType("PENALTY_RUNS");
+        b.setWicketType("caught");              // case differs from the code table
+        b.setPhase("SUPER_OVER");
+        b.setRunOutEnd("BOTH");
+
+        BallByBall known = ball(1, 2, 2, 0);
+        known.setExtraType("LEG_BYE");
+        known.setWicketType("TIMED_OUT");
+        known.setPhase("DEATH");
+        known.setRunOutEnd("NON_STRIKER");
+
+        assertRoundTrip(List.of(b, known, b));
+    }
+
+    @Test
+    void storedOversAndRunRateRoundTrip() {
+
+        BallByBall derived = ball(1, 1, 1, 0);
+
+        BallByBall overs = ball(1, 2, 2, 0);
+        overs.setOversAtBall(3.7);               // not what legalBallsAtBall gives
+
+        BallByBall rate = ball(1, 3, 3, 0);
+        rate.setRunRateAtBall(7.123456789);
+
+        BallByBall odd = ball(1, 4, 4, 0);
+        odd.setOversAtBall(-0.0);
+        odd.setRunRateAtBall(Double.NaN);
+
+        List<BallByBall> decoded = assertRoundTrip(List.of(derived, overs, rate, odd));
+        assertEquals(3.7, decoded.get(1).getOversAtBall());
+        assertEquals(7.123456789, decoded.get(2).getRunRateAtBall());
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(decoded.get(3).getOversAtBall()));
+        assertTrue(Double.isNaN(decoded.get(3).getRunRateAtBall()));
+    }
+
+    @Test
+    void negativeAndLargeNumbersRoundTrip() {
+
+        BallByBall b = ball(1, 1, 1, 0);
+        b.setRuns(-5);
+        b.setExtraRuns(Integer.MAX_VALUE);
+        b.setBallSequence(Long.MAX_VALUE / 2);
+        b.setTimestamp(Long.MAX_VALUE / 4);
+
+        BallByBall back = ball(1, 2, 2, 0);
+        back.setBallSequence(1);                  // sequence and clock going backwards
+        back.setTimestamp(1);
+        back.setOver(-1);
+
+        assertRoundTrip(List.of(b, back));
+    }
+
+    // ================= DAMAGED INPUT =================
+    @Test
+    void everyTruncationIsRejected() {
+
+        byte[] data = BallCodec.encode(innings(1, 1, 0).subList(0, 20));
+
+        for (int length = 0; length < data.length; length++) {
+            byte[] cut = Arrays.copyOf(data, length);
+            assertThrows(RuntimeException.class, () -> BallCodec.decode(cut), "prefix of " + length + " bytes");
+        }
+    }
+
+    @Test
+    void badHeaderAndTrailingBytesAreRejected() {
+
+        byte[] data = BallCodec.encode(innings(1, 1, 0).subList(0, 5));
+
+        byte[] magic = data.clone();
+        magic[0] = 'X';
+        assertThrows(RuntimeException.class, () -> BallCodec.decode(magic));
+
+        byte[] version = data.clone();
+        version[3] = 9;
+        assertThrows(RuntimeException.class, () -> BallCodec.decode(version));
+
+        byte[] trailing = Arrays.copyOf(data, data.length + 1);
+        assertThrows(RuntimeException.class, () -> BallCodec.decode(trailing));
+    }
+
+    @Test
+    void corruptBytesNeverDecodeSilentlyWrong() {
+
+        List<BallByBall> balls = innings(1, 1, 0).subList(0, 12);
+        byte[] data = BallCodec.encode(balls);
+        Random random = new Random(11);
+
+        // Each flip must either be rejected or (for a byte that only carries a value)
+        // decode to something different; it must never break out of RuntimeException
+        for (int i = 4; i < data.length; i++) {
+            byte[] damaged = data.clone();
+            damaged[i] ^= (byte) (1 + random.nextInt(255));
+
+            List<BallByBall> decoded;
+            try {
+                decoded = BallCodec.decode(damaged);
+            } catch (RuntimeException ex) {
+                continue;
+            }
+            assertTrue(!decoded.equals(balls), "byte " + i + " changed but decoded equal");
+        }
+    }
+
+    // ---------- HELPERS ----------
+    private static List<BallByBall> assertRoundTrip(List<BallByBall> balls) {
+
+        List<BallByBall> decoded = BallCodec.decode(BallCodec.encode(balls));
+        assertEquals(balls.size(), decoded.size());
+        for (int i = 0; i < balls.size(); i++) {
+            assertEquals(balls.get(i), decoded.get(i), "ball " + i);
+        }
+        return decoded;
+    }
+
+    // One T20 innings as the live pipeline stores it, with running totals
+    private static List<BallByBall> innings(int innings, long firstSequence, int seed) {
+
+        Random random = new Random(seed);
+        List<BallByBall> balls = new ArrayList<>();
+        int runs = 0;
+        int wickets = 0;
+        int legal = 0;
+        int extras = 0;
+        long sequence = firstSequence;
+
+        for (int over = 0; over < 20 && wickets < 10; over++) {
+            int legalInOver = 0;
+            while (legalInOver < 6 && wickets < 10) {
+
+                BallByBall b = ball(innings, sequence++, legalInOver + 1, over);
+                int roll = random.nextInt(20);
+
+                if (roll == 0) {
+                    b.setExtraType("WIDE");
+                    b.setExtraRuns(1);
+                    b.setLegalBall(false);
+                    extras++;
+                    runs++;
+                } else if (roll == 1) {
+                    b.setWicket(true);
+                    b.setWicketType("CAUGHT");
+                    b.setOutBatterId(b.getBatterId());
+                    b.setFielderId("fielder-" + random.nextInt(11));
+                    b.setNewBatterId("batter-" + (wickets + 2));
+                    wickets++;
+                } else {
+                    int scored = new int[] { 0, 0, 1, 1, 2, 4, 6 }[random.nextInt(7)];
+                    b.setRuns(scored);
+                    b.setRunningRuns(scored < 4 ? scored : 0);
+                    b.setBoundary(scored >= 4);
+                    b.setBoundaryRuns(scored >= 4 ? scored : 0);
+                    runs += scored;
+                }
+
+                if (b.isLegalBall()) {
+                    legal++;
+                    legalInOver++;
+                }
+                b.setOverCompleted(legalInOver == 6);
+                b.setFreeHit(random.nextInt(50) == 0);
+                b.setCommentary(random.nextBoolean() ? null : "Over " + over + ", ball " + legalInOver + " — shot!");
+
+                b.setTotalRunsAtBall(runs);
+                b.setTotalWicketsAtBall(wickets);
+                b.setLegalBallsAtBall(legal);
+                b.setExtrasAtBall(extras);
+                b.setOversAtBall(legal / 6 + (legal % 6) / 10.0);
+                b.setRunRateAtBall(legal > 0 ? (runs * 6.0) / legal : 0);
+                balls.add(b);
+            }
+        }
+        return balls;
+    }
+
+    private static BallByBall ball(int innings, long sequence, int ballInOver, int over) {
+
+        BallByBall b = new BallByBall();
+        b.setId(new ObjectId().toHexString());
+        b.setClientBallId(UUID.randomUUID().toString());
+        b.setLeagueId("league-1");
+        b.setMatchId("match-1");
+        b.setBattingTeamId(innings % 2 == 1 ? "Lions" : "Tigers");
+        b.setBowlingTeamId(innings % 2 == 1 ? "Tigers" : "Lions");
+        b.setInnings(innings);
+        b.setOver(over);
+        b.setBall(ballInOver);
+        b.setBallSequence(sequence);
+        b.setBatterId("batter-" + (sequence % 3));
+        b.setNonStrikerId("batter-" + ((sequence + 1) % 3));
+        b.setBowlerId("bowler-" + (over % 5));
+        b.setNewBowlerId(ballInOver == 1 ? "bowler-" + (over % 5) : null);
+        b.setLegalBall(true);
+        b.setPhase(over < 6 ? "POWERPLAY" : over < 16 ? "MIDDLE" : "DEATH");
+        b.setTimestamp(1_700_000_000_000L + sequence * 30_000);
+        return b;
+    }
+}
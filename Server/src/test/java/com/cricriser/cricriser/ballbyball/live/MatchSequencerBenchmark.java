@@ -0,0 +1,95 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ball entry through {@link MatchSequencer} as the number of concurrent
+ * matches grows. One invocation scores the same number of balls per match
+ * (two scorers each), every ball parking for a simulated Mongo round trip
+ * while it holds the match lock. With per-match locks the time per
+ * invocation stays roughly flat as `matches` grows; a global lock would
+ * make it grow linearly.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="MatchSequencerBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MatchSequencerBenchmark {
+
+    private static final int SCORERS_PER_MATCH = 2;
+    private static final int BALLS_PER_SCORER = 60;
+    private static final long DB_ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Param({ "1", "2", "4", "8", "16" })
+    public int matches;
+
+    private MatchSequencer sequencer;
+    private ExecutorService pool;
+    private long[][] lastSequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sequencer = new MatchSequencer();
+        pool = Executors.newFixedThreadPool(matches * SCORERS_PER_MATCH);
+        lastSequence = new long[matches][1];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public long scoreRound() throws Exception {
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> scorers = new ArrayList<>();
+
+        for (int m = 0; m < matches; m++) {
+            String matchId = "match-" + m;
+            long[] last = lastSequence[m];
+            for (int s = 0; s < SCORERS_PER_MATCH; s++) {
+                scorers.add(pool.submit(() -> {
+                    start.await();
+                    for (int b = 0; b < BALLS_PER_SCORER; b++) {
+                        sequencer.run(matchId, () -> {
+                            long next = last[0] + 1;
+                            LockSupport.parkNanos(DB_ROUND_TRIP_NANOS);
+                            last[0] = next;
+                        });
+                    }
+                    return null;
+                }));
+            }
+        }
+
+        start.countDown();
+        for (Future<?> scorer : scorers) {
+            scorer.get();
+        }
+        return lastSequence[0][0];
+    }
+}
@@ -0,0 +1,89 @@
+package com.cricriser.cricriser.ballbyball.live;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Concurrent scorers on several matches, each "ball" doing the same
+ * unguarded read-increment-write of the innings sequence as
+ * assignBallNumber with a pause in the middle. Throughput across matches is
+ * measured by {@link MatchSequencerBenchmark}.
+ */
+class MatchSequencerTest {
+
+    private static final int MATCHES = 4;
+    private static final int SCORERS_PER_MATCH = 3;
+    private static final int BALLS_PER_SCORER = 50;
+    private static final long DB_ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Test
+    void sameMatchWritesAreSerialized() throws Exception {
+
+        MatchSequencer sequencer = new MatchSequencer();
+        Map<String, long[]> lastSequence = new ConcurrentHashMap<>();
+        Map<String, List<Long>> assigned = new ConcurrentHashMap<>();
+
+        List<String> matchIds = new ArrayList<>();
+        for (int m = 0; m < MATCHES; m++) {
+            String matchId = "match-" + m;
+            matchIds.add(matchId);
+            lastSequence.put(matchId, new long[1]);
+            assigned.put(matchId, new ArrayList<>());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(MATCHES * SCORERS_PER_MATCH);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> scorers = new ArrayList<>();
+
+        for (String matchId : matchIds) {
+            for (int s = 0; s < SCORERS_PER_MATCH; s++) {
+                scorers.add(pool.submit(() -> {
+                    start.await();
+                    for (int b = 0; b < BALLS_PER_SCORER; b++) {
+                        sequencer.run(matchId, () -> {
+                            long[] last = lastSequence.get(matchId);
+                            long next = last[0] + 1;
+                            LockSupport.parkNanos(DB_ROUND_TRIP_NANOS);
+                            last[0] = next;
+                            assigned.get(matchId).add(next);
+                        });
+                    }
+                    return null;
+                }));
+            }
+        }
+
+        start.countDown();
+        for (Future<?> scorer : scorers) {
+            scorer.get();
+        }
+        pool.shutdown();
+
+        int expected = SCORERS_PER_MATCH * BALLS_PER_SCORER;
+        for (String matchId : matchIds) {
+            List<Long> sequences = assigned.get(matchId);
+            assertEquals(expected, lastSequence.get(matchId)[0], "lost update in " + matchId);
+            assertEquals(expected, sequences.stream().distinct().count(), "duplicate ballSequence in " + matchId);
+        }
+    }
+
+    @Test
+    void lockIsReentrantForTheSameMatch() {
+
+        MatchSequencer sequencer = new MatchSequencer();
+        int result = sequencer.execute("match-1", () -> sequencer.execute("match-1", () -> 42));
+        assertEquals(42, result);
+    }
+}
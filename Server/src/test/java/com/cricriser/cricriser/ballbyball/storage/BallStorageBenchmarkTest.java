@@ -0,0 +1,270 @@
+package com.cricriser.cricriser.ballbyball.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Standard against time-series ball_by_ball on the same synthetic season:
+ * insert throughput (one ball per call as the live pipeline does, and one
+ * innings per call as batch sync / migration do), storage and index size,
+ * and latency of the per-innings scan behind scorecards and replays. Needs a
+ * real server (MongoDB 7.0+):
+ *
+ * CRICRISER_TEST_MONGO_URI=mongodb://localhost:27017 mvn test -Dtest=BallStorageBenchmarkTest
+ */
+@EnabledIfEnvironmentVariable(named = "CRICRISER_TEST_MONGO_URI", matches = ".+")
+class BallStorageBenchmarkTest {
+
+    private static final String DATABASE = "cricriser_ball_storage_bench";
+
+    private static final int MATCHES = 40;
+    private static final int LIVE_MATCHES = 2;          // inserted ball by ball
+    private static final int DELIVERIES = 126;          // per innings (120 legal + extras)
+    private static final int SCAN_PASSES = 5;
+
+    private static MongoClient client;
+    private static MongoTemplate template;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(System.getenv("CRICRISER_TEST_MONGO_URI"));
+        template = new MongoTemplate(client, DATABASE);
+        template.getDb().drop();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        template.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void timeSeriesAgainstStandard() {
+
+        List<List<BallByBall>> season = season();
+
+        Result standard = run("balls_standard", false, season);
+        Result timeSeries = run("balls_timeseries", true, season);
+
+        System.out.printf("%-12s %14s %14s %12s %12s %12s %12s%n",
+                "layout", "live balls/s", "bulk balls/s", "storage KB", "index KB", "scan p50 ms", "scan p95 ms");
+        for (Result r : List.of(standard, timeSeries)) {
+            System.out.printf("%-12s %14.0f %14.0f %12d %12d %12.2f %12.2f%n",
+                    r.layout(), r.liveRate(), r.bulkRate(), r.storageBytes() / 1024, r.indexBytes() / 1024,
+                    r.scanP50Ms(), r.scanP95Ms());
+        }
+
+        // Same deliveries come back from both layouts
+        assertEquals(standard.scanned(), timeSeries.scanned());
+    }
+
+    // ---------- ONE LAYOUT ----------
+    private Result run(String collection, boolean timeSeries, List<List<BallByBall>> season) {
+
+        if (timeSeries) {
+            template.createCollection(collection, BallStorage.timeSeriesOptions());
+        } else {
+            template.createCollection(collection);
+        }
+        createIndexes(collection, timeSeries);
+
+        // 1️⃣ LIVE: one insert per ball
+        long liveBalls = 0;
+        long began = System.nanoTime();
+        for (List<BallByBall> innings : season.subList(0, LIVE_MATCHES * 2)) {
+            for (BallByBall ball : innings) {
+                template.insert(ball, collection);
+                liveBalls++;
+            }
+        }
+        double liveRate = liveBalls / seconds(began);
+
+        // 2️⃣ BULK: one insertMany per innings
+        long bulkBalls = 0;
+        began = System.nanoTime();
+        for (List<BallByBall> innings : season.subList(LIVE_MATCHES * 2, season.size())) {
+            template.insert(innings, collection);
+            bulkBalls += innings.size();
+        }
+        double bulkRate = bulkBalls / seconds(began);
+
+        // 3️⃣ STORAGE
+        Document stats = template.getDb().runCommand(new Document("collStats", collection));
+        long storage = ((Number) stats.get("storageSize")).longValue();
+        long indexes = ((Number) stats.get("totalIndexSize")).longValue();
+
+        // 4️⃣ PER-INNINGS SCAN (first pass warms the cache)
+        double[] millis = new double[season.size() * SCAN_PASSES];
+        long scanned = 0;
+        int sample = 0;
+
+        for (int pass = 0; pass <= SCAN_PASSES; pass++) {
+            for (List<BallByBall> innings : season) {
+
+                BallByBall first = innings.get(0);
+                Query query = Query.query(Criteria.where("matchId").is(first.getMatchId())
+                        .and("innings").is(first.getInnings()))
+                        .with(Sort.by("ballSequence"));
+
+                long start = System.nanoTime();
+                List<BallByBall> balls = template.find(query, BallByBall.class, collection);
+                double elapsed = (System.nanoTime() - start) / 1_000_000.0;
+
+                if (pass > 0) {
+                    millis[sample++] = elapsed;
+                    scanned += balls.size();
+                }
+            }
+        }
+
+        Arrays.sort(millis);
+        return new Result(
+                timeSeries ? "timeseries" : "standard",
+                liveRate, bulkRate, storage, indexes,
+                millis[millis.length / 2], millis[(int) (millis.length * 0.95)],
+                scanned
+        );
+    }
+
+    // Same index set as ball_by_ball, minus the unique one time-series rejects
+    private void createIndexes(String collection, boolean timeSeries) {
+
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(
+                template.getConverter().getMappingContext()
+        );
+
+        for (IndexDefinition index : resolver.resolveIndexFor(BallByBall.class)) {
+            if (timeSeries && index.getIndexOptions().getBoolean("unique", false)) {
+                continue;
+            }
+            template.indexOps(collection).createIndex(index);
+        }
+    }
+
+    // ---------- SYNTHETIC SEASON ----------
+    // Ids and shapes as the live pipeline writes them, ~30 s between balls
+    private List<List<BallByBall>> season() {
+
+        Random random = new Random(7);
+        String leagueId = new ObjectId().toHexString();
+        List<List<BallByBall>> season = new ArrayList<>();
+        long time = System.currentTimeMillis() - MATCHES * 4L * 3_600_000;
+
+        for (int m = 0; m < MATCHES; m++) {
+
+            String matchId = new ObjectId().toHexString();
+            String[] teams = { new ObjectId().toHexString(), new ObjectId().toHexString() };
+
+            for (int innings = 1; innings <= 2; innings++) {
+
+                String[] batters = ids(11);
+                String[] bowlers = ids(6);
+                List<BallByBall> balls = new ArrayList<>();
+                int runs = 0;
+                int wickets = 0;
+                int legal = 0;
+                int extras = 0;
+
+                for (int seq = 1; seq <= DELIVERIES; seq++) {
+
+                    BallByBall ball = new BallByBall();
+                    ball.setId(new ObjectId().toHexString());
+                    ball.setClientBallId(UUID.randomUUID().toString());
+                    ball.setLeagueId(leagueId);
+                    ball.setMatchId(matchId);
+                    ball.setBattingTeamId(teams[innings - 1]);
+                    ball.setBowlingTeamId(teams[2 - innings]);
+                    ball.setInnings(innings);
+                    ball.setBallSequence(seq);
+                    ball.setOver(legal / 6 + 1);
+                    ball.setBall(legal % 6 + 1);
+                    ball.setBatterId(batters[Math.min(wickets, 9)]);
+                    ball.setNonStrikerId(batters[Math.min(wickets, 9) + 1]);
+                    ball.setBowlerId(bowlers[(legal / 6) % bowlers.length]);
+
+                    boolean wide = random.nextInt(25) == 0;
+                    if (wide) {
+                        ball.setExtraType("WIDE");
+                        ball.setExtraRuns(1);
+                    } else {
+                        ball.setRuns(new int[] { 0, 0, 0, 1, 1, 1, 2, 4, 6 }[random.nextInt(9)]);
+                        ball.setBoundary(ball.getRuns() >= 4);
+                        ball.setBoundaryRuns(ball.isBoundary() ? ball.getRuns() : 0);
+                        legal++;
+                    }
+                    ball.setLegalBall(!wide);
+
+                    if (!wide && wickets < 10 && random.nextInt(20) == 0) {
+                        ball.setWicket(true);
+                        ball.setWicketType("CAUGHT");
+                        ball.setOutBatterId(ball.getBatterId());
+                        wickets++;
+                    }
+
+                    runs += ball.getRuns() + ball.getExtraRuns();
+                    extras += ball.getExtraRuns();
+                    ball.setOverCompleted(!wide && legal % 6 == 0);
+                    ball.setTotalRunsAtBall(runs);
+                    ball.setTotalWicketsAtBall(wickets);
+                    ball.setLegalBallsAtBall(legal);
+                    ball.setOversAtBall(legal / 6 + (legal % 6) / 10.0);
+                    ball.setExtrasAtBall(extras);
+                    ball.setRunRateAtBall(legal > 0 ? runs * 6.0 / legal : 0);
+                    ball.setPhase(legal < 36 ? "POWERPLAY" : legal < 96 ? "MIDDLE" : "DEATH");
+
+                    time += 20_000 + random.nextInt(20_000);
+                    ball.setTimestamp(time);
+                    balls.add(ball);
+                }
+                season.add(balls);
+            }
+            time += 3_600_000;
+        }
+        return season;
+    }
+
+    private String[] ids(int n) {
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = new ObjectId().toHexString();
+        }
+        return ids;
+    }
+
+    private double seconds(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+    }
+
+    private record Result(
+            String layout,
+            double liveRate,
+            double bulkRate,
+            long storageBytes,
+            long indexBytes,
+            double scanP50Ms,
+            double scanP95Ms,
+            long scanned
+    ) {}
+}
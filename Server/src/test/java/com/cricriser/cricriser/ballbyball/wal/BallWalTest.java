@@ -0,0 +1,299 @@
+package com.cricriser.cricriser.ballbyball.wal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cricriser.cricriser.ballbyball.BallByBall;
+import com.cricriser.cricriser.ballbyball.BallByBallRepository;
+import com.cricriser.cricriser.ballbyball.live.LiveMatch;
+import com.cricriser.cricriser.ballbyball.live.MatchSequencer;
+import com.cricriser.cricriser.match.matchscoring.MatchScore;
+import com.cricriser.cricriser.match.scorecard.ScorecardService;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStats;
+import com.cricriser.cricriser.player.playerstats.PlayerStatsService;
+import com.cricriser.cricriser.points.PointsTableService;
+
+/**
+ * Journal recovery (torn tails, checkpoints, order) and replay idempotency,
+ * against a real journal directory and mocked persistence.
+ */
+class BallWalTest {
+
+    @TempDir
+    Path dir;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    BallWalTest() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+    }
+
+    // ================= RECOVERY =================
+    @Test
+    void tornTailIsCutBeforeNewEntriesAreAppended() throws Exception {
+
+        BallWal wal = open();
+        wal.append(ball("b1", "m1"), score("m1", "Live"), live("m1", 1));
+        wal.append(ball("b2", "m1"), score("m1", "Live"), live("m1", 2));
+        wal.close();
+
+        // Crash mid-append: header promises more bytes than made it to disk
+        Path log = dir.resolve("ball-wal.log");
+        long good = Files.size(log);
+        Files.write(log, new byte[]{0, 0, 1, 0, 7, 7, 7, 7, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        wal = open();
+        assertEquals(2, wal.stats().depth());
+        assertEquals(good, Files.size(log));
+
+        wal.append(ball("b3", "m1"), score("m1", "Live"), live("m1", 3));
+        wal.close();
+
+        wal = open();
+        assertEquals(List.of("b1", "b2", "b3"), ballIds(wal));
+        wal.close();
+    }
+
+    @Test
+    void corruptRecordEndsTheLogAndIsOverwritten() throws Exception {
+
+        BallWal wal = open();
+        wal.append(ball("b1", "m1"), score("m1", "Live"), live("m1", 1));
+        wal.append(ball("b2", "m1"), score("m1", "Live"), live("m1", 2));
+        wal.close();
+
+        // Flip a byte inside the second record's BSON → CRC mismatch
+        Path log = dir.resolve("ball-wal.log");
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 10] ^= 0x5A;
+        Files.write(log, bytes);
+
+        wal = open();
+        assertEquals(List.of("b1"), ballIds(wal));
+
+        wal.append(ball("b3", "m1"), score("m1", "Live"), live("m1", 3));
+        wal.close();
+
+        wal = open();
+        assertEquals(List.of("b1", "b3"), ballIds(wal));
+        wal.close();
+    }
+
+    @Test
+    void entriesSurviveRestartWithTheirPostImages() {
+
+        BallWal wal = open();
+        wal.append(ball("b1", "m1"), score("m1", "Live"), live("m1", 7));
+        wal.close();
+
+        wal = open();
+        BallWalEntry entry = wal.head();
+        assertEquals(1, entry.getSequence());
+        assertEquals("m1", entry.getMatchId());
+        assertEquals("b1", entry.getBall().getId());
+        assertEquals(7, entry.getScore().getVersion());
+        assertEquals("Live", entry.getMatchStatusBefore());
+        assertEquals(List.of("bat", "bowl"), entry.getPlayerStats().stream().map(MatchPlayerStats::getPlayerId).toList());
+        assertEquals(7, entry.getPlayerStats().get(0).getRuns());
+        wal.close();
+    }
+
+    // ================= ORDER + CHECKPOINT =================
+    @Test
+    void checkpointSkipsReplayedEntriesAndKeepsOrder() {
+
+        BallWal wal = open();
+        wal.append(ball("b1", "m1"), score("m1", "Live"), live("m1", 1));
+        wal.append(ball("b2", "m2"), score("m2", "Live"), live("m2", 1));
+        wal.append(ball("b3", "m1"), score("m1", "Live"), live("m1", 2));
+
+        // Only the head may be checkpointed
+        BallWalEntry second = new ArrayList<>(entries(wal)).get(1);
+        assertThrows(RuntimeException.class, () -> wal.replayed(second));
+
+        wal.replayed(wal.head());
+        assertTrue(wal.isPending("m1"));
+        assertTrue(wal.isPending("m2"));
+        wal.close();
+
+        BallWal reopened = open();
+        assertEquals(List.of("b2", "b3"), ballIds(reopened));
+
+        reopened.replayed(reopened.head());
+        assertFalse(reopened.isPending("m2"));
+        assertTrue(reopened.mustJournal("m1"));
+
+        reopened.replayed(reopened.head());
+        assertFalse(reopened.mustJournal("m1"));
+        assertEquals(0, reopened.stats().bytes());
+
+        // Sequences keep growing past the checkpoint after the log is emptied
+        reopened.append(ball("b4", "m1"), score("m1", "Live"), live("m1", 3));
+        assertEquals(4, reopened.head().getSequence());
+        reopened.close();
+    }
+
+    // ================= REPLAY =================
+    @Test
+    void replayingAnEntryTwiceWritesTheSameDocuments() {
+
+        BallWal wal = open();
+        wal.append(ball("b1", "m1"), score("m1", "Live"), live("m1", 4));
+
+        Map<String, BallByBall> stored = new HashMap<>();
+        BallByBallRepository ballRepo = mock(BallByBallRepository.class);
+        when(ballRepo.existsById(any())).thenAnswer(i -> stored.containsKey(i.<String>getArgument(0)));
+        when(ballRepo.insert(any(BallByBall.class))).thenAnswer(i -> {
+            BallByBall ball = i.getArgument(0);
+            stored.put(ball.getId(), ball);
+            return ball;
+        });
+
+        PlayerStatsService playerStatsService = mock(PlayerStatsService.class);
+        PointsTableService pointsTableService = mock(PointsTableService.class);
+        ScorecardService scorecardService = mock(ScorecardService.class);
+
+        // First pass writes everything, then the database goes away before the checkpoint
+        doThrow(new DataAccessResourceFailureException("down"))
+                .doNothing()
+                .when(scorecardService).ballsRecorded(any(), anyList());
+
+        BallWalReplayService replay = new BallWalReplayService(0);
+        ReflectionTestUtils.setField(replay, "ballWal", wal);
+        ReflectionTestUtils.setField(replay, "matchSequencer", new MatchSequencer());
+        ReflectionTestUtils.setField(replay, "ballRepo", ballRepo);
+        ReflectionTestUtils.setField(replay, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(replay, "playerStatsService", playerStatsService);
+        ReflectionTestUtils.setField(replay, "pointsTableService", pointsTableService);
+        ReflectionTestUtils.setField(replay, "scorecardService", scorecardService);
+
+        assertEquals(0, replay.drain());
+        assertTrue(wal.stats().databaseDown());
+        assertEquals(1, wal.stats().depth());
+
+        assertEquals(1, replay.drain());
+        assertNull(wal.head());
+
+        verify(ballRepo, times(1)).insert(any(BallByBall.class));
+        ArgumentCaptor<MatchScore> scores = ArgumentCaptor.forClass(MatchScore.class);
+        verify(mongoTemplate, times(2)).save(scores.capture());
+        assertEquals(scores.getAllValues().get(0), scores.getAllValues().get(1));
+        assertEquals(4, scores.getValue().getVersion());
+        verify(mongoTemplate, times(4)).save(any(MatchPlayerStats.class));
+        // Both passes send the increments; the ball id guard keeps the second a no-op
+        verify(playerStatsService, times(2)).applyDeltasOnce(any(), eq("b1"));
+        verify(playerStatsService, never()).rebuildCareerStats(any());
+        verify(pointsTableService, never()).recalculatePointsTable(any());
+        wal.close();
+    }
+
+    @Test
+    void statusChangeRebuildsStandingsOnReplay() {
+
+        BallWal wal = open();
+        MatchScore after = live("m1", 9).getScore();
+        after.setMatchStatus("Completed");
+        after.setLeagueId("L1");
+        wal.append(ball("b1", "m1"), score("m1", "Live"), new LiveMatch(after, null, stats(9)));
+
+        PointsTableService pointsTableService = mock(PointsTableService.class);
+        BallWalReplayService replay = new BallWalReplayService(0);
+        ReflectionTestUtils.setField(replay, "ballWal", wal);
+        ReflectionTestUtils.setField(replay, "matchSequencer", new MatchSequencer());
+        ReflectionTestUtils.setField(replay, "ballRepo", mock(BallByBallRepository.class));
+        ReflectionTestUtils.setField(replay, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(replay, "playerStatsService", mock(PlayerStatsService.class));
+        ReflectionTestUtils.setField(replay, "pointsTableService", pointsTableService);
+        ReflectionTestUtils.setField(replay, "scorecardService", mock(ScorecardService.class));
+
+        assertEquals(1, replay.drain());
+        verify(pointsTableService).recalculatePointsTable("L1");
+        wal.close();
+    }
+
+    // ---------- HELPERS ----------
+    private BallWal open() {
+        BallWal wal = new BallWal(true, dir.toString());
+        ReflectionTestUtils.setField(wal, "mongoTemplate", mongoTemplate);
+        wal.open();
+        return wal;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<BallWalEntry> entries(BallWal wal) {
+        return new ArrayList<>((Collection<BallWalEntry>) ReflectionTestUtils.getField(wal, "pending"));
+    }
+
+    private static List<String> ballIds(BallWal wal) {
+        return entries(wal).stream().map(e -> e.getBall().getId()).toList();
+    }
+
+    private static BallByBall ball(String id, String matchId) {
+        BallByBall ball = new BallByBall();
+        ball.setId(id);
+        ball.setMatchId(matchId);
+        ball.setBatterId("bat");
+        ball.setBowlerId("bowl");
+        ball.setRuns(4);
+        return ball;
+    }
+
+    private static MatchScore score(String matchId, String status) {
+        MatchScore score = new MatchScore();
+        score.setId("s-" + matchId);
+        score.setMatchId(matchId);
+        score.setMatchStatus(status);
+        return score;
+    }
+
+    private static LiveMatch live(String matchId, int version) {
+        MatchScore score = score(matchId, "Live");
+        score.setVersion(version);
+        return new LiveMatch(score, null, stats(version));
+    }
+
+    private static Map<String, MatchPlayerStats> stats(int runs) {
+        Map<String, MatchPlayerStats> stats = new HashMap<>();
+        for (String playerId : List.of("bat", "bowl")) {
+            MatchPlayerStats s = new MatchPlayerStats();
+            s.setId("ps-" + playerId);
+            s.setPlayerId(playerId);
+            s.setRuns(runs);
+            stats.put(playerId, s);
+        }
+        return stats;
+    }
+}
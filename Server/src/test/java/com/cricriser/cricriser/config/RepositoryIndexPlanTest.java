@@ -0,0 +1,131 @@
+package com.cricriser.cricriser.config;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import com.cricriser.cricriser.ballbyball.BallByBallRepository;
+import com.cricriser.cricriser.league.LeagueRepository;
+import com.cricriser.cricriser.match.matchscoring.MatchScoreRepository;
+import com.cricriser.cricriser.player.matchplayerstats.MatchPlayerStatsRepository;
+import com.cricriser.cricriser.points.PointsTableRepository;
+import com.cricriser.cricriser.team.TeamRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Calls every derived query of the indexed repositories against a scratch
+ * database with the profiler on, and asserts that none of them scanned the
+ * collection. Needs a real server (the profiler is not emulated):
+ *
+ * CRICRISER_TEST_MONGO_URI=mongodb://localhost:27017 mvn test -Dtest=RepositoryIndexPlanTest
+ */
+@EnabledIfEnvironmentVariable(named = "CRICRISER_TEST_MONGO_URI", matches = ".+")
+class RepositoryIndexPlanTest {
+
+    private static final String DATABASE = "cricriser_index_plan_test";
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            BallByBallRepository.class,
+            MatchPlayerStatsRepository.class,
+            MatchScoreRepository.class,
+            TeamRepository.class,
+            LeagueRepository.class,
+            PointsTableRepository.class
+    );
+
+    private static MongoClient client;
+    private static MongoTemplate template;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(System.getenv("CRICRISER_TEST_MONGO_URI"));
+        template = new MongoTemplate(client, DATABASE);
+        template.getDb().drop();
+
+        MongoIndexConfig.ensureIndexes(template);
+        template.getDb().runCommand(new Document("profile", 2));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        template.getDb().runCommand(new Document("profile", 0));
+        template.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void everyDerivedQueryUsesAnIndex() throws Exception {
+
+        MongoRepositoryFactory factory = new MongoRepositoryFactory(template);
+        List<String> scans = new ArrayList<>();
+
+        for (Class<?> type : REPOSITORIES) {
+
+            Object repository = factory.getRepository(type);
+
+            for (Method method : type.getDeclaredMethods()) {
+
+                method.invoke(repository, sampleArgs(method));
+
+                Document plan = lastProfiledOperation();
+                assertNotNull(plan, "nothing profiled for " + method.getName());
+
+                String summary = plan.getString("planSummary");
+                System.out.printf("%-90s %s%n", type.getSimpleName() + "." + method.getName(), summary);
+
+                if (summary == null
+                        || !(summary.startsWith("IXSCAN") || summary.startsWith("IDHACK")
+                        || summary.startsWith("EXPRESS_IXSCAN"))) {
+                    scans.add(type.getSimpleName() + "." + method.getName() + " → " + summary);
+                }
+            }
+        }
+
+        assertTrue(scans.isEmpty(), "Queries without an index: " + scans);
+    }
+
+    // ---------- HELPERS ----------
+    private Document lastProfiledOperation() {
+
+        Query query = new Query()
+                .addCriteria(Criteria.where("ns").regex("^" + DATABASE + "\\.(?!system\\.)"))
+                .with(Sort.by(Sort.Direction.DESC, "ts"))
+                .limit(1);
+
+        return template.findOne(query, Document.class, "system.profile");
+    }
+
+    private Object[] sampleArgs(Method method) {
+
+        Class<?>[] params = method.getParameterTypes();
+        Object[] args = new Object[params.length];
+
+        for (int i = 0; i < params.length; i++) {
+            if (params[i] == int.class || params[i] == Integer.class) {
+                args[i] = 1;
+            } else if (Collection.class.isAssignableFrom(params[i])) {
+                args[i] = List.of("000000000000000000000001");
+            } else {
+                args[i] = "000000000000000000000001";
+            }
+        }
+
+        return args;
+    }
+}
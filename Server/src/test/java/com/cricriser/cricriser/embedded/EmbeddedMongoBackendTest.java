@@ -0,0 +1,346 @@
+package com.cricriser.cricriser.embedded;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+
+import de.bwaldvogel.mongo.MongoServer;
+
+/**
+ * Crash recovery of the embedded store: writes go through a real
+ * MongoClient, the backend is then abandoned without close() (no final
+ * snapshot, journal left as the crash found it) and a new backend on the
+ * same data directory must serve the same documents and indexes.
+ */
+class EmbeddedMongoBackendTest {
+
+    private static final String DATABASE = "cricriser";
+
+    @TempDir
+    Path dir;
+
+    private final List<Store> open = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        open.forEach(Store::close);
+    }
+
+    // ================= CRASH + REOPEN =================
+    @Test
+    void everyWriteSurvivesACrash() {
+
+        Store store = open();
+        writeEverything(store.db());
+
+        Map<String, Object> before = state(store.db());
+        store.crash();
+
+        assertEquals(before, state(open().db()));
+    }
+
+    @Test
+    void writesAfterRecoveryAreJournaledAgain() {
+
+        Store first = open();
+        writeEverything(first.db());
+        first.crash();
+
+        Store second = open();
+        second.db().getCollection("balls").insertOne(new Document("_id", "b-after").append("runs", 6));
+        second.db().getCollection("stats").updateOne(Filters.eq("_id", "p1"), Updates.inc("runs", 1));
+
+        Map<String, Object> before = state(second.db());
+        second.crash();
+
+        assertEquals(before, state(open().db()));
+    }
+
+    // ================= TORN JOURNAL =================
+    @Test
+    void tornLastRecordLosesOnlyThatWrite() throws Exception {
+
+        Store store = open();
+        writeEverything(store.db());
+        Map<String, Object> acknowledged = state(store.db());
+
+        store.db().getCollection("balls").insertOne(new Document("_id", "b-torn").append("runs", 4));
+        store.crash();
+
+        // Crash in the middle of the last append → its bytes no longer match the CRC
+        Path journal = newest("journal-");
+        long[] last = lastRecord(journal);
+        flipByte(journal, last[0] + last[1] - 3);
+
+        assertEquals(acknowledged, state(open().db()));
+    }
+
+    @Test
+    void garbageAfterTheLastRecordIsIgnored() throws Exception {
+
+        Store store = open();
+        writeEverything(store.db());
+        Map<String, Object> before = state(store.db());
+        store.crash();
+
+        // Header of a record that never made it to disk
+        Path journal = newest("journal-");
+        long[] last = lastRecord(journal);
+        try (FileChannel file = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(new byte[]{0, 0, 1, 0, 7, 7, 7, 7, 1, 2, 3}), last[0] + last[1]);
+        }
+
+        Store reopened = open();
+        assertEquals(before, state(reopened.db()));
+
+        // Recovery folded it all into a fresh generation: nothing left to trip over
+        reopened.db().getCollection("balls").insertOne(new Document("_id", "b-next"));
+        Map<String, Object> after = state(reopened.db());
+        reopened.crash();
+        assertEquals(after, state(open().db()));
+    }
+
+    // ================= SNAPSHOTS =================
+    @Test
+    void incompleteSnapshotFallsBackToTheOlderGeneration() throws Exception {
+
+        Store store = open();
+        writeEverything(store.db());
+        store.backend().snapshot();
+
+        // After the snapshot → only in the journal of its generation
+        store.db().getCollection("balls").insertOne(new Document("_id", "b-journal-only").append("runs", 2));
+        Map<String, Object> before = state(store.db());
+        store.crash();
+
+        Path snapshot = newest("snapshot-");
+        long generation = generationOf(snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+
+        // A newer snapshot the crash cut short, and a .tmp that was never renamed
+        Files.write(dir.resolve("snapshot-" + (generation + 1) + ".bson"), Arrays.copyOf(bytes, bytes.length / 2));
+        Files.write(dir.resolve("snapshot-" + (generation + 2) + ".tmp"), Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertEquals(before, state(open().db()));
+    }
+
+    @Test
+    void partialUniqueIndexAdmitsDocumentsOutsideTheFilter() {
+
+        Store store = open();
+        MongoCollection<Document> balls = store.db().getCollection("balls");
+        balls.createIndex(
+                Indexes.ascending("matchId", "clientBallId"),
+                new IndexOptions().name("match_client_ball").unique(true)
+                        .partialFilterExpression(Filters.exists("clientBallId"))
+        );
+
+        // No clientBallId → outside the filter, any number of them
+        balls.insertOne(new Document("_id", "b1").append("matchId", "m1"));
+        balls.insertOne(new Document("_id", "b2").append("matchId", "m1"));
+
+        Map<String, Object> before = state(store.db());
+        store.crash();
+
+        MongoDatabase reopened = open().db();
+        assertEquals(before, state(reopened));
+        reopened.getCollection("balls").insertOne(new Document("_id", "b3").append("matchId", "m1"));
+        assertEquals(3, reopened.getCollection("balls").countDocuments());
+    }
+
+    // ---------- HELPERS ----------
+    // insert, bulk $inc upserts, findAndModify, deletes, index creation
+    private void writeEverything(MongoDatabase db) {
+
+        MongoCollection<Document> balls = db.getCollection("balls");
+        MongoCollection<Document> stats = db.getCollection("stats");
+        MongoCollection<Document> scores = db.getCollection("scores");
+
+        balls.createIndex(Indexes.ascending("matchId", "innings", "ballSequence"),
+                new IndexOptions().name("match_innings_sequence"));
+        stats.createIndex(Indexes.ascending("playerId", "matchId"),
+                new IndexOptions().name("player_match").unique(true));
+
+        List<Document> innings = new ArrayList<>();
+        for (int i = 1; i <= 60; i++) {
+            innings.add(new Document("_id", "b" + i)
+                    .append("matchId", "m1")
+                    .append("innings", 1)
+                    .append("ballSequence", (long) i)
+                    .append("runs", i % 7)
+                    .append("commentary", "ball " + i));
+        }
+        balls.insertMany(innings);
+
+        List<UpdateOneModel<Document>> increments = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (String player : List.of("p1", "p2", "p3")) {
+                increments.add(new UpdateOneModel<>(
+                        Filters.eq("_id", player),
+                        Updates.combine(Updates.inc("runs", 4), Updates.inc("balls", 1),
+                                Updates.set("playerId", player), Updates.set("matchId", "m1")),
+                        new UpdateOptions().upsert(true)
+                ));
+            }
+        }
+        stats.bulkWrite(increments);
+
+        scores.insertOne(new Document("_id", "s1").append("matchId", "m1").append("version", 0L));
+        scores.findOneAndUpdate(
+                Filters.and(Filters.eq("_id", "s1"), Filters.eq("version", 0L)),
+                Updates.combine(Updates.inc("version", 1L), Updates.set("status", "Live")),
+                new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)
+        );
+        scores.findOneAndUpdate(
+                Filters.eq("_id", "s2"),
+                Updates.set("matchId", "m2"),
+                new FindOneAndUpdateOptions().upsert(true)
+        );
+        scores.findOneAndDelete(Filters.eq("_id", "s2"));
+
+        balls.deleteOne(Filters.eq("_id", "b60"));
+        balls.deleteMany(Filters.lt("ballSequence", 5L));
+    }
+
+    // Collections → sorted documents and indexes
+    private static Map<String, Object> state(MongoDatabase db) {
+
+        Map<String, Object> state = new LinkedHashMap<>();
+        List<String> names = db.listCollectionNames().into(new ArrayList<>());
+        names.sort(null);
+
+        for (String name : names) {
+
+            MongoCollection<Document> collection = db.getCollection(name);
+            state.put(name, collection.find().sort(new Document("_id", 1)).into(new ArrayList<>()));
+
+            List<Document> indexes = new ArrayList<>();
+            for (Document index : collection.listIndexes()) {
+                index.remove("ns");
+                indexes.add(index);
+            }
+            indexes.sort(Comparator.comparing(index -> index.getString("name")));
+            state.put(name + " indexes", indexes);
+        }
+        return state;
+    }
+
+    private Store open() {
+        Store store = new Store(new EmbeddedMongoBackend(dir, 1 << 20, 0, 0));
+        open.add(store);
+        return store;
+    }
+
+    private Path newest(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().startsWith(prefix))
+                    .max(Comparator.comparingLong(EmbeddedMongoBackendTest::generationOf))
+                    .orElseThrow();
+        }
+    }
+
+    private static long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.indexOf('.')));
+    }
+
+    // {offset, length} of the last framed record (length + CRC + BSON)
+    private static long[] lastRecord(Path journal) throws IOException {
+
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(journal));
+        long[] last = null;
+
+        while (data.remaining() >= 8) {
+            int offset = data.position();
+            int length = data.getInt();
+            if (length <= 0 || length + 4 > data.remaining()) {
+                break;
+            }
+            data.position(data.position() + 4 + length);
+            last = new long[]{offset, 8 + length};
+        }
+
+        assertTrue(last != null, "journal has no records");
+        return last;
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, position);
+            one.put(0, (byte) (one.get(0) ^ 0x5A));
+            one.rewind();
+            channel.write(one, position);
+        }
+    }
+
+    // One backend served on loopback, as EmbeddedStorageConfig wires it
+    private static final class Store {
+
+        private final EmbeddedMongoBackend backend;
+        private final MongoServer server;
+        private final MongoClient client;
+        private boolean crashed;
+
+        Store(EmbeddedMongoBackend backend) {
+            this.backend = backend;
+            this.server = new MongoServer(backend);
+            InetSocketAddress address = server.bind();
+            this.client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        }
+
+        EmbeddedMongoBackend backend() {
+            return backend;
+        }
+
+        MongoDatabase db() {
+            return client.getDatabase(DATABASE);
+        }
+
+        // Connections gone, backend never closed → no final snapshot
+        void crash() {
+            client.close();
+            server.stopListening();
+            crashed = true;
+        }
+
+        void close() {
+            if (!crashed) {
+                client.close();
+                server.shutdownNow();
+            }
+        }
+    }
+}
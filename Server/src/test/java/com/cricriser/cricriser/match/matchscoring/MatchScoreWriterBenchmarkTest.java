@@ -0,0 +1,74 @@
+package com.cricriser.cricriser.match.matchscoring;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.MongoClientSettings;
+
+/**
+ * Bytes on the wire per ball: a full MatchScore replace (what
+ * {@code matchScoreRepository.save} sent, twice per ball) against the
+ * update document produced by {@link MatchScoreWriter}. Opt-in:
+ *
+ * CRICRISER_BENCHMARK=true mvn test -Dtest=MatchScoreWriterBenchmarkTest
+ */
+@EnabledIfEnvironmentVariable(named = "CRICRISER_BENCHMARK", matches = "true")
+class MatchScoreWriterBenchmarkTest {
+
+    private static final CodecRegistry CODECS = MongoClientSettings.getDefaultCodecRegistry();
+
+    private final MatchScoreWriter writer = new MatchScoreWriter();
+    private final MongoMappingContext context = new MongoMappingContext();
+    private final MappingMongoConverter converter
+            = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+
+    @Test
+    void bytesPerBallBeforeAndAfter() {
+
+        converter.afterPropertiesSet();
+        MatchScore before = MatchScoreWriterTest.liveScore();
+
+        int full = fullDocumentBytes(before);
+        int singleBytes = updateBytes(writer.diff(before, MatchScoreWriterTest.single(before)));
+        int wicketBytes = updateBytes(writer.diff(before, MatchScoreWriterTest.wicket(before)));
+
+        System.out.printf("%-28s %6d bytes (x2 per ball before)%n", "full replace", full);
+        System.out.printf("%-28s %6d bytes%n", "diff: single + rotate", singleBytes);
+        System.out.printf("%-28s %6d bytes%n", "diff: wicket", wicketBytes);
+
+        assertTrue(singleBytes * 5 < full, "diff should be a fraction of the document");
+        assertTrue(wicketBytes * 3 < full, "diff should be a fraction of the document");
+    }
+
+    // ---------- HELPERS ----------
+    private int fullDocumentBytes(MatchScore score) {
+        Document document = new Document();
+        converter.write(score, document);
+        return bytes(document);
+    }
+
+    // Mapped exactly as MongoTemplate.updateFirst would send it
+    private int updateBytes(Update update) {
+        Document mapped = new UpdateMapper(converter).getMappedObject(
+                update.getUpdateObject(),
+                context.getPersistentEntity(MatchScore.class)
+        );
+        return bytes(mapped);
+    }
+
+    private int bytes(Document document) {
+        BsonDocument bson = document.toBsonDocument(BsonDocument.class, CODECS);
+        return new RawBsonDocument(bson, CODECS.get(BsonDocument.class)).getByteBuffer().remaining();
+    }
+}
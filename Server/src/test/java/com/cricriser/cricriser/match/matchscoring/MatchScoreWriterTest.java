@@ -0,0 +1,187 @@
+package com.cricriser.cricriser.match.matchscoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * Shape of the update {@link MatchScoreWriter} sends per ball: counters as
+ * $inc, changed scalars as $set, list changes as $push / $pullAll, and
+ * nothing for fields the ball did not touch. The version guard runs
+ * against an in-memory server.
+ */
+class MatchScoreWriterTest {
+
+    private final MatchScoreWriter writer = new MatchScoreWriter();
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "match_score_writer_test");
+        ReflectionTestUtils.setField(writer, "mongoTemplate", mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    // ================= DIFF SHAPE =================
+    @Test
+    void dotBallAndWicketSendOnlyChangedFields() {
+
+        MatchScore before = liveScore();
+
+        Update singleUpdate = writer.diff(before, single(before));
+        Update wicketUpdate = writer.diff(before, wicket(before));
+
+        Document singleSet = (Document) singleUpdate.getUpdateObject().get("$set");
+        assertEquals(1, ((Document) singleUpdate.getUpdateObject().get("$inc")).get("team1Runs"));
+        assertTrue(singleSet.containsKey("strikerId"));
+        assertTrue(!singleSet.containsKey("team1PlayingXI"));
+
+        assertTrue(wicketUpdate.getUpdateObject().containsKey("$push"));
+        assertTrue(wicketUpdate.getUpdateObject().containsKey("$pullAll"));
+    }
+
+    // ================= VERSION GUARD =================
+    @Test
+    void staleVersionIsRejected() {
+
+        MatchScore before = liveScore();
+        mongoTemplate.insert(before);
+
+        MatchScore first = single(before);
+        writer.write(before, first);
+        assertEquals(1, first.getVersion());
+
+        // Second writer still holds version 0
+        MatchScore stale = wicket(before);
+        assertThrows(OptimisticLockingFailureException.class, () -> writer.write(before, stale));
+
+        MatchScore stored = mongoTemplate.findById(before.getId(), MatchScore.class);
+        assertEquals(1, stored.getVersion());
+        assertEquals(first.getTeam1Runs(), stored.getTeam1Runs());
+        assertEquals(before.getTeam1Wickets(), stored.getTeam1Wickets());
+    }
+
+    @Test
+    void legacyDocumentWithoutVersionMatchesAsZero() {
+
+        MatchScore before = liveScore();
+        mongoTemplate.insert(before);
+        // Written before versioning: no version field at all
+        assertEquals(1, mongoTemplate.getCollection("match_scoring").updateOne(
+                new Document("_id", new ObjectId(before.getId())),
+                new Document("$unset", new Document("version", ""))
+        ).getModifiedCount());
+
+        MatchScore after = single(before);
+        writer.write(before, after);
+
+        Document stored = mongoTemplate.getCollection("match_scoring")
+                .find(new Document("_id", new ObjectId(before.getId()))).first();
+        assertEquals(1L, ((Number) stored.get("version")).longValue());
+        assertEquals(after.getTeam1Runs(), stored.get("team1Runs"));
+        assertEquals(1, after.getVersion());
+    }
+
+    // ---------- HELPERS ----------
+    static MatchScore liveScore() {
+
+        MatchScore score = new MatchScore();
+        score.setId(new ObjectId().toHexString());
+        score.setMatchId(new ObjectId().toHexString());
+        score.setLeagueId(new ObjectId().toHexString());
+        score.setTeam1Id(new ObjectId().toHexString());
+        score.setTeam2Id(new ObjectId().toHexString());
+        score.setTossWinner(score.getTeam1Id());
+        score.setTossDecision("Bat");
+        score.setMatchStatus("Match In Progress");
+        score.setInnings(1);
+        score.setBattingTeamId(score.getTeam1Id());
+        score.setTotalOvers(20);
+        score.setTeam1Runs(98);
+        score.setTeam1Wickets(3);
+        score.setTeam1Overs(12.3);
+
+        score.setTeam1PlayingXI(ids(11));
+        score.setTeam2PlayingXI(ids(11));
+        score.setTeam1OutBatters(new ArrayList<>(score.getTeam1PlayingXI().subList(0, 3)));
+        score.setTeam1YetToBat(new ArrayList<>(score.getTeam1PlayingXI().subList(5, 11)));
+        score.setTeam2OutBatters(new ArrayList<>());
+        score.setTeam2YetToBat(new ArrayList<>(score.getTeam2PlayingXI()));
+        score.setStrikerId(score.getTeam1PlayingXI().get(3));
+        score.setNonStrikerId(score.getTeam1PlayingXI().get(4));
+        score.setCurrentBowlerId(score.getTeam2PlayingXI().get(10));
+        score.setLastOverBowlerId(score.getTeam2PlayingXI().get(9));
+        return score;
+    }
+
+    // Single run, strike rotates
+    static MatchScore single(MatchScore before) {
+        MatchScore single = copy(before);
+        single.setTeam1Runs(single.getTeam1Runs() + 1);
+        single.setTeam1Overs(12.4);
+        single.setStrikerId(before.getNonStrikerId());
+        single.setNonStrikerId(before.getStrikerId());
+        return single;
+    }
+
+    // Wicket, new batter in
+    static MatchScore wicket(MatchScore before) {
+        MatchScore wicket = copy(before);
+        String out = before.getStrikerId();
+        String in = before.getTeam1YetToBat().get(0);
+        wicket.setTeam1Wickets(wicket.getTeam1Wickets() + 1);
+        wicket.setTeam1Overs(12.4);
+        wicket.getTeam1OutBatters().add(out);
+        wicket.getTeam1YetToBat().remove(in);
+        wicket.setStrikerId(in);
+        return wicket;
+    }
+
+    private static MatchScore copy(MatchScore score) {
+        MatchScore copy = new MatchScore();
+        BeanUtils.copyProperties(score, copy);
+        copy.setTeam1YetToBat(new ArrayList<>(score.getTeam1YetToBat()));
+        copy.setTeam1OutBatters(new ArrayList<>(score.getTeam1OutBatters()));
+        return copy;
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(new ObjectId().toHexString());
+        }
+        return ids;
+    }
+}
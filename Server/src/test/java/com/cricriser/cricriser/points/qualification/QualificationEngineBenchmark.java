@@ -0,0 +1,136 @@
+package com.cricriser.cricriser.points.qualification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 10-team double round-robin (90 league games) with the last `remaining`
+ * still to play; the question is asked for the team sitting 4th for a top-4
+ * cut, which is the hardest case to prune.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="QualificationEngineBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QualificationEngineBenchmark {
+
+    private static final int TEAMS = 10;
+    private static final int TOP_N = 4;
+    private static final int BALLS_PER_INNINGS = 120;
+
+    @Param({ "16", "24", "32" })
+    public int remaining;
+
+    @Param({ "1", "0" })          // 0 → one worker per core
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private QualificationEngine engine;
+    private QualificationProblem problem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        engine = new QualificationEngine(pool, 500_000);
+        problem = season(remaining, new SplittableRandom(42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public QualificationEngine.Outcome evaluate() {
+        return engine.evaluate(problem);
+    }
+
+    // ---------- SEASON ----------
+    static QualificationProblem season(int remaining, SplittableRandom random) {
+
+        List<int[]> schedule = new ArrayList<>();
+        for (int round = 0; round < 2; round++) {
+            for (int a = 0; a < TEAMS; a++) {
+                for (int b = a + 1; b < TEAMS; b++) {
+                    schedule.add(round == 0 ? new int[] { a, b } : new int[] { b, a });
+                }
+            }
+        }
+        // Shuffle so the remaining games are spread over all teams
+        for (int i = schedule.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int[] swap = schedule.get(i);
+            schedule.set(i, schedule.get(j));
+            schedule.set(j, swap);
+        }
+
+        int played = schedule.size() - remaining;
+        int[] points = new int[TEAMS];
+        int[] runsFor = new int[TEAMS];
+        int[] runsAgainst = new int[TEAMS];
+        int[] balls = new int[TEAMS];
+
+        for (int[] game : schedule.subList(0, played)) {
+
+            int first = 130 + random.nextInt(60);
+            int second = 130 + random.nextInt(60);
+
+            points[first > second ? game[0] : game[1]] += 2;
+            runsFor[game[0]] += first;
+            runsAgainst[game[0]] += second;
+            runsFor[game[1]] += second;
+            runsAgainst[game[1]] += first;
+            balls[game[0]] += BALLS_PER_INNINGS;
+            balls[game[1]] += BALLS_PER_INNINGS;
+        }
+
+        int[][] fixtures = schedule.subList(played, schedule.size()).toArray(int[][]::new);
+        int[] left = new int[TEAMS];
+        for (int[] fixture : fixtures) {
+            left[fixture[0]]++;
+            left[fixture[1]]++;
+        }
+
+        double[][] low = new double[TEAMS][];
+        double[][] high = new double[TEAMS][];
+        for (int team = 0; team < TEAMS; team++) {
+            low[team] = QualificationProblem.nrrBounds(runsFor[team], balls[team], runsAgainst[team], balls[team],
+                    left[team], 160, BALLS_PER_INNINGS, 50, false);
+            high[team] = QualificationProblem.nrrBounds(runsFor[team], balls[team], runsAgainst[team], balls[team],
+                    left[team], 160, BALLS_PER_INNINGS, 50, true);
+        }
+
+        return new QualificationProblem(points, fixtures, low, high, fourth(points), TOP_N);
+    }
+
+    private static int fourth(int[] points) {
+
+        Integer[] order = new Integer[TEAMS];
+        for (int i = 0; i < TEAMS; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> points[b] - points[a]);
+        return order[TOP_N - 1];
+    }
+}